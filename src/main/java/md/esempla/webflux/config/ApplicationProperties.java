@@ -1,6 +1,13 @@
 package md.esempla.webflux.config;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Web Flux.
@@ -10,9 +17,1080 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Post post = new Post();
+
+    private final Deadline deadline = new Deadline();
+
+    private final DatabaseCircuitBreaker databaseCircuitBreaker = new DatabaseCircuitBreaker();
+
+    private final WarmUp warmUp = new WarmUp();
+
+    private final ReferenceData referenceData = new ReferenceData();
+
+    private final UserCache userCache = new UserCache();
+
+    private final QueryCache queryCache = new QueryCache();
+
+    private final CacheInvalidation cacheInvalidation = new CacheInvalidation();
+
+    private final CountEstimation countEstimation = new CountEstimation();
+
+    private final PdfRendering pdfRendering = new PdfRendering();
+
+    private final PdfJobs pdfJobs = new PdfJobs();
+
+    private final PdfCache pdfCache = new PdfCache();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final LoginThrottling loginThrottling = new LoginThrottling();
+
+    private final RefreshTokens refreshTokens = new RefreshTokens();
+
+    private final TokenRevocation tokenRevocation = new TokenRevocation();
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    private final StaticAssets staticAssets = new StaticAssets();
+
     // jhipster-needle-application-properties-property
 
+    public Post getPost() {
+        return post;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    public DatabaseCircuitBreaker getDatabaseCircuitBreaker() {
+        return databaseCircuitBreaker;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public ReferenceData getReferenceData() {
+        return referenceData;
+    }
+
+    public UserCache getUserCache() {
+        return userCache;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public CacheInvalidation getCacheInvalidation() {
+        return cacheInvalidation;
+    }
+
+    public CountEstimation getCountEstimation() {
+        return countEstimation;
+    }
+
+    public PdfRendering getPdfRendering() {
+        return pdfRendering;
+    }
+
+    public PdfJobs getPdfJobs() {
+        return pdfJobs;
+    }
+
+    public PdfCache getPdfCache() {
+        return pdfCache;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public LoginThrottling getLoginThrottling() {
+        return loginThrottling;
+    }
+
+    public RefreshTokens getRefreshTokens() {
+        return refreshTokens;
+    }
+
+    public TokenRevocation getTokenRevocation() {
+        return tokenRevocation;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    public StaticAssets getStaticAssets() {
+        return staticAssets;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
+    public static class Post {
+
+        /**
+         * Number of characters of the post content returned as excerpt by the list endpoints.
+         */
+        private int excerptLength = 200;
+
+        public int getExcerptLength() {
+            return excerptLength;
+        }
+
+        public void setExcerptLength(int excerptLength) {
+            this.excerptLength = excerptLength;
+        }
+    }
+
+    public static class Deadline {
+
+        private boolean enabled = true;
+
+        /**
+         * Deadline of the API requests which do not match any of the {@link #endpoints}.
+         */
+        private Duration defaultTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Upper bound of the deadline a client can ask for with the {@code X-Request-Timeout} header.
+         */
+        private Duration maxTimeout = Duration.ofMinutes(2);
+
+        /**
+         * Deadlines by path prefix, the longest matching prefix wins.
+         */
+        private Map<String, Duration> endpoints = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getDefaultTimeout() {
+            return defaultTimeout;
+        }
+
+        public void setDefaultTimeout(Duration defaultTimeout) {
+            this.defaultTimeout = defaultTimeout;
+        }
+
+        public Duration getMaxTimeout() {
+            return maxTimeout;
+        }
+
+        public void setMaxTimeout(Duration maxTimeout) {
+            this.maxTimeout = maxTimeout;
+        }
+
+        public Map<String, Duration> getEndpoints() {
+            return endpoints;
+        }
+
+        public void setEndpoints(Map<String, Duration> endpoints) {
+            this.endpoints = endpoints;
+        }
+    }
+
+    public static class DatabaseCircuitBreaker {
+
+        private boolean enabled = true;
+
+        /**
+         * Percentage of failed repository calls in the sliding window above which the breaker opens.
+         */
+        private float failureRateThreshold = 50;
+
+        /**
+         * Percentage of repository calls slower than {@link #slowCallDurationThreshold} above which the breaker opens.
+         */
+        private float slowCallRateThreshold = 80;
+
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+        /**
+         * Number of repository calls the failure and slow call rates are computed on.
+         */
+        private int slidingWindowSize = 50;
+
+        private int minimumNumberOfCalls = 20;
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+        private int permittedNumberOfCallsInHalfOpenState = 5;
+
+        private final StaleCache staleCache = new StaleCache();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public float getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public Duration getSlowCallDurationThreshold() {
+            return slowCallDurationThreshold;
+        }
+
+        public void setSlowCallDurationThreshold(Duration slowCallDurationThreshold) {
+            this.slowCallDurationThreshold = slowCallDurationThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+
+        public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+
+        public Duration getWaitDurationInOpenState() {
+            return waitDurationInOpenState;
+        }
+
+        public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+            this.waitDurationInOpenState = waitDurationInOpenState;
+        }
+
+        public int getPermittedNumberOfCallsInHalfOpenState() {
+            return permittedNumberOfCallsInHalfOpenState;
+        }
+
+        public void setPermittedNumberOfCallsInHalfOpenState(int permittedNumberOfCallsInHalfOpenState) {
+            this.permittedNumberOfCallsInHalfOpenState = permittedNumberOfCallsInHalfOpenState;
+        }
+
+        public StaleCache getStaleCache() {
+            return staleCache;
+        }
+
+        public static class StaleCache {
+
+            /**
+             * Path prefixes of the read endpoints whose last successful responses are served while the breaker is open.
+             */
+            private List<String> paths = new ArrayList<>();
+
+            /**
+             * Total size of the cached response bodies.
+             */
+            private DataSize maximumSize = DataSize.ofMegabytes(16);
+
+            /**
+             * Responses with a larger body are not cached.
+             */
+            private DataSize maximumEntrySize = DataSize.ofMegabytes(1);
+
+            /**
+             * Age after which a cached response is no longer served.
+             */
+            private Duration maxAge = Duration.ofHours(1);
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public DataSize getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(DataSize maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+
+            public DataSize getMaximumEntrySize() {
+                return maximumEntrySize;
+            }
+
+            public void setMaximumEntrySize(DataSize maximumEntrySize) {
+                this.maximumEntrySize = maximumEntrySize;
+            }
+
+            public Duration getMaxAge() {
+                return maxAge;
+            }
+
+            public void setMaxAge(Duration maxAge) {
+                this.maxAge = maxAge;
+            }
+        }
+    }
+
+    public static class WarmUp {
+
+        private boolean enabled = true;
+
+        /**
+         * Number of times the query shapes are executed and the payloads serialized.
+         */
+        private int iterations = 10;
+
+        /**
+         * Time after which the warm-up is stopped and the application reported ready, whatever the number of completed iterations.
+         */
+        private Duration timeBudget = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+
+        public Duration getTimeBudget() {
+            return timeBudget;
+        }
+
+        public void setTimeBudget(Duration timeBudget) {
+            this.timeBudget = timeBudget;
+        }
+    }
+
+    public static class ReferenceData {
+
+        /**
+         * Time after which the cached post statuses and authorities are reloaded, to pick up the modifications made through
+         * other instances of the application.
+         */
+        private Duration timeToLive = Duration.ofHours(1);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class UserCache {
+
+        /**
+         * Time after which a cached user, with its authorities, is loaded again from the database.
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        private long maximumSize = 10_000;
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+    public static class QueryCache {
+
+        /**
+         * Time after which a cached page or count is read again from the database, whatever the writes seen by this instance.
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+
+        /**
+         * Approximate size of the cached pages, for each of the post and comment caches.
+         */
+        private DataSize maximumSize = DataSize.ofMegabytes(32);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public DataSize getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(DataSize maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    public static class CacheInvalidation {
+
+        /**
+         * Whether the invalidations of the in-process caches are exchanged with the other instances.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Postgres channel of the invalidations, shared by all the instances. Made of letters, digits, underscores and dollar
+         * signs, not starting with a digit, and case-sensitive.
+         */
+        private String channel = "cache_invalidation";
+
+        /**
+         * Interval of the queries checking that the listening connection is still alive.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+        private Duration minReconnectDelay = Duration.ofSeconds(1);
+
+        private Duration maxReconnectDelay = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getMinReconnectDelay() {
+            return minReconnectDelay;
+        }
+
+        public void setMinReconnectDelay(Duration minReconnectDelay) {
+            this.minReconnectDelay = minReconnectDelay;
+        }
+
+        public Duration getMaxReconnectDelay() {
+            return maxReconnectDelay;
+        }
+
+        public void setMaxReconnectDelay(Duration maxReconnectDelay) {
+            this.maxReconnectDelay = maxReconnectDelay;
+        }
+    }
+
+    public static class CountEstimation {
+
+        /**
+         * Estimated row count below which the rows are counted exactly, as the estimate is then both cheap to replace and
+         * relatively inaccurate.
+         */
+        private long exactThreshold = 10_000;
+
+        public long getExactThreshold() {
+            return exactThreshold;
+        }
+
+        public void setExactThreshold(long exactThreshold) {
+            this.exactThreshold = exactThreshold;
+        }
+    }
+    public static class PdfRendering {
+
+        /**
+         * Number of PDFs rendered in parallel, each one keeping a thread busy.
+         */
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /**
+         * Number of PDFs waiting for a rendering thread, above which the requests are rejected with {@code 429}.
+         */
+        private int queueCapacity = 16;
+
+        /**
+         * Delay after which a rejected client is told to retry, in the {@code Retry-After} header.
+         */
+        private Duration retryAfter = Duration.ofSeconds(5);
+
+        /**
+         * Number of rows laid out together by streamed exports, which bounds the memory they use.
+         */
+        private int chunkSize = 100;
+
+        /**
+         * Maximum number of rows of an export, whatever the client requests.
+         */
+        private int maxRows = 10_000;
+
+        /**
+         * Whether the templates are recompiled when they change, for development.
+         */
+        private boolean reloadTemplates = false;
+
+        /**
+         * Classpath location of the stylesheet shared by the templates, as their {@code stylesheet} variable.
+         */
+        private String stylesheet = "templates/pdf.css";
+
+        /**
+         * Classpath locations of the TrueType fonts available to the templates, under their own family names.
+         */
+        private List<String> fonts = new ArrayList<>();
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxRows() {
+            return maxRows;
+        }
+
+        public void setMaxRows(int maxRows) {
+            this.maxRows = maxRows;
+        }
+
+        public boolean isReloadTemplates() {
+            return reloadTemplates;
+        }
+
+        public void setReloadTemplates(boolean reloadTemplates) {
+            this.reloadTemplates = reloadTemplates;
+        }
+
+        public String getStylesheet() {
+            return stylesheet;
+        }
+
+        public void setStylesheet(String stylesheet) {
+            this.stylesheet = stylesheet;
+        }
+
+        public List<String> getFonts() {
+            return fonts;
+        }
+
+        public void setFonts(List<String> fonts) {
+            this.fonts = fonts;
+        }
+    }
+
+    public static class PdfJobs {
+
+        /**
+         * Number of jobs run in parallel, the others waiting for their turn.
+         */
+        private int workers = 2;
+
+        /**
+         * Number of jobs a user may have pending or running at the same time.
+         */
+        private int maxJobsPerUser = 3;
+
+        /**
+         * Delay during which the result of a finished job is kept, before it is deleted.
+         */
+        private Duration ttl = Duration.ofHours(1);
+
+        /**
+         * Directory where the results of the jobs are stored, emptied on startup.
+         */
+        private String directory = Path.of(System.getProperty("java.io.tmpdir"), "pdf-jobs").toString();
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getMaxJobsPerUser() {
+            return maxJobsPerUser;
+        }
+
+        public void setMaxJobsPerUser(int maxJobsPerUser) {
+            this.maxJobsPerUser = maxJobsPerUser;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    public static class PdfCache {
+
+        /**
+         * Size of the cached PDFs on disk, above which the least recently used ones are deleted.
+         */
+        private DataSize maximumSize = DataSize.ofMegabytes(512);
+
+        /**
+         * Directory where the PDFs are cached, emptied on startup.
+         */
+        private String directory = Path.of(System.getProperty("java.io.tmpdir"), "pdf-cache").toString();
+
+        public DataSize getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(DataSize maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        /**
+         * Number of passwords hashed or verified in parallel, each one keeping a CPU busy.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Number of passwords waiting for a hashing thread, above which the requests are rejected with {@code 429}.
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * Delay after which a rejected client is told to retry, in the {@code Retry-After} header.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        /**
+         * Whether to pick the BCrypt cost at startup, as the highest one verifying a password within {@link #targetVerifyTime}.
+         * Otherwise, the {@link #minStrength} is used.
+         */
+        private boolean calibrate = true;
+
+        /**
+         * Median time a password verification should take on this host, which the calibrated cost does not exceed.
+         */
+        private Duration targetVerifyTime = Duration.ofMillis(100);
+
+        /**
+         * Lowest BCrypt cost, used even if it verifies slower than the {@link #targetVerifyTime}.
+         */
+        private int minStrength = 10;
+
+        /**
+         * Highest BCrypt cost the calibration may pick.
+         */
+        private int maxStrength = 14;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+
+        public boolean isCalibrate() {
+            return calibrate;
+        }
+
+        public void setCalibrate(boolean calibrate) {
+            this.calibrate = calibrate;
+        }
+
+        public Duration getTargetVerifyTime() {
+            return targetVerifyTime;
+        }
+
+        public void setTargetVerifyTime(Duration targetVerifyTime) {
+            this.targetVerifyTime = targetVerifyTime;
+        }
+
+        public int getMinStrength() {
+            return minStrength;
+        }
+
+        public void setMinStrength(int minStrength) {
+            this.minStrength = minStrength;
+        }
+
+        public int getMaxStrength() {
+            return maxStrength;
+        }
+
+        public void setMaxStrength(int maxStrength) {
+            this.maxStrength = maxStrength;
+        }
+    }
+
+    public static class LoginThrottling {
+
+        private boolean enabled = true;
+
+        /**
+         * Number of login attempts a login can make in a burst.
+         */
+        private int loginCapacity = 5;
+
+        /**
+         * Time after which a login regains one attempt.
+         */
+        private Duration loginRefillInterval = Duration.ofSeconds(12);
+
+        /**
+         * Number of login attempts an IP address can make in a burst, whatever the logins.
+         */
+        private int addressCapacity = 30;
+
+        /**
+         * Time after which an IP address regains one attempt.
+         */
+        private Duration addressRefillInterval = Duration.ofSeconds(2);
+
+        /**
+         * Maximum number of logins, and of IP addresses, whose attempts are tracked. The least recently seen are forgotten.
+         */
+        private long maximumKeys = 100_000;
+
+        /**
+         * Number of locks among which the buckets are spread.
+         */
+        private int stripes = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getLoginCapacity() {
+            return loginCapacity;
+        }
+
+        public void setLoginCapacity(int loginCapacity) {
+            this.loginCapacity = loginCapacity;
+        }
+
+        public Duration getLoginRefillInterval() {
+            return loginRefillInterval;
+        }
+
+        public void setLoginRefillInterval(Duration loginRefillInterval) {
+            this.loginRefillInterval = loginRefillInterval;
+        }
+
+        public int getAddressCapacity() {
+            return addressCapacity;
+        }
+
+        public void setAddressCapacity(int addressCapacity) {
+            this.addressCapacity = addressCapacity;
+        }
+
+        public Duration getAddressRefillInterval() {
+            return addressRefillInterval;
+        }
+
+        public void setAddressRefillInterval(Duration addressRefillInterval) {
+            this.addressRefillInterval = addressRefillInterval;
+        }
+
+        public long getMaximumKeys() {
+            return maximumKeys;
+        }
+
+        public void setMaximumKeys(long maximumKeys) {
+            this.maximumKeys = maximumKeys;
+        }
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+    }
+
+    public static class RefreshTokens {
+
+        /**
+         * Whether the logins get a refresh token along with a short-lived access token. Otherwise, the access tokens last for
+         * the {@code jhipster.security.authentication.jwt} validities.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Validity of the access tokens issued with a refresh token.
+         */
+        private Duration accessTokenValidity = Duration.ofMinutes(15);
+
+        /**
+         * Time after a login during which its refresh tokens can be used.
+         */
+        private Duration validity = Duration.ofDays(1);
+
+        /**
+         * Time after a "remember me" login during which its refresh tokens can be used.
+         */
+        private Duration validityForRememberMe = Duration.ofDays(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getAccessTokenValidity() {
+            return accessTokenValidity;
+        }
+
+        public void setAccessTokenValidity(Duration accessTokenValidity) {
+            this.accessTokenValidity = accessTokenValidity;
+        }
+
+        public Duration getValidity() {
+            return validity;
+        }
+
+        public void setValidity(Duration validity) {
+            this.validity = validity;
+        }
+
+        public Duration getValidityForRememberMe() {
+            return validityForRememberMe;
+        }
+
+        public void setValidityForRememberMe(Duration validityForRememberMe) {
+            this.validityForRememberMe = validityForRememberMe;
+        }
+    }
+
+    public static class TokenRevocation {
+
+        /**
+         * Interval at which each instance loads the tokens revoked by the other ones.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(5);
+
+        /**
+         * Number of tokens expected to be revoked and not yet expired at a time, for which the Bloom filter is sized.
+         */
+        private long expectedRevocations = 100_000;
+
+        /**
+         * Probability that a valid token is looked up in the revoked tokens, rather than accepted by the Bloom filter alone.
+         */
+        private double falsePositiveProbability = 0.01;
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public long getExpectedRevocations() {
+            return expectedRevocations;
+        }
+
+        public void setExpectedRevocations(long expectedRevocations) {
+            this.expectedRevocations = expectedRevocations;
+        }
+
+        public double getFalsePositiveProbability() {
+            return falsePositiveProbability;
+        }
+
+        public void setFalsePositiveProbability(double falsePositiveProbability) {
+            this.falsePositiveProbability = falsePositiveProbability;
+        }
+    }
+
+    public static class JwtCache {
+
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of verified tokens kept, each until its expiry.
+         */
+        private long maximumSize = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    public static class StaticAssets {
+
+        private boolean enabled = true;
+
+        /**
+         * Location of the Angular bundle, indexed at startup.
+         */
+        private String location = "classpath:/static/";
+
+        /**
+         * Pattern of the file names carrying a content hash, as written by the production build.
+         */
+        private String hashedFilePattern = "^.+[.-]([0-9a-f]{16,}|[0-9A-Z]{8})\\.[a-z0-9]+$";
+
+        /**
+         * Max age of the hashed files, served as immutable.
+         */
+        private Duration immutableMaxAge = Duration.ofDays(365);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+
+        public String getHashedFilePattern() {
+            return hashedFilePattern;
+        }
+
+        public void setHashedFilePattern(String hashedFilePattern) {
+            this.hashedFilePattern = hashedFilePattern;
+        }
+
+        public Duration getImmutableMaxAge() {
+            return immutableMaxAge;
+        }
+
+        public void setImmutableMaxAge(Duration immutableMaxAge) {
+            this.immutableMaxAge = immutableMaxAge;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
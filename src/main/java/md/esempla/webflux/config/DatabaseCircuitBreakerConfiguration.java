@@ -0,0 +1,92 @@
+package md.esempla.webflux.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import md.esempla.webflux.management.StaleResponseMetersService;
+import md.esempla.webflux.repository.RepositoryCircuitBreakerInterceptor;
+import md.esempla.webflux.web.filter.StaleResponseWebFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Puts a circuit breaker in front of the database, so that requests fail fast (or are answered from the stale response cache)
+ * instead of queuing on the connection pool while Postgres is saturated or restarting.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.database-circuit-breaker", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseCircuitBreakerConfiguration {
+
+    public static final String DATABASE_CIRCUIT_BREAKER = "database";
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(ApplicationProperties applicationProperties) {
+        ApplicationProperties.DatabaseCircuitBreaker properties = applicationProperties.getDatabaseCircuitBreaker();
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(properties.getSlidingWindowSize())
+            .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+            .failureRateThreshold(properties.getFailureRateThreshold())
+            .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+            .slowCallDurationThreshold(properties.getSlowCallDurationThreshold())
+            .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+            .permittedNumberOfCallsInHalfOpenState(properties.getPermittedNumberOfCallsInHalfOpenState())
+            // The stale response cache stops read traffic from reaching the breaker while it is open
+            .automaticTransitionFromOpenToHalfOpenEnabled(true)
+            // Constraint violations and optimistic locking conflicts are the caller's problem, not a sign of an unhealthy database
+            .ignoreExceptions(DataIntegrityViolationException.class, OptimisticLockingFailureException.class)
+            .build();
+        return CircuitBreakerRegistry.of(config);
+    }
+
+    @Bean
+    public CircuitBreaker databaseCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return circuitBreakerRegistry.circuitBreaker(DATABASE_CIRCUIT_BREAKER);
+    }
+
+    @Bean
+    public TaggedCircuitBreakerMetrics circuitBreakerMetrics(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry);
+    }
+
+    /**
+     * Adds the {@link RepositoryCircuitBreakerInterceptor} to every Spring Data repository proxy, including the calls
+     * delegated to the {@code *RepositoryInternalImpl} fragments.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryCircuitBreakerPostProcessor(ObjectProvider<CircuitBreaker> databaseCircuitBreaker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(repositoryFactory ->
+                        repositoryFactory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryCircuitBreakerInterceptor(databaseCircuitBreaker.getObject()))
+                        )
+                    );
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public StaleResponseWebFilter staleResponseWebFilter(
+        ApplicationProperties applicationProperties,
+        CircuitBreaker databaseCircuitBreaker,
+        StaleResponseMetersService metersService
+    ) {
+        return new StaleResponseWebFilter(
+            applicationProperties.getDatabaseCircuitBreaker().getStaleCache(),
+            databaseCircuitBreaker,
+            metersService
+        );
+    }
+}
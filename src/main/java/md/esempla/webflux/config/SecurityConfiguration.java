@@ -1,9 +1,19 @@
 package md.esempla.webflux.config;
 
 import static org.springframework.security.config.Customizer.withDefaults;
-import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
 
+import java.util.concurrent.RejectedExecutionException;
+import md.esempla.webflux.management.PasswordHashingMetersService;
+import md.esempla.webflux.management.SecurityMetersService;
 import md.esempla.webflux.security.AuthoritiesConstants;
+import md.esempla.webflux.security.AuthorizationRouteTable;
+import md.esempla.webflux.security.BCryptCalibration;
+import md.esempla.webflux.security.RehashingBCryptPasswordEncoder;
+import md.esempla.webflux.security.TimedPasswordEncoder;
+import md.esempla.webflux.security.TimedReactiveAuthenticationManager;
+import md.esempla.webflux.security.TimedReactiveAuthorizationManager;
+import md.esempla.webflux.security.TimedReactiveUserDetailsService;
+import md.esempla.webflux.service.PasswordHashingService;
 import md.esempla.webflux.web.filter.SpaWebFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,14 +22,12 @@ import org.springframework.security.authentication.UserDetailsRepositoryReactive
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.header.ReferrerPolicyServerHttpHeadersWriter;
 import org.springframework.security.web.server.header.XFrameOptionsServerHttpHeadersWriter.Mode;
-import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
-import org.springframework.security.web.server.util.matcher.OrServerWebExchangeMatcher;
 import tech.jhipster.config.JHipsterProperties;
 
 @Configuration
@@ -33,27 +41,47 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptCalibration bCryptCalibration(ApplicationProperties applicationProperties) {
+        return BCryptCalibration.calibrate(applicationProperties.getPasswordHashing());
     }
 
     @Bean
-    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserDetailsService userDetailsService) {
+    public PasswordEncoder passwordEncoder(BCryptCalibration bCryptCalibration, PasswordHashingMetersService passwordHashingMetersService) {
+        return new TimedPasswordEncoder(new RehashingBCryptPasswordEncoder(bCryptCalibration.strength()), passwordHashingMetersService);
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(
+        ReactiveUserDetailsService userDetailsService,
+        PasswordEncoder passwordEncoder,
+        PasswordHashingService passwordHashingService,
+        SecurityMetersService securityMetersService
+    ) {
         UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(
-            userDetailsService
+            new TimedReactiveUserDetailsService(userDetailsService, securityMetersService)
+        );
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        // Rehash the passwords whose stored hash has a lower cost than the calibrated one, after a successful login
+        if (userDetailsService instanceof ReactiveUserDetailsPasswordService userDetailsPasswordService) {
+            authenticationManager.setUserDetailsPasswordService(userDetailsPasswordService);
+        }
+        // Verify the passwords on the hashing threads rather than on the shared bounded elastic scheduler
+        authenticationManager.setScheduler(passwordHashingService.getScheduler());
+        ReactiveAuthenticationManager timedAuthenticationManager = new TimedReactiveAuthenticationManager(
+            authenticationManager,
+            securityMetersService
         );
-        authenticationManager.setPasswordEncoder(passwordEncoder());
-        return authenticationManager;
+        return authentication ->
+            timedAuthenticationManager
+                .authenticate(authentication)
+                .onErrorMap(RejectedExecutionException.class, passwordHashingService::rejected);
     }
 
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http, SecurityMetersService securityMetersService) {
+        AuthorizationRouteTable authorizationRoutes = authorizationRoutes();
         http
-            .securityMatcher(
-                new NegatedServerWebExchangeMatcher(
-                    new OrServerWebExchangeMatcher(pathMatchers("/app/**", "/i18n/**", "/content/**", "/swagger-ui/**"))
-                )
-            )
+            .securityMatcher(authorizationRoutes.securityMatcher())
             .cors(withDefaults())
             .csrf(csrf -> csrf.disable())
             .addFilterAfter(new SpaWebFilter(), SecurityWebFiltersOrder.HTTPS_REDIRECT)
@@ -71,27 +99,37 @@ public class SecurityConfiguration {
                     )
             )
             .authorizeExchange(authz ->
-                // prettier-ignore
-                authz
-                    .pathMatchers("/").permitAll()
-                    .pathMatchers("/*.*").permitAll()
-                    .pathMatchers("/api/authenticate").permitAll()
-                    .pathMatchers("/api/register").permitAll()
-                    .pathMatchers("/api/activate").permitAll()
-                    .pathMatchers("/api/account/reset-password/init").permitAll()
-                    .pathMatchers("/api/account/reset-password/finish").permitAll()
-                    .pathMatchers("/api/admin/**").hasAuthority(AuthoritiesConstants.ADMIN)
-                    .pathMatchers("/api/**").authenticated()
-                    .pathMatchers("/services/**").authenticated()
-                    .pathMatchers("/v3/api-docs/**").hasAuthority(AuthoritiesConstants.ADMIN)
-                    .pathMatchers("/management/health").permitAll()
-                    .pathMatchers("/management/health/**").permitAll()
-                    .pathMatchers("/management/info").permitAll()
-                    .pathMatchers("/management/prometheus").permitAll()
-                    .pathMatchers("/management/**").hasAuthority(AuthoritiesConstants.ADMIN)
+                authz.anyExchange().access(new TimedReactiveAuthorizationManager<>(authorizationRoutes, securityMetersService))
             )
             .httpBasic(basic -> basic.disable())
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(withDefaults()));
         return http.build();
     }
+
+    /**
+     * The requests left out of the security filter chain, and the access rules of the others, the first one matching deciding.
+     */
+    static AuthorizationRouteTable authorizationRoutes() {
+        // prettier-ignore
+        return AuthorizationRouteTable.builder()
+            .ignoring("/app/**", "/i18n/**", "/content/**", "/swagger-ui/**")
+            .route("/").permitAll()
+            .route("/*.*").permitAll()
+            .route("/api/authenticate").permitAll()
+            .route("/api/authenticate/refresh").permitAll()
+            .route("/api/register").permitAll()
+            .route("/api/activate").permitAll()
+            .route("/api/account/reset-password/init").permitAll()
+            .route("/api/account/reset-password/finish").permitAll()
+            .route("/api/admin/**").hasAuthority(AuthoritiesConstants.ADMIN)
+            .route("/api/**").authenticated()
+            .route("/services/**").authenticated()
+            .route("/v3/api-docs/**").hasAuthority(AuthoritiesConstants.ADMIN)
+            .route("/management/health").permitAll()
+            .route("/management/health/**").permitAll()
+            .route("/management/info").permitAll()
+            .route("/management/prometheus").permitAll()
+            .route("/management/**").hasAuthority(AuthoritiesConstants.ADMIN)
+            .build();
+    }
 }
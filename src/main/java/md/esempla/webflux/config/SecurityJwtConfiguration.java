@@ -4,11 +4,14 @@ import static md.esempla.webflux.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
+import io.micrometer.core.instrument.MeterRegistry;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import md.esempla.webflux.management.SecurityMetersService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import md.esempla.webflux.security.CachingJwtDecoder;
+import md.esempla.webflux.security.RevokedJwtException;
+import md.esempla.webflux.security.TimedJwtDecoder;
+import md.esempla.webflux.security.TokenRevocationList;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,47 +19,36 @@ import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
 
 @Configuration
 public class SecurityJwtConfiguration {
 
-    private static final Logger LOG = LoggerFactory.getLogger(SecurityJwtConfiguration.class);
-
     @Value("${jhipster.security.authentication.jwt.base64-secret}")
     private String jwtKey;
 
     @Bean
-    public ReactiveJwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public ReactiveJwtDecoder jwtDecoder(
+        SecurityMetersService metersService,
+        TokenRevocationList tokenRevocationList,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
-            try {
-                return jwtDecoder
-                    .decode(token)
-                    .doOnError(e -> {
-                        if (e.getMessage().contains("Jwt expired at")) {
-                            metersService.trackTokenExpired();
-                        } else if (e.getMessage().contains("Failed to validate the token")) {
-                            metersService.trackTokenInvalidSignature();
-                        } else if (
-                            e.getMessage().contains("Invalid JWT serialization:") ||
-                            e.getMessage().contains("Invalid unsecured/JWS/JWE header:")
-                        ) {
-                            metersService.trackTokenMalformed();
-                        } else {
-                            LOG.error("Unknown JWT reactive error {}", e.getMessage());
-                        }
-                    });
-            } catch (Exception e) {
-                if (e.getMessage().contains("An error occurred while attempting to decode the Jwt")) {
-                    metersService.trackTokenMalformed();
-                } else if (e.getMessage().contains("Failed to validate the token")) {
-                    metersService.trackTokenInvalidSignature();
-                } else {
-                    LOG.error("Unknown JWT error {}", e.getMessage());
-                }
-                throw e;
-            }
-        };
+        ReactiveJwtDecoder cachingDecoder = applicationProperties.getJwtCache().isEnabled()
+            ? new CachingJwtDecoder(jwtDecoder, applicationProperties.getJwtCache(), meterRegistry)
+            : jwtDecoder;
+        ReactiveJwtDecoder revocationCheckingDecoder = token ->
+            cachingDecoder
+                .decode(token)
+                .flatMap(jwt -> {
+                    // Checked in memory for every request, including the ones whose token is cached
+                    if (tokenRevocationList.isRevoked(jwt.getId())) {
+                        return Mono.error(new RevokedJwtException("Revoked JWT"));
+                    }
+                    return Mono.just(jwt);
+                });
+        return new TimedJwtDecoder(revocationCheckingDecoder, metersService);
     }
 
     @Bean
@@ -0,0 +1,24 @@
+package md.esempla.webflux.config;
+
+import md.esempla.webflux.service.WarmUpService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+@Configuration
+public class WarmUpConfiguration {
+
+    /**
+     * Reports {@code OUT_OF_SERVICE} until the {@link WarmUpService} is done. The readiness group includes this {@code warmUp}
+     * indicator, so the instance stays out of the load balancer while it is still cold.
+     */
+    @Bean
+    public ReactiveHealthIndicator warmUpHealthIndicator(WarmUpService warmUpService) {
+        return () ->
+            Mono.fromSupplier(() ->
+                warmUpService.isComplete() ? Health.up().build() : Health.outOfService().withDetail("warmUp", "in progress").build()
+            );
+    }
+}
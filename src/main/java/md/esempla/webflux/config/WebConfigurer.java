@@ -2,6 +2,10 @@ package md.esempla.webflux.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.concurrent.TimeUnit;
+import md.esempla.webflux.management.RequestDeadlineMetersService;
+import md.esempla.webflux.web.filter.RequestDeadlineWebFilter;
+import md.esempla.webflux.web.filter.ResponseResourcesWebFilter;
+import md.esempla.webflux.web.filter.StaticAssetsWebFilter;
 import md.esempla.webflux.web.rest.errors.ExceptionTranslator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +13,7 @@ import org.springframework.boot.autoconfigure.web.reactive.ResourceHandlerRegist
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
 import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
@@ -34,8 +39,11 @@ public class WebConfigurer implements WebFluxConfigurer {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public WebConfigurer(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public WebConfigurer(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
@@ -70,6 +78,22 @@ public class WebConfigurer implements WebFluxConfigurer {
         return new ReactiveWebExceptionHandler(problemHandling, mapper);
     }
 
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE) // The deadline also covers the time spent in the security filter chain
+    public RequestDeadlineWebFilter requestDeadlineWebFilter(RequestDeadlineMetersService metersService) {
+        return new RequestDeadlineWebFilter(applicationProperties.getDeadline(), metersService);
+    }
+
+    @Bean
+    public ResponseResourcesWebFilter responseResourcesWebFilter() {
+        return new ResponseResourcesWebFilter();
+    }
+
+    @Bean // Unordered, to serve the assets after the security filter chain has added its headers and forwarded the client routes
+    public StaticAssetsWebFilter staticAssetsWebFilter() {
+        return new StaticAssetsWebFilter(applicationProperties.getStaticAssets());
+    }
+
     @Bean
     ResourceHandlerRegistrationCustomizer registrationCustomizer() {
         // Disable built-in cache control to use our custom filter instead
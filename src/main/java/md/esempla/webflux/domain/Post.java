@@ -1,6 +1,7 @@
 package md.esempla.webflux.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
@@ -30,6 +31,10 @@ public class Post implements Serializable {
     @Column("content")
     private String content;
 
+    @org.springframework.data.annotation.Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String excerpt;
+
     @NotNull(message = "must not be null")
     @Column("create_time")
     private ZonedDateTime createTime;
@@ -89,6 +94,19 @@ public class Post implements Serializable {
         this.content = content;
     }
 
+    public String getExcerpt() {
+        return this.excerpt;
+    }
+
+    public Post excerpt(String excerpt) {
+        this.setExcerpt(excerpt);
+        return this;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
     public ZonedDateTime getCreateTime() {
         return this.createTime;
     }
@@ -0,0 +1,78 @@
+package md.esempla.webflux.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CacheInvalidationMetersService {
+
+    public static final String LATENCY_METER_NAME = "cache.invalidation.latency";
+    public static final String LATENCY_METER_DESCRIPTION =
+        "Indicates the time between the commit of a write on a node and the invalidation of the caches of the other nodes.";
+
+    public static final String FLUSHES_METER_NAME = "cache.invalidation.flushes";
+    public static final String FLUSHES_METER_DESCRIPTION =
+        "Indicates the count of full cache flushes, because invalidations may have been missed.";
+    public static final String FLUSHES_METER_BASE_UNIT = "flushes";
+    public static final String FLUSHES_METER_REASON_DIMENSION = "reason";
+
+    public static final String PUBLISH_ERRORS_METER_NAME = "cache.invalidation.publish.errors";
+    public static final String PUBLISH_ERRORS_METER_DESCRIPTION = "Indicates the count of invalidations which could not be published.";
+    public static final String PUBLISH_ERRORS_METER_BASE_UNIT = "errors";
+
+    private final Timer latencyTimer;
+    private final Counter connectFlushCounter;
+    private final Counter gapFlushCounter;
+    private final Counter publishErrorCounter;
+
+    public CacheInvalidationMetersService(MeterRegistry registry) {
+        this.latencyTimer = Timer.builder(LATENCY_METER_NAME)
+            .description(LATENCY_METER_DESCRIPTION)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.connectFlushCounter = flushCounterForReasonBuilder("connect").register(registry);
+        this.gapFlushCounter = flushCounterForReasonBuilder("gap").register(registry);
+        this.publishErrorCounter = Counter.builder(PUBLISH_ERRORS_METER_NAME)
+            .baseUnit(PUBLISH_ERRORS_METER_BASE_UNIT)
+            .description(PUBLISH_ERRORS_METER_DESCRIPTION)
+            .register(registry);
+    }
+
+    private Counter.Builder flushCounterForReasonBuilder(String reason) {
+        return Counter.builder(FLUSHES_METER_NAME)
+            .baseUnit(FLUSHES_METER_BASE_UNIT)
+            .description(FLUSHES_METER_DESCRIPTION)
+            .tag(FLUSHES_METER_REASON_DIMENSION, reason);
+    }
+
+    /**
+     * An invalidation published by another node was received, after the given time.
+     */
+    public void trackLatency(Duration latency) {
+        this.latencyTimer.record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
+    /**
+     * The caches were flushed when (re)connecting to the bus, as the invalidations published meanwhile were lost.
+     */
+    public void trackConnectFlush() {
+        this.connectFlushCounter.increment();
+    }
+
+    /**
+     * The caches were flushed because an invalidation published by another node is missing.
+     */
+    public void trackGapFlush() {
+        this.gapFlushCounter.increment();
+    }
+
+    /**
+     * An invalidation could not be sent to the other nodes.
+     */
+    public void trackPublishError() {
+        this.publishErrorCounter.increment();
+    }
+}
@@ -0,0 +1,69 @@
+package md.esempla.webflux.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PasswordHashingMetersService {
+
+    public static final String HASH_TIME_METER_NAME = "security.password.hash.time";
+    public static final String HASH_TIME_METER_DESCRIPTION = "Indicates the time spent hashing a password.";
+
+    public static final String VERIFY_TIME_METER_NAME = "security.password.verify.time";
+    public static final String VERIFY_TIME_METER_DESCRIPTION = "Indicates the time spent verifying a password against its hash.";
+    public static final String VERIFY_TIME_METER_OUTCOME_DIMENSION = "outcome";
+
+    public static final String REJECTED_METER_NAME = "security.password.hashing.rejected";
+    public static final String REJECTED_METER_DESCRIPTION =
+        "Indicates the count of password hashings or verifications rejected because the queue was full.";
+    public static final String REJECTED_METER_BASE_UNIT = "hashings";
+
+    private final Timer hashTimer;
+    private final Timer verifyMatchTimer;
+    private final Timer verifyMismatchTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingMetersService(MeterRegistry registry) {
+        this.hashTimer = Timer.builder(HASH_TIME_METER_NAME)
+            .description(HASH_TIME_METER_DESCRIPTION)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.verifyMatchTimer = verifyTimerForOutcomeBuilder("match").register(registry);
+        this.verifyMismatchTimer = verifyTimerForOutcomeBuilder("mismatch").register(registry);
+        this.rejectedCounter = Counter.builder(REJECTED_METER_NAME)
+            .baseUnit(REJECTED_METER_BASE_UNIT)
+            .description(REJECTED_METER_DESCRIPTION)
+            .register(registry);
+    }
+
+    private Timer.Builder verifyTimerForOutcomeBuilder(String outcome) {
+        return Timer.builder(VERIFY_TIME_METER_NAME)
+            .description(VERIFY_TIME_METER_DESCRIPTION)
+            .tag(VERIFY_TIME_METER_OUTCOME_DIMENSION, outcome)
+            .publishPercentileHistogram();
+    }
+
+    /**
+     * A password was hashed in the given time.
+     */
+    public void trackHashTime(Duration hashTime) {
+        this.hashTimer.record(hashTime);
+    }
+
+    /**
+     * A password was verified in the given time, and matched its hash or not.
+     */
+    public void trackVerifyTime(Duration verifyTime, boolean matched) {
+        (matched ? this.verifyMatchTimer : this.verifyMismatchTimer).record(verifyTime);
+    }
+
+    /**
+     * A password hashing or verification was rejected because the hashing threads and their queue were all taken.
+     */
+    public void trackRejected() {
+        this.rejectedCounter.increment();
+    }
+}
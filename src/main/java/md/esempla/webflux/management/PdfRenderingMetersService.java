@@ -0,0 +1,46 @@
+package md.esempla.webflux.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PdfRenderingMetersService {
+
+    public static final String RENDER_TIME_METER_NAME = "pdf.render.time";
+    public static final String RENDER_TIME_METER_DESCRIPTION = "Indicates the time spent rendering a PDF, once it left the queue.";
+
+    public static final String REJECTED_METER_NAME = "pdf.render.rejected";
+    public static final String REJECTED_METER_DESCRIPTION = "Indicates the count of PDF renderings rejected because the queue was full.";
+    public static final String REJECTED_METER_BASE_UNIT = "renderings";
+
+    private final Timer renderTimer;
+    private final Counter rejectedCounter;
+
+    public PdfRenderingMetersService(MeterRegistry registry) {
+        this.renderTimer = Timer.builder(RENDER_TIME_METER_NAME)
+            .description(RENDER_TIME_METER_DESCRIPTION)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.rejectedCounter = Counter.builder(REJECTED_METER_NAME)
+            .baseUnit(REJECTED_METER_BASE_UNIT)
+            .description(REJECTED_METER_DESCRIPTION)
+            .register(registry);
+    }
+
+    /**
+     * A PDF was rendered, successfully or not, in the given time.
+     */
+    public void trackRenderTime(Duration renderTime) {
+        this.renderTimer.record(renderTime);
+    }
+
+    /**
+     * A PDF rendering was rejected because the rendering threads and their queue were all taken.
+     */
+    public void trackRejected() {
+        this.rejectedCounter.increment();
+    }
+}
@@ -0,0 +1,44 @@
+package md.esempla.webflux.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RequestDeadlineMetersService {
+
+    public static final String DEADLINE_EXCEEDED_METER_NAME = "http.server.requests.deadline-exceeded";
+    public static final String DEADLINE_EXCEEDED_METER_DESCRIPTION =
+        "Indicates the count of requests aborted because their deadline expired.";
+    public static final String DEADLINE_EXCEEDED_METER_BASE_UNIT = "requests";
+    public static final String DEADLINE_EXCEEDED_METER_STAGE_DIMENSION = "stage";
+
+    private final Counter requestDeadlineExceededCounter;
+    private final Counter statementDeadlineExceededCounter;
+
+    public RequestDeadlineMetersService(MeterRegistry registry) {
+        this.requestDeadlineExceededCounter = deadlineExceededCounterForStageBuilder("request").register(registry);
+        this.statementDeadlineExceededCounter = deadlineExceededCounterForStageBuilder("statement").register(registry);
+    }
+
+    private Counter.Builder deadlineExceededCounterForStageBuilder(String stage) {
+        return Counter.builder(DEADLINE_EXCEEDED_METER_NAME)
+            .baseUnit(DEADLINE_EXCEEDED_METER_BASE_UNIT)
+            .description(DEADLINE_EXCEEDED_METER_DESCRIPTION)
+            .tag(DEADLINE_EXCEEDED_METER_STAGE_DIMENSION, stage);
+    }
+
+    /**
+     * The request as a whole did not complete before its deadline.
+     */
+    public void trackRequestDeadlineExceeded() {
+        this.requestDeadlineExceededCounter.increment();
+    }
+
+    /**
+     * A database statement was refused or cancelled by the {@code statement_timeout} derived from the deadline.
+     */
+    public void trackStatementDeadlineExceeded() {
+        this.statementDeadlineExceededCounter.increment();
+    }
+}
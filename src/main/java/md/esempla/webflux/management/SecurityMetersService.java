@@ -2,6 +2,8 @@ package md.esempla.webflux.management;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +15,50 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String THROTTLED_LOGINS_METER_NAME = "security.authentication.throttled";
+    public static final String THROTTLED_LOGINS_METER_DESCRIPTION =
+        "Indicates the count of login attempts rejected before authentication, because their login or IP address was over its limit.";
+    public static final String THROTTLED_LOGINS_METER_BASE_UNIT = "attempts";
+    public static final String THROTTLED_LOGINS_METER_KEY_DIMENSION = "key";
+
+    public static final String JWT_DECODE_TIME_METER_NAME = "security.authentication.jwt.decode.time";
+    public static final String JWT_DECODE_TIME_METER_DESCRIPTION =
+        "Indicates the time spent decoding the tokens presented by the clients, tagged by outcome: valid or the cause of the error.";
+
+    public static final String AUTHENTICATION_TIME_METER_NAME = "security.authentication.time";
+    public static final String AUTHENTICATION_TIME_METER_DESCRIPTION =
+        "Indicates the time spent authenticating a login and password, user lookup and password verification included.";
+
+    public static final String USER_LOOKUP_TIME_METER_NAME = "security.authentication.user-lookup.time";
+    public static final String USER_LOOKUP_TIME_METER_DESCRIPTION = "Indicates the time spent looking up the user of a login or email.";
+
+    public static final String AUTHORIZATION_TIME_METER_NAME = "security.authorization.time";
+    public static final String AUTHORIZATION_TIME_METER_DESCRIPTION = "Indicates the time spent deciding whether a request is allowed.";
+
+    public static final String OUTCOME_DIMENSION = "outcome";
+
+    private final MeterRegistry registry;
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter tokenRevokedCounter;
+
+    private final Counter loginThrottledByLoginCounter;
+    private final Counter loginThrottledByAddressCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
+
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenRevokedCounter = invalidTokensCounterForCauseBuilder("revoked").register(registry);
+
+        this.loginThrottledByLoginCounter = throttledLoginsCounterForKeyBuilder("login").register(registry);
+        this.loginThrottledByAddressCounter = throttledLoginsCounterForKeyBuilder("ip").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -32,6 +68,17 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder throttledLoginsCounterForKeyBuilder(String key) {
+        return Counter.builder(THROTTLED_LOGINS_METER_NAME)
+            .baseUnit(THROTTLED_LOGINS_METER_BASE_UNIT)
+            .description(THROTTLED_LOGINS_METER_DESCRIPTION)
+            .tag(THROTTLED_LOGINS_METER_KEY_DIMENSION, key);
+    }
+
+    private Timer timerForOutcome(String name, String description, String outcome) {
+        return Timer.builder(name).description(description).tag(OUTCOME_DIMENSION, outcome).publishPercentileHistogram().register(registry);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -47,4 +94,44 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenRevoked() {
+        this.tokenRevokedCounter.increment();
+    }
+
+    public void trackLoginThrottledByLogin() {
+        this.loginThrottledByLoginCounter.increment();
+    }
+
+    public void trackLoginThrottledByAddress() {
+        this.loginThrottledByAddressCounter.increment();
+    }
+
+    /**
+     * A token was decoded in the given time, with the outcome {@code valid} or else the cause of its error.
+     */
+    public void trackJwtDecodeTime(Duration time, String outcome) {
+        timerForOutcome(JWT_DECODE_TIME_METER_NAME, JWT_DECODE_TIME_METER_DESCRIPTION, outcome).record(time);
+    }
+
+    /**
+     * A login and password were authenticated, successfully or not, in the given time.
+     */
+    public void trackAuthenticationTime(Duration time, String outcome) {
+        timerForOutcome(AUTHENTICATION_TIME_METER_NAME, AUTHENTICATION_TIME_METER_DESCRIPTION, outcome).record(time);
+    }
+
+    /**
+     * The user of a login or email was looked up, found or not, in the given time.
+     */
+    public void trackUserLookupTime(Duration time, String outcome) {
+        timerForOutcome(USER_LOOKUP_TIME_METER_NAME, USER_LOOKUP_TIME_METER_DESCRIPTION, outcome).record(time);
+    }
+
+    /**
+     * The access to a request was decided in the given time.
+     */
+    public void trackAuthorizationTime(Duration time, String outcome) {
+        timerForOutcome(AUTHORIZATION_TIME_METER_NAME, AUTHORIZATION_TIME_METER_DESCRIPTION, outcome).record(time);
+    }
 }
@@ -0,0 +1,44 @@
+package md.esempla.webflux.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+@Service
+public class StaleResponseMetersService {
+
+    public static final String STALE_RESPONSE_METER_NAME = "http.server.requests.stale";
+    public static final String STALE_RESPONSE_METER_DESCRIPTION =
+        "Indicates the count of read requests received while the database circuit breaker was open.";
+    public static final String STALE_RESPONSE_METER_BASE_UNIT = "requests";
+    public static final String STALE_RESPONSE_METER_OUTCOME_DIMENSION = "outcome";
+
+    private final Counter staleResponseServedCounter;
+    private final Counter staleResponseMissedCounter;
+
+    public StaleResponseMetersService(MeterRegistry registry) {
+        this.staleResponseServedCounter = staleResponseCounterForOutcomeBuilder("served").register(registry);
+        this.staleResponseMissedCounter = staleResponseCounterForOutcomeBuilder("miss").register(registry);
+    }
+
+    private Counter.Builder staleResponseCounterForOutcomeBuilder(String outcome) {
+        return Counter.builder(STALE_RESPONSE_METER_NAME)
+            .baseUnit(STALE_RESPONSE_METER_BASE_UNIT)
+            .description(STALE_RESPONSE_METER_DESCRIPTION)
+            .tag(STALE_RESPONSE_METER_OUTCOME_DIMENSION, outcome);
+    }
+
+    /**
+     * The last successful response was served in place of a database read.
+     */
+    public void trackStaleResponseServed() {
+        this.staleResponseServedCounter.increment();
+    }
+
+    /**
+     * No cached response was available, the request failed fast.
+     */
+    public void trackStaleResponseMissed() {
+        this.staleResponseMissedCounter.increment();
+    }
+}
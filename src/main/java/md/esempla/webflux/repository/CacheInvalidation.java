@@ -0,0 +1,66 @@
+package md.esempla.webflux.repository;
+
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utility class to invalidate in-process caches from within reactive transactions.
+ */
+public final class CacheInvalidation {
+
+    private CacheInvalidation() {}
+
+    /**
+     * Run the invalidation now and, when called within a transaction, once again after it completes, so that a load
+     * running concurrently with the transaction cannot keep the old rows.
+     *
+     * @param invalidation the invalidation to run.
+     * @return a {@link Mono} completing when the invalidation is done and registered.
+     */
+    public static Mono<Void> nowAndAfterCompletion(Runnable invalidation) {
+        return Mono.fromRunnable(invalidation).then(
+            TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .doOnNext(synchronizationManager ->
+                    synchronizationManager.registerSynchronization(
+                        new TransactionSynchronization() {
+                            @Override
+                            public Mono<Void> afterCompletion(int status) {
+                                return Mono.fromRunnable(invalidation);
+                            }
+                        }
+                    )
+                )
+                .onErrorComplete(NoTransactionException.class)
+                .then()
+        );
+    }
+
+    /**
+     * Run the action once the current transaction is committed, or now when called outside of a transaction. The action
+     * does not run if the transaction is rolled back.
+     *
+     * @param action the action to run.
+     * @return a {@link Mono} completing when the action is done or registered.
+     */
+    public static Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .map(synchronizationManager -> {
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(action);
+                        }
+                    }
+                );
+                return true;
+            })
+            .onErrorComplete(NoTransactionException.class)
+            .switchIfEmpty(Mono.fromRunnable(action))
+            .then();
+    }
+}
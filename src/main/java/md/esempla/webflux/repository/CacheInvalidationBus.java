@@ -0,0 +1,262 @@
+package md.esempla.webflux.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.CacheInvalidationMetersService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+/**
+ * Invalidates the in-process caches of all the instances of the application.
+ * <p>
+ * The caches of this instance are invalidated right away, and once again after the current transaction completes. Once the
+ * transaction is committed, the invalidation is published to the other instances with Postgres {@code pg_notify}, one at a
+ * time and numbered, so that each instance receives the invalidations of another one in order. Every instance listens to
+ * them on a dedicated connection, which is checked by a heartbeat and reconnected when lost.
+ * <p>
+ * As the invalidations published while an instance is not listening are lost, the caches are flushed whenever the
+ * listening connection is (re)established, or when an invalidation numbered by another instance is missing.
+ * <p>
+ * The channel is checked to be a plain identifier at startup. It is quoted in {@code LISTEN}, so that its case is kept as
+ * {@code pg_notify} keeps it.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    /**
+     * The identifiers which need no escaping, within the 63 bytes Postgres keeps of a name.
+     */
+    private static final Pattern CHANNEL = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]{0,62}");
+
+    private final ConnectionFactory connectionFactory;
+
+    private final DatabaseClient db;
+
+    private final ObjectMapper objectMapper;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final UserCache userCache;
+
+    private final QueryResultCache queryResultCache;
+
+    private final CacheInvalidationMetersService metersService;
+
+    private final ApplicationProperties.CacheInvalidation properties;
+
+    private final String node = UUID.randomUUID().toString();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<String, Long> lastSequences = new ConcurrentHashMap<>();
+
+    private final Sinks.Many<CacheInvalidationEvent> outbox = Sinks.many().unicast().onBackpressureBuffer();
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public CacheInvalidationBus(
+        ConnectionFactory connectionFactory,
+        DatabaseClient db,
+        ObjectMapper objectMapper,
+        ReferenceDataCache referenceDataCache,
+        UserCache userCache,
+        QueryResultCache queryResultCache,
+        CacheInvalidationMetersService metersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.connectionFactory = connectionFactory;
+        this.db = db;
+        this.objectMapper = objectMapper;
+        this.referenceDataCache = referenceDataCache;
+        this.userCache = userCache;
+        this.queryResultCache = queryResultCache;
+        this.metersService = metersService;
+        this.properties = applicationProperties.getCacheInvalidation();
+        if (!CHANNEL.matcher(properties.getChannel()).matches()) {
+            throw new IllegalArgumentException("The cache invalidation channel is not a valid identifier: " + properties.getChannel());
+        }
+    }
+
+    /**
+     * Invalidate the caches holding the written entity, on this instance and on the other ones.
+     *
+     * @param event the write of the entity.
+     * @return a {@link Mono} completing when the local invalidation is done and the publication is registered.
+     */
+    public Mono<Void> invalidate(CacheInvalidationEvent event) {
+        Mono<Void> invalidation = apply(event);
+        if (!properties.isEnabled()) {
+            return invalidation;
+        }
+        return invalidation.then(
+            CacheInvalidation.afterCommit(() -> outbox.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1))))
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        subscriptions.add(outbox.asFlux().concatMap(this::publish).subscribe());
+        subscriptions.add(listen().subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    Mono<Void> apply(CacheInvalidationEvent event) {
+        return switch (event.type()) {
+            case POST -> queryResultCache
+                .posts()
+                .invalidate(event.scope())
+                .then(queryResultCache.comments().invalidate(List.of(Long.valueOf(event.id()))));
+            case COMMENT -> queryResultCache.comments().invalidate(event.scope());
+            case POST_STATUS -> referenceDataCache
+                .postStatuses()
+                .invalidateAfterCompletion()
+                .then(queryResultCache.posts().invalidateAll());
+            // The authorities are held by the cached users
+            case AUTHORITY -> referenceDataCache.authorities().invalidateAfterCompletion().then(userCache.evictAll());
+            case USER -> userCache.evict(event.id());
+        };
+    }
+
+    Mono<Void> flush() {
+        return Mono.when(
+            referenceDataCache.postStatuses().invalidateAfterCompletion(),
+            referenceDataCache.authorities().invalidateAfterCompletion(),
+            userCache.evictAll(),
+            queryResultCache.posts().invalidateAll(),
+            queryResultCache.comments().invalidateAll()
+        );
+    }
+
+    /**
+     * Sends the invalidation outside of any transaction. A failed invalidation is still numbered, so that the other instances
+     * detect it is missing.
+     */
+    private Mono<Void> publish(CacheInvalidationEvent event) {
+        return Mono.fromCallable(() ->
+            objectMapper.writeValueAsString(new Message(node, sequence.incrementAndGet(), System.currentTimeMillis(), event))
+        )
+            .flatMap(payload ->
+                db.sql("SELECT pg_notify(:channel, :payload)").bind("channel", properties.getChannel()).bind("payload", payload).then()
+            )
+            .doOnError(e -> {
+                LOG.warn("Could not publish the cache invalidation {}: {}", event, e.getMessage());
+                metersService.trackPublishError();
+            })
+            .onErrorComplete();
+    }
+
+    Mono<Void> receive(String payload) {
+        return Mono.fromCallable(() -> objectMapper.readValue(payload, Message.class))
+            .filter(message -> !node.equals(message.node()))
+            .flatMap(message -> {
+                metersService.trackLatency(Duration.ofMillis(System.currentTimeMillis() - message.sentAt()));
+                Long previous = lastSequences.put(message.node(), message.sequence());
+                if (previous != null && message.sequence() != previous + 1) {
+                    LOG.warn("Missed cache invalidations {} to {} from {}", previous + 1, message.sequence() - 1, message.node());
+                    metersService.trackGapFlush();
+                    return flush();
+                }
+                return apply(message.event());
+            })
+            .doOnError(e -> LOG.warn("Could not apply the cache invalidation {}: {}", payload, e.getMessage()))
+            .onErrorComplete();
+    }
+
+    private Flux<Boolean> listen() {
+        return Flux.usingWhen(Mono.from(listeningConnectionFactory().create()), this::listen, Connection::close).retryWhen(
+            reconnection()
+        );
+    }
+
+    /**
+     * The delay between the reconnections grows while they fail, and starts over once {@code LISTEN} succeeds: the listening
+     * flux then emits, and a retry with transient errors only counts the errors since its last element.
+     */
+    RetryBackoffSpec reconnection() {
+        return Retry.backoff(Long.MAX_VALUE, properties.getMinReconnectDelay())
+            .maxBackoff(properties.getMaxReconnectDelay())
+            .transientErrors(true)
+            .doBeforeRetry(signal -> LOG.warn("Lost the cache invalidation connection: {}", signal.failure().getMessage()));
+    }
+
+    /**
+     * The notifications are subscribed to before {@code LISTEN} is run, so that none is lost in between. An element is emitted
+     * once it is run. The heartbeat fails when the connection is broken, which closes it and triggers the reconnection.
+     */
+    private Flux<Boolean> listen(Connection connection) {
+        if (!(connection instanceof PostgresqlConnection postgresqlConnection)) {
+            return Flux.error(new IllegalStateException("Cache invalidations require a Postgres connection"));
+        }
+        Flux<Boolean> notifications = postgresqlConnection
+            .getNotifications()
+            .map(Notification::getParameter)
+            .concatMap(this::receive)
+            .thenMany(Flux.error(new IllegalStateException("The cache invalidation connection was closed")));
+        Flux<Boolean> heartbeat = Flux.interval(properties.getHeartbeatInterval())
+            .concatMap(tick -> postgresqlConnection.createStatement("SELECT 1").execute().flatMap(PostgresqlResult::getRowsUpdated).then())
+            .thenMany(Flux.empty());
+        Mono<Boolean> listening = postgresqlConnection
+            .createStatement("LISTEN \"" + properties.getChannel() + "\"")
+            .execute()
+            .flatMap(PostgresqlResult::getRowsUpdated)
+            .then(Mono.fromRunnable(() -> LOG.info("Listening to the cache invalidations on {}", properties.getChannel())))
+            .then(Mono.fromRunnable(metersService::trackConnectFlush))
+            .then(flush())
+            .thenReturn(true);
+        return Flux.merge(notifications, listening.concatWith(heartbeat));
+    }
+
+    /**
+     * The listening connection is long-lived, so it is opened outside of the connection pool.
+     */
+    private ConnectionFactory listeningConnectionFactory() {
+        if (connectionFactory instanceof Wrapped<?> wrapped && wrapped.unwrap() instanceof ConnectionFactory unwrapped) {
+            return unwrapped;
+        }
+        return connectionFactory;
+    }
+
+    /**
+     * An invalidation, as published on the channel.
+     *
+     * @param node the id of the publishing instance.
+     * @param sequence the number of the invalidation on the publishing instance.
+     * @param sentAt the time of publication, in milliseconds since the epoch.
+     * @param event the invalidation.
+     */
+    record Message(String node, long sequence, long sentAt, CacheInvalidationEvent event) {}
+}
@@ -0,0 +1,57 @@
+package md.esempla.webflux.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Write of an entity, invalidating the in-process caches which may hold it.
+ *
+ * @param type the type of the written entity.
+ * @param id the id of the written entity.
+ * @param scope the ids the entity is restricted to in the cached queries, before and after the write, see
+ * {@link CriteriaCache#invalidate(Collection)}.
+ */
+public record CacheInvalidationEvent(EntityType type, String id, List<Long> scope) {
+    public enum EntityType {
+        POST,
+        COMMENT,
+        POST_STATUS,
+        AUTHORITY,
+        USER,
+    }
+
+    /**
+     * @param id the id of the post.
+     * @param postStatusIds the ids of the status of the post, before and after the write.
+     * @return the event.
+     */
+    public static CacheInvalidationEvent post(Long id, Collection<Long> postStatusIds) {
+        return new CacheInvalidationEvent(EntityType.POST, String.valueOf(id), scope(postStatusIds));
+    }
+
+    /**
+     * @param id the id of the comment.
+     * @param postIds the ids of the post of the comment, before and after the write.
+     * @return the event.
+     */
+    public static CacheInvalidationEvent comment(Long id, Collection<Long> postIds) {
+        return new CacheInvalidationEvent(EntityType.COMMENT, String.valueOf(id), scope(postIds));
+    }
+
+    public static CacheInvalidationEvent postStatus(Long id) {
+        return new CacheInvalidationEvent(EntityType.POST_STATUS, String.valueOf(id), List.of());
+    }
+
+    public static CacheInvalidationEvent authority(String name) {
+        return new CacheInvalidationEvent(EntityType.AUTHORITY, name, List.of());
+    }
+
+    public static CacheInvalidationEvent user(String login) {
+        return new CacheInvalidationEvent(EntityType.USER, login, List.of());
+    }
+
+    private static List<Long> scope(Collection<Long> ids) {
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+}
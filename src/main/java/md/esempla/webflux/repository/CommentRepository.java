@@ -23,6 +23,9 @@ public interface CommentRepository extends ReactiveCrudRepository<Comment, Long>
     @Query("SELECT * FROM comment entity WHERE entity.post_id IS NULL")
     Flux<Comment> findAllWherePostIsNull();
 
+    @Query("SELECT entity.post_id FROM comment entity WHERE entity.id = :id AND entity.post_id IS NOT NULL")
+    Mono<Long> findPostIdById(Long id);
+
     @Override
     <S extends Comment> Mono<S> save(S entity);
 
@@ -49,4 +52,10 @@ interface CommentRepositoryInternal {
     Flux<Comment> findByCriteria(CommentCriteria criteria, Pageable pageable);
 
     Mono<Long> countByCriteria(CommentCriteria criteria);
+
+    Mono<RowSetVersion> findVersionByCriteria(CommentCriteria criteria);
+
+    Mono<RowSetVersion> findVersionById(Long id);
+
+    Mono<Versioned<Comment>> findWithVersionById(Long id);
 }
@@ -19,6 +19,7 @@ import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.Table;
@@ -121,6 +122,64 @@ class CommentRepositoryInternalImpl extends SimpleR2dbcRepository<Comment, Long>
             .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
     }
 
+    @Override
+    public Mono<RowSetVersion> findVersionByCriteria(CommentCriteria criteria) {
+        return createVersionQuery(buildConditions(criteria));
+    }
+
+    @Override
+    public Mono<RowSetVersion> findVersionById(Long id) {
+        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
+        return createVersionQuery(whereClause).filter(version -> !version.isEmpty());
+    }
+
+    /**
+     * The version is computed like {@link #findVersionById(Long)} does, from the row of the comment and of its post.
+     */
+    @Override
+    public Mono<Versioned<Comment>> findWithVersionById(Long id) {
+        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
+        List<Expression> columns = CommentSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        columns.addAll(PostSqlHelper.getColumns(postTable, "post"));
+        columns.add(Expressions.just(EntityManager.ENTITY_ALIAS + ".xmin::text::bigint AS " + EntityManager.ENTITY_ALIAS + "_xmin"));
+        columns.add(Expressions.just("post.xmin::text::bigint AS post_xmin"));
+        SelectFromAndJoinCondition selectFrom = Select.builder()
+            .select(columns)
+            .from(entityTable)
+            .leftOuterJoin(postTable)
+            .on(Column.create("post_id", entityTable))
+            .equals(Column.create("id", postTable));
+        String select = entityManager.createSelect(selectFrom, Comment.class, null, whereClause);
+        return db
+            .sql(select)
+            .map((row, metadata) -> {
+                String version = row.get(EntityManager.ENTITY_ALIAS + "_xmin", Long.class) + "/" + row.get("post_xmin", Long.class);
+                return new Versioned<>(process(row, metadata), new RowSetVersion(1, version));
+            })
+            .one();
+    }
+
+    /**
+     * The comments embed their post, so the versions of the posts are part of the version.
+     */
+    private Mono<RowSetVersion> createVersionQuery(Condition whereClause) {
+        SelectFromAndJoinCondition selectFrom = Select.builder()
+            .select(
+                Expressions.just("COUNT(*)"),
+                Expressions.just("SUM(" + EntityManager.ENTITY_ALIAS + ".xmin::text::bigint)"),
+                Expressions.just("SUM(post.xmin::text::bigint)")
+            )
+            .from(entityTable)
+            .leftOuterJoin(postTable)
+            .on(Column.create("post_id", entityTable))
+            .equals(Column.create("id", postTable));
+        String select = entityManager.createSelect(whereClause != null ? selectFrom.where(whereClause).build() : selectFrom.build());
+        return db
+            .sql(select)
+            .map((row, metadata) -> new RowSetVersion(row.get(0, Long.class), row.get(1) + "/" + row.get(2)))
+            .one();
+    }
+
     private Condition buildConditions(CommentCriteria criteria) {
         ConditionBuilder builder = new ConditionBuilder(this.columnConverter);
         List<Condition> allConditions = new ArrayList<Condition>();
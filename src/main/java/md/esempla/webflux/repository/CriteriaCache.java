@@ -0,0 +1,201 @@
+package md.esempla.webflux.repository;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.springframework.data.domain.Pageable;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import tech.jhipster.service.Criteria;
+
+/**
+ * Bounded, time-limited cache of the pages and versions (holding the counts) returned by the criteria queries of an entity.
+ * <p>
+ * Each cached result is tagged with the ids its rows are restricted to by the criteria, typically a foreign key filtered with
+ * {@code equals} or {@code in}, so that a write only invalidates the results which may hold the written row. Results of
+ * unrestricted criteria are invalidated by every write.
+ * <p>
+ * The loads are shared by the concurrent requests for the same result, so they run outside of their transactions. A load runs
+ * with the Reactor context of the request which started it, and thus within its {@link RequestDeadline}; it is cancelled,
+ * along with its statement, once all the requests waiting for it have gone away. Each request gets its own copies of the
+ * cached rows, which it may modify without affecting the others. Hits and misses are exposed as the {@code cache.*} meters,
+ * along with a {@code cache.hit.ratio} gauge.
+ *
+ * @param <C> the type of the criteria.
+ * @param <T> the type of the entity.
+ */
+public class CriteriaCache<C extends Criteria, T> {
+
+    private static final String VERSION = "version";
+
+    /**
+     * Approximate weight of a version, or of the bookkeeping of a page, in bytes.
+     */
+    private static final int ENTRY_WEIGHT = 256;
+
+    private final AsyncCache<Key<C>, Object> results;
+
+    private final Function<C, Set<Long>> scope;
+
+    private final UnaryOperator<T> copier;
+
+    /**
+     * @param name the name of the cache in the metrics.
+     * @param scope the ids the rows matching some criteria are restricted to, or an empty set if they are not restricted.
+     * @param copier the copy of a row, along with the entities it embeds.
+     * @param weigher the approximate size of a row in bytes.
+     * @param properties the size and time to live of the cache.
+     * @param meterRegistry the registry of the cache metrics.
+     */
+    public CriteriaCache(
+        String name,
+        Function<C, Set<Long>> scope,
+        UnaryOperator<T> copier,
+        ToIntFunction<T> weigher,
+        ApplicationProperties.QueryCache properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.scope = scope;
+        this.copier = copier;
+        this.results = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((Key<C> key, Object result) -> weigh(result, weigher))
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .<Key<C>, Object>buildAsync(),
+            name
+        );
+        Gauge.builder("cache.hit.ratio", results, cache -> cache.synchronous().stats().hitRate())
+            .tag("cache", name)
+            .description("The ratio of cache requests which were hits")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get the version of the rows matching the criteria from the cache, loading it if needed.
+     *
+     * @param criteria the criteria.
+     * @param loader the query loading the version.
+     * @return the version of the rows.
+     */
+    public Mono<RowSetVersion> getVersion(C criteria, Function<C, Mono<RowSetVersion>> loader) {
+        Key<C> key = key(criteria, null, VERSION);
+        return get(key, () -> loader.apply(key.criteria()).map(Object.class::cast)).cast(RowSetVersion.class);
+    }
+
+    /**
+     * Get a page of the rows matching the criteria from the cache, loading it if needed.
+     *
+     * @param criteria the criteria.
+     * @param pageable the pagination information.
+     * @param variant the name of the columns selected by the loader, when the entity is queried in several ways.
+     * @param loader the query loading the page.
+     * @return copies of the rows of the page.
+     */
+    @SuppressWarnings("unchecked")
+    public Flux<T> getPage(C criteria, Pageable pageable, String variant, BiFunction<C, Pageable, Flux<T>> loader) {
+        Key<C> key = key(criteria, pageable, variant);
+        return get(key, () -> loader.apply(key.criteria(), pageable).collectList().map(List::copyOf))
+            .flatMapIterable(rows -> (List<T>) rows)
+            .map(copier);
+    }
+
+    /**
+     * Invalidate the results which may hold rows restricted to the given ids, now and after the current transaction completes.
+     *
+     * @param ids the ids the written rows are restricted to, before and after the write.
+     * @return a {@link Mono} completing when the invalidation is done and registered.
+     */
+    public Mono<Void> invalidate(Collection<Long> ids) {
+        return CacheInvalidation.nowAndAfterCompletion(() ->
+            results.asMap().keySet().removeIf(key -> key.scope().isEmpty() || key.scope().stream().anyMatch(ids::contains))
+        );
+    }
+
+    /**
+     * Invalidate all the results, now and after the current transaction completes.
+     *
+     * @return a {@link Mono} completing when the invalidation is done and registered.
+     */
+    public Mono<Void> invalidateAll() {
+        return CacheInvalidation.nowAndAfterCompletion(() -> results.synchronous().invalidateAll());
+    }
+
+    private Mono<Object> get(Key<C> key, Supplier<Mono<Object>> loader) {
+        return Mono.deferContextual(context -> {
+            SharedLoad load = (SharedLoad) results.get(key, (k, executor) -> new SharedLoad(loader.get().contextWrite(context)));
+            while (!load.enter()) {
+                // the load was cancelled by its last waiter just before, start over
+                results.asMap().remove(key, load);
+                load = (SharedLoad) results.get(key, (k, executor) -> new SharedLoad(loader.get().contextWrite(context)));
+            }
+            SharedLoad entered = load;
+            // the cancellation of a waiter is handled by the load, which only stops once all of them are gone
+            return Mono.fromFuture(entered, true).doFinally(signal -> entered.leave(signal == SignalType.CANCEL));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Key<C> key(C criteria, Pageable pageable, String variant) {
+        C normalized = (C) criteria.copy();
+        return new Key<>(normalized, pageable, variant, Set.copyOf(scope.apply(normalized)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> int weigh(Object result, ToIntFunction<T> weigher) {
+        if (result instanceof List<?> rows) {
+            return ENTRY_WEIGHT + ((List<T>) rows).stream().mapToInt(weigher).sum();
+        }
+        return ENTRY_WEIGHT;
+    }
+
+    /**
+     * A load in progress or done, counting the requests waiting for it.
+     */
+    private static final class SharedLoad extends CompletableFuture<Object> {
+
+        private final Disposable subscription;
+
+        private int waiters;
+
+        private boolean cancelled;
+
+        private SharedLoad(Mono<Object> load) {
+            this.subscription = load.subscribe(this::complete, this::completeExceptionally, () -> complete(null));
+        }
+
+        synchronized boolean enter() {
+            if (cancelled) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        synchronized void leave(boolean cancel) {
+            if (--waiters == 0 && cancel && !isDone()) {
+                cancelled = true;
+                subscription.dispose();
+                cancel(false);
+            }
+        }
+    }
+
+    private record Key<C>(C criteria, Pageable pageable, String variant, Set<Long> scope) {}
+}
@@ -0,0 +1,68 @@
+package md.esempla.webflux.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Request of a page and of the first row of the next page, which tells whether there is a next page without counting the
+ * rows.
+ *
+ * @param page the requested page.
+ */
+public record LookaheadPageRequest(Pageable page) implements Pageable {
+    /**
+     * @param page the requested page.
+     * @return the request of the page and of one more row, or the given page when it is unpaged.
+     */
+    public static Pageable of(Pageable page) {
+        if (page.isUnpaged() || page instanceof LookaheadPageRequest) {
+            return page;
+        }
+        return new LookaheadPageRequest(page);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return page.getPageNumber();
+    }
+
+    @Override
+    public int getPageSize() {
+        return page.getPageSize() + 1;
+    }
+
+    @Override
+    public long getOffset() {
+        return page.getOffset();
+    }
+
+    @Override
+    public Sort getSort() {
+        return page.getSort();
+    }
+
+    @Override
+    public Pageable next() {
+        return new LookaheadPageRequest(page.next());
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return new LookaheadPageRequest(page.previousOrFirst());
+    }
+
+    @Override
+    public Pageable first() {
+        return new LookaheadPageRequest(page.first());
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new LookaheadPageRequest(page.withPage(pageNumber));
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return page.hasPrevious();
+    }
+}
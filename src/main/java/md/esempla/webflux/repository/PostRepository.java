@@ -23,6 +23,9 @@ public interface PostRepository extends ReactiveCrudRepository<Post, Long>, Post
     @Query("SELECT * FROM post entity WHERE entity.post_status_id IS NULL")
     Flux<Post> findAllWherePostStatusIsNull();
 
+    @Query("SELECT entity.post_status_id FROM post entity WHERE entity.id = :id AND entity.post_status_id IS NOT NULL")
+    Mono<Long> findPostStatusIdById(Long id);
+
     @Override
     <S extends Post> Mono<S> save(S entity);
 
@@ -48,5 +51,15 @@ interface PostRepositoryInternal {
     // Flux<Post> findAllBy(Pageable pageable, Criteria criteria);
     Flux<Post> findByCriteria(PostCriteria criteria, Pageable pageable);
 
+    Flux<Post> findSummariesByCriteria(PostCriteria criteria, Pageable pageable);
+
     Mono<Long> countByCriteria(PostCriteria criteria);
+
+    Mono<Long> estimateCountByCriteria(PostCriteria criteria);
+
+    Mono<RowSetVersion> findVersionByCriteria(PostCriteria criteria);
+
+    Mono<RowSetVersion> findVersionById(Long id);
+
+    Mono<Versioned<Post>> findWithVersionById(Long id);
 }
@@ -4,12 +4,18 @@ import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import md.esempla.webflux.config.ApplicationProperties;
 import md.esempla.webflux.domain.Post;
+import md.esempla.webflux.domain.PostStatus;
 import md.esempla.webflux.domain.criteria.PostCriteria;
 import md.esempla.webflux.repository.rowmapper.ColumnConverter;
 import md.esempla.webflux.repository.rowmapper.PostRowMapper;
 import md.esempla.webflux.repository.rowmapper.PostStatusRowMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
@@ -19,7 +25,9 @@ import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
 import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
@@ -27,6 +35,7 @@ import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.RowsFetchSpec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
 import tech.jhipster.service.ConditionBuilder;
 
 /**
@@ -42,10 +51,16 @@ class PostRepositoryInternalImpl extends SimpleR2dbcRepository<Post, Long> imple
     private final PostStatusRowMapper poststatusMapper;
     private final PostRowMapper postMapper;
     private final ColumnConverter columnConverter;
+    private final StatementDeadlines statementDeadlines;
+    private final ReferenceDataCache referenceDataCache;
+    private final RowCountEstimator rowCountEstimator;
+    private final int excerptLength;
 
     private static final Table entityTable = Table.aliased("post", EntityManager.ENTITY_ALIAS);
     private static final Table postStatusTable = Table.aliased("post_status", "postStatus");
 
+    private static final String XMIN = EntityManager.ENTITY_ALIAS + ".xmin::text::bigint";
+
     public PostRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -53,7 +68,11 @@ class PostRepositoryInternalImpl extends SimpleR2dbcRepository<Post, Long> imple
         PostRowMapper postMapper,
         R2dbcEntityOperations entityOperations,
         R2dbcConverter converter,
-        ColumnConverter columnConverter
+        ColumnConverter columnConverter,
+        StatementDeadlines statementDeadlines,
+        ReferenceDataCache referenceDataCache,
+        RowCountEstimator rowCountEstimator,
+        ApplicationProperties applicationProperties
     ) {
         super(
             new MappingRelationalEntityInformation(converter.getMappingContext().getRequiredPersistentEntity(Post.class)),
@@ -66,18 +85,54 @@ class PostRepositoryInternalImpl extends SimpleR2dbcRepository<Post, Long> imple
         this.poststatusMapper = poststatusMapper;
         this.postMapper = postMapper;
         this.columnConverter = columnConverter;
+        this.statementDeadlines = statementDeadlines;
+        this.referenceDataCache = referenceDataCache;
+        this.rowCountEstimator = rowCountEstimator;
+        this.excerptLength = applicationProperties.getPost().getExcerptLength();
     }
 
     @Override
     public Flux<Post> findAllBy(Pageable pageable) {
-        return createQuery(pageable, null).all();
+        return createQuery(pageable, null);
+    }
+
+    Flux<Post> createQuery(Pageable pageable, Condition whereClause) {
+        return createQuery(PostSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS), pageable, whereClause);
+    }
+
+    Flux<Post> createSummaryQuery(Pageable pageable, Condition whereClause) {
+        return createQuery(
+            PostSqlHelper.getSummaryColumns(entityTable, EntityManager.ENTITY_ALIAS, excerptLength),
+            toSummarySort(pageable),
+            whereClause
+        );
     }
 
-    RowsFetchSpec<Post> createQuery(Pageable pageable, Condition whereClause) {
-        List<Expression> columns = PostSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        columns.addAll(PostStatusSqlHelper.getColumns(postStatusTable, "postStatus"));
+    /**
+     * The post status is taken from the {@link ReferenceDataCache} when it is loaded, and joined otherwise.
+     */
+    private Flux<Post> createQuery(List<Expression> columns, Pageable pageable, Condition whereClause) {
+        return Flux.defer(() -> {
+            ReferenceTable<Long, PostStatus> postStatuses = referenceDataCache.postStatuses();
+            if (!postStatuses.isLoaded()) {
+                postStatuses.preload();
+                return createJoinQuery(columns, pageable, whereClause).all();
+            }
+            SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
+            String select = entityManager.createSelect(selectFrom, Post.class, pageable, whereClause);
+            return db
+                .sql(select)
+                .map((row, metadata) -> postMapper.apply(row, "e"))
+                .all()
+                .concatMap(post -> withPostStatus(post, postStatuses));
+        });
+    }
+
+    private RowsFetchSpec<Post> createJoinQuery(List<Expression> columns, Pageable pageable, Condition whereClause) {
+        List<Expression> joinColumns = new ArrayList<>(columns);
+        joinColumns.addAll(PostStatusSqlHelper.getColumns(postStatusTable, "postStatus"));
         SelectFromAndJoinCondition selectFrom = Select.builder()
-            .select(columns)
+            .select(joinColumns)
             .from(entityTable)
             .leftOuterJoin(postStatusTable)
             .on(Column.create("post_status_id", entityTable))
@@ -87,6 +142,13 @@ class PostRepositoryInternalImpl extends SimpleR2dbcRepository<Post, Long> imple
         return db.sql(select).map(this::process);
     }
 
+    private static Mono<Post> withPostStatus(Post post, ReferenceTable<Long, PostStatus> postStatuses) {
+        if (post.getPostStatusId() == null) {
+            return Mono.just(post);
+        }
+        return postStatuses.findById(post.getPostStatusId()).doOnNext(post::setPostStatus).thenReturn(post);
+    }
+
     @Override
     public Flux<Post> findAll() {
         return findAllBy(null);
@@ -95,7 +157,7 @@ class PostRepositoryInternalImpl extends SimpleR2dbcRepository<Post, Long> imple
     @Override
     public Mono<Post> findById(Long id) {
         Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return createQuery(null, whereClause).singleOrEmpty();
     }
 
     private Post process(Row row, RowMetadata metadata) {
@@ -111,16 +173,126 @@ class PostRepositoryInternalImpl extends SimpleR2dbcRepository<Post, Long> imple
 
     @Override
     public Flux<Post> findByCriteria(PostCriteria postCriteria, Pageable page) {
-        return createQuery(page, buildConditions(postCriteria)).all();
+        return statementDeadlines.apply(createQuery(page, buildConditions(postCriteria)));
+    }
+
+    @Override
+    public Flux<Post> findSummariesByCriteria(PostCriteria postCriteria, Pageable page) {
+        return statementDeadlines.apply(createSummaryQuery(page, buildConditions(postCriteria)));
     }
 
     @Override
     public Mono<Long> countByCriteria(PostCriteria criteria) {
-        return findByCriteria(criteria, null)
+        return findSummariesByCriteria(criteria, null)
             .collectList()
             .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
     }
 
+    @Override
+    public Mono<Long> estimateCountByCriteria(PostCriteria criteria) {
+        Condition whereClause = buildConditions(criteria);
+        if (whereClause == null) {
+            return rowCountEstimator.estimateTable("post");
+        }
+        Select select = Select.builder().select(entityTable.column("id")).from(entityTable).where(whereClause).build();
+        return rowCountEstimator.estimateQuery(entityManager.createSelect(select));
+    }
+
+    @Override
+    public Mono<RowSetVersion> findVersionByCriteria(PostCriteria criteria) {
+        return statementDeadlines.apply(createVersionQuery(buildConditions(criteria)));
+    }
+
+    @Override
+    public Mono<RowSetVersion> findVersionById(Long id) {
+        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
+        SelectFromAndJoin selectFrom = Select.builder()
+            .select(Expressions.just(XMIN), entityTable.column("post_status_id"))
+            .from(entityTable);
+        String select = entityManager.createSelect(selectFrom.where(whereClause).build());
+        return db
+            .sql(select)
+            .map((row, metadata) -> Tuples.of(row.get(0, Long.class), Optional.ofNullable(row.get(1, Long.class))))
+            .one()
+            .flatMap(version -> rowVersion(version.getT1(), version.getT2().orElse(null)));
+    }
+
+    @Override
+    public Mono<Versioned<Post>> findWithVersionById(Long id) {
+        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
+        List<Expression> columns = new ArrayList<>(PostSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS));
+        columns.add(Expressions.just(XMIN + " AS " + EntityManager.ENTITY_ALIAS + "_xmin"));
+        String select = entityManager.createSelect(Select.builder().select(columns).from(entityTable), Post.class, null, whereClause);
+        ReferenceTable<Long, PostStatus> postStatuses = referenceDataCache.postStatuses();
+        return db
+            .sql(select)
+            .map((row, metadata) -> Tuples.of(postMapper.apply(row, "e"), row.get(EntityManager.ENTITY_ALIAS + "_xmin", Long.class)))
+            .one()
+            .flatMap(post ->
+                withPostStatus(post.getT1(), postStatuses).zipWith(rowVersion(post.getT2(), post.getT1().getPostStatusId()), Versioned::new)
+            );
+    }
+
+    /**
+     * The version of a single post: the id of the transaction which wrote its row, and its status from the
+     * {@link ReferenceDataCache}. It is computed the same way whether the post itself is read or not.
+     */
+    private Mono<RowSetVersion> rowVersion(long xmin, Long postStatusId) {
+        if (postStatusId == null) {
+            return Mono.just(new RowSetVersion(1, Long.toString(xmin)));
+        }
+        return referenceDataCache
+            .postStatuses()
+            .findById(postStatusId)
+            .map(postStatus -> postStatus.getId() + "=" + postStatus.getStatus())
+            .defaultIfEmpty("")
+            .map(postStatus -> new RowSetVersion(1, xmin + "/" + postStatus));
+    }
+
+    /**
+     * The posts embed their status from the {@link ReferenceDataCache}, so the cached statuses are part of the version.
+     */
+    private Mono<RowSetVersion> createVersionQuery(Condition whereClause) {
+        SelectFromAndJoin selectFrom = Select.builder()
+            .select(
+                Expressions.just("COUNT(*)"),
+                Expressions.just("MAX(" + EntityManager.ENTITY_ALIAS + ".update_time)"),
+                Expressions.just("SUM(" + EntityManager.ENTITY_ALIAS + ".xmin::text::bigint)")
+            )
+            .from(entityTable);
+        String select = entityManager.createSelect(whereClause != null ? selectFrom.where(whereClause).build() : selectFrom.build());
+        Mono<String> postStatuses = referenceDataCache
+            .postStatuses()
+            .findAll()
+            .map(postStatus -> postStatus.getId() + "=" + postStatus.getStatus())
+            .collect(Collectors.joining(","));
+        return db
+            .sql(select)
+            .map((row, metadata) -> new RowSetVersion(row.get(0, Long.class), row.get(1) + "/" + row.get(2)))
+            .one()
+            .zipWith(postStatuses, (rows, statuses) -> new RowSetVersion(rows.count(), rows.version() + "/" + statuses));
+    }
+
+    /**
+     * The summary query does not select {@code content}, so sorting on it is done on the excerpt instead.
+     */
+    private static Pageable toSummarySort(Pageable pageable) {
+        if (pageable instanceof LookaheadPageRequest lookahead) {
+            return LookaheadPageRequest.of(toSummarySort(lookahead.page()));
+        }
+        if (pageable == null || pageable.getSort().getOrderFor("content") == null) {
+            return pageable;
+        }
+        Sort sort = Sort.by(
+            pageable
+                .getSort()
+                .stream()
+                .map(order -> "content".equals(order.getProperty()) ? order.withProperty("excerpt") : order)
+                .toList()
+        );
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
     private Condition buildConditions(PostCriteria criteria) {
         ConditionBuilder builder = new ConditionBuilder(this.columnConverter);
         List<Condition> allConditions = new ArrayList<Condition>();
@@ -141,7 +313,7 @@ class PostRepositoryInternalImpl extends SimpleR2dbcRepository<Post, Long> imple
                 builder.buildFilterConditionForField(criteria.getUpdateTime(), entityTable.column("update_time"));
             }
             if (criteria.getPostStatusId() != null) {
-                builder.buildFilterConditionForField(criteria.getPostStatusId(), postStatusTable.column("id"));
+                builder.buildFilterConditionForField(criteria.getPostStatusId(), entityTable.column("post_status_id"));
             }
         }
         return builder.buildConditions();
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SQL;
+import org.springframework.data.relational.core.sql.SimpleFunction;
 import org.springframework.data.relational.core.sql.Table;
 
 public class PostSqlHelper {
@@ -19,4 +21,22 @@ public class PostSqlHelper {
         columns.add(Column.aliased("post_status_id", table, columnPrefix + "_post_status_id"));
         return columns;
     }
+
+    /**
+     * Same columns as {@link #getColumns(Table, String)}, but the full {@code content} is replaced by
+     * its first {@code excerptLength} characters, so list queries do not fetch (and de-TOAST) whole bodies.
+     */
+    public static List<Expression> getSummaryColumns(Table table, String columnPrefix, int excerptLength) {
+        List<Expression> columns = new ArrayList<>();
+        columns.add(Column.aliased("id", table, columnPrefix + "_id"));
+        columns.add(Column.aliased("title", table, columnPrefix + "_title"));
+        columns.add(
+            SimpleFunction.create("LEFT", List.of(table.column("content"), SQL.literalOf(excerptLength))).as(columnPrefix + "_excerpt")
+        );
+        columns.add(Column.aliased("create_time", table, columnPrefix + "_create_time"));
+        columns.add(Column.aliased("update_time", table, columnPrefix + "_update_time"));
+
+        columns.add(Column.aliased("post_status_id", table, columnPrefix + "_post_status_id"));
+        return columns;
+    }
 }
@@ -0,0 +1,119 @@
+package md.esempla.webflux.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.Comment;
+import md.esempla.webflux.domain.Post;
+import md.esempla.webflux.domain.PostStatus;
+import md.esempla.webflux.domain.criteria.CommentCriteria;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import org.springframework.stereotype.Component;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Cached results of the post and comment list queries, which are mostly the same few criteria and pages (the front page,
+ * the posts of a status, the comments of a post).
+ * <p>
+ * The posts are invalidated by the writes of the posts of their status, and the comments by the writes of the comments
+ * or of the post they belong to. They expire after {@link ApplicationProperties.QueryCache#getTimeToLive()} to pick up the
+ * writes made through other instances.
+ */
+@Component
+public class QueryResultCache {
+
+    /**
+     * Approximate size of the fields of an entity besides its text, in bytes.
+     */
+    private static final int ROW_WEIGHT = 128;
+
+    private final CriteriaCache<PostCriteria, Post> posts;
+
+    private final CriteriaCache<CommentCriteria, Comment> comments;
+
+    public QueryResultCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.QueryCache properties = applicationProperties.getQueryCache();
+        this.posts = new CriteriaCache<>(
+            "post-queries",
+            criteria -> ids(criteria.getPostStatusId()),
+            QueryResultCache::copy,
+            QueryResultCache::weigh,
+            properties,
+            meterRegistry
+        );
+        this.comments = new CriteriaCache<>(
+            "comment-queries",
+            criteria -> ids(criteria.getPostId()),
+            QueryResultCache::copy,
+            comment -> weigh(comment) + (comment.getPost() != null ? weigh(comment.getPost()) : 0),
+            properties,
+            meterRegistry
+        );
+    }
+
+    public CriteriaCache<PostCriteria, Post> posts() {
+        return posts;
+    }
+
+    public CriteriaCache<CommentCriteria, Comment> comments() {
+        return comments;
+    }
+
+    /**
+     * The ids a filter restricts the rows to, which are those of its {@code equals} or {@code in} conditions as all the
+     * conditions are combined with {@code AND}.
+     */
+    private static Set<Long> ids(LongFilter filter) {
+        if (filter == null) {
+            return Set.of();
+        }
+        if (filter.getEquals() != null) {
+            return Set.of(filter.getEquals());
+        }
+        if (filter.getIn() != null && !filter.getIn().isEmpty()) {
+            return filter.getIn().stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        }
+        return Set.of();
+    }
+
+    private static Post copy(Post post) {
+        Post copy = new Post()
+            .id(post.getId())
+            .title(post.getTitle())
+            .content(post.getContent())
+            .excerpt(post.getExcerpt())
+            .createTime(post.getCreateTime())
+            .updateTime(post.getUpdateTime());
+        if (post.getPostStatus() != null) {
+            copy.setPostStatus(new PostStatus().id(post.getPostStatus().getId()).status(post.getPostStatus().getStatus()));
+        }
+        copy.setPostStatusId(post.getPostStatusId());
+        return copy;
+    }
+
+    private static Comment copy(Comment comment) {
+        Comment copy = new Comment().id(comment.getId()).content(comment.getContent()).createTime(comment.getCreateTime());
+        if (comment.getPost() != null) {
+            copy.setPost(copy(comment.getPost()));
+        }
+        copy.setPostId(comment.getPostId());
+        return copy;
+    }
+
+    private static int weigh(Post post) {
+        return ROW_WEIGHT + length(post.getTitle()) + length(post.getContent()) + length(post.getExcerpt());
+    }
+
+    private static int weigh(Comment comment) {
+        return ROW_WEIGHT + length(comment.getContent());
+    }
+
+    /**
+     * Strings take up to two bytes per character.
+     */
+    private static int length(String text) {
+        return text != null ? 2 * text.length() : 0;
+    }
+}
@@ -0,0 +1,91 @@
+package md.esempla.webflux.repository;
+
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.Authority;
+import md.esempla.webflux.domain.PostStatus;
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.data.r2dbc.mapping.event.AfterSaveCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cached copies of the reference tables, which are read on every form opening but modified a few times a year.
+ * <p>
+ * The copies are invalidated when a row is saved through the repositories, and by the resources modifying these tables,
+ * which also invalidate the copies of the other instances. Spring Data R2DBC has no callback for deletions, so a row deleted
+ * through a repository rather than a resource stays in the copy of this instance until its next invalidation or until it
+ * expires after {@link ApplicationProperties.ReferenceData#getTimeToLive()}.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private final ReferenceTable<Long, PostStatus> postStatuses;
+
+    private final ReferenceTable<String, Authority> authorities;
+
+    public ReferenceDataCache(
+        PostStatusRepository postStatusRepository,
+        AuthorityRepository authorityRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.postStatuses = new ReferenceTable<>(
+            postStatusRepository::findAll,
+            PostStatus::getId,
+            applicationProperties.getReferenceData().getTimeToLive()
+        );
+        this.authorities = new ReferenceTable<>(
+            authorityRepository::findAll,
+            Authority::getName,
+            applicationProperties.getReferenceData().getTimeToLive()
+        );
+    }
+
+    public ReferenceTable<Long, PostStatus> postStatuses() {
+        return postStatuses;
+    }
+
+    public ReferenceTable<String, Authority> authorities() {
+        return authorities;
+    }
+
+    /**
+     * Reload all the reference tables.
+     *
+     * @return a {@link Mono} completing when the tables are reloaded.
+     */
+    public Mono<Void> refreshAll() {
+        return Mono.when(postStatuses.refresh(), authorities.refresh());
+    }
+
+    @Component
+    static class PostStatusSaveCallback implements AfterSaveCallback<PostStatus> {
+
+        private final ReferenceDataCache referenceDataCache;
+
+        PostStatusSaveCallback(ReferenceDataCache referenceDataCache) {
+            this.referenceDataCache = referenceDataCache;
+        }
+
+        @Override
+        public Publisher<PostStatus> onAfterSave(PostStatus entity, OutboundRow outboundRow, SqlIdentifier table) {
+            return referenceDataCache.postStatuses().invalidateAfterCompletion().thenReturn(entity);
+        }
+    }
+
+    @Component
+    static class AuthoritySaveCallback implements AfterSaveCallback<Authority> {
+
+        private final ReferenceDataCache referenceDataCache;
+
+        AuthoritySaveCallback(ReferenceDataCache referenceDataCache) {
+            this.referenceDataCache = referenceDataCache;
+        }
+
+        @Override
+        public Publisher<Authority> onAfterSave(Authority entity, OutboundRow outboundRow, SqlIdentifier table) {
+            return referenceDataCache.authorities().invalidateAfterCompletion().thenReturn(entity);
+        }
+    }
+}
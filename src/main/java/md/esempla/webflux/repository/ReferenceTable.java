@@ -0,0 +1,103 @@
+package md.esempla.webflux.repository;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process copy of a small, rarely modified table, loaded as a whole and kept until it is invalidated or expires.
+ *
+ * @param <K> the type of the primary key.
+ * @param <T> the type of the entity.
+ */
+public class ReferenceTable<K, T> {
+
+    private static final String ALL = "all";
+
+    private final AsyncLoadingCache<String, Map<K, T>> cache;
+
+    public ReferenceTable(Supplier<Flux<T>> loader, Function<T, K> idExtractor, Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(timeToLive)
+            .buildAsync((key, executor) ->
+                loader
+                    .get()
+                    .collectMap(idExtractor, Function.identity(), LinkedHashMap::new)
+                    .map(Collections::unmodifiableMap)
+                    .toFuture()
+            );
+    }
+
+    /**
+     * @return all the rows of the table, loading them if needed.
+     */
+    public Flux<T> findAll() {
+        return snapshot().flatMapIterable(Map::values);
+    }
+
+    /**
+     * Get a row of the table. An id missing from the cached copy triggers a reload, in case the row was inserted by
+     * another instance of the application, so this is meant for ids coming from a foreign key rather than from a client.
+     *
+     * @param id the primary key of the row.
+     * @return the row, or an empty {@link Mono} if it does not exist.
+     */
+    public Mono<T> findById(K id) {
+        return snapshot()
+            .flatMap(rows ->
+                rows.containsKey(id)
+                    ? Mono.just(rows.get(id))
+                    : Mono.fromFuture(() -> cache.synchronous().refresh(ALL), true).mapNotNull(reloaded -> reloaded.get(id))
+            );
+    }
+
+    /**
+     * @return {@code true} if the table is loaded, so that reading from it does not wait on the database.
+     */
+    public boolean isLoaded() {
+        CompletableFuture<Map<K, T>> rows = cache.getIfPresent(ALL);
+        return rows != null && rows.isDone() && !rows.isCompletedExceptionally();
+    }
+
+    /**
+     * Start loading the table in the background, if it is not loaded or loading yet.
+     */
+    public void preload() {
+        cache.get(ALL);
+    }
+
+    /**
+     * Reload the table in the background, the current copy being served until the new one is loaded.
+     *
+     * @return a {@link Mono} completing when the table is reloaded.
+     */
+    public Mono<Void> refresh() {
+        return Mono.fromFuture(() -> cache.synchronous().refresh(ALL), true).then();
+    }
+
+    public void invalidate() {
+        cache.synchronous().invalidate(ALL);
+    }
+
+    /**
+     * Invalidate the table, now and after the current transaction completes.
+     *
+     * @return a {@link Mono} completing when the invalidation is done and registered.
+     * @see CacheInvalidation#nowAndAfterCompletion(Runnable)
+     */
+    public Mono<Void> invalidateAfterCompletion() {
+        return CacheInvalidation.nowAndAfterCompletion(this::invalidate);
+    }
+
+    private Mono<Map<K, T>> snapshot() {
+        return Mono.fromFuture(() -> cache.get(ALL), true);
+    }
+}
@@ -0,0 +1,39 @@
+package md.esempla.webflux.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+import md.esempla.webflux.domain.RefreshToken;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data R2DBC repository for the {@link RefreshToken} entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, Long> {
+    Mono<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    /**
+     * Mark a token as used, unless it already is.
+     *
+     * @return {@code 1} if the token was marked by this call, {@code 0} if it had been used in the meantime.
+     */
+    @Modifying
+    @Query("UPDATE refresh_token SET used_at = :usedAt WHERE id = :id AND used_at IS NULL")
+    Mono<Integer> markUsed(Long id, Instant usedAt);
+
+    @Modifying
+    @Query("DELETE FROM refresh_token WHERE family_id = :familyId")
+    Mono<Integer> deleteByFamilyId(UUID familyId);
+
+    @Modifying
+    @Query("DELETE FROM refresh_token WHERE login = :login")
+    Mono<Integer> deleteByLogin(String login);
+
+    @Modifying
+    @Query("DELETE FROM refresh_token WHERE expires_at < :now")
+    Mono<Integer> deleteExpired(Instant now);
+}
@@ -0,0 +1,62 @@
+package md.esempla.webflux.repository;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Guards the reactive methods of the repositories with the database {@link CircuitBreaker}.
+ * <p>
+ * While the breaker is open the returned publishers fail immediately with a
+ * {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException} instead of queuing on the connection pool.
+ * Calls which are cancelled (typically by the request deadline) after running longer than the slow call threshold are recorded
+ * as failures, as they would otherwise not count towards the slow call rate.
+ */
+public class RepositoryCircuitBreakerInterceptor implements MethodInterceptor {
+
+    private final CircuitBreaker circuitBreaker;
+
+    public RepositoryCircuitBreakerInterceptor(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (result instanceof Mono<?> mono) {
+            return guard(mono);
+        }
+        if (result instanceof Flux<?> flux) {
+            return guard(flux);
+        }
+        return result;
+    }
+
+    private <T> Mono<T> guard(Mono<T> mono) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return mono.transformDeferred(CircuitBreakerOperator.of(circuitBreaker)).doOnCancel(() -> recordIfSlow(start));
+        });
+    }
+
+    private <T> Flux<T> guard(Flux<T> flux) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return flux.transformDeferred(CircuitBreakerOperator.of(circuitBreaker)).doOnCancel(() -> recordIfSlow(start));
+        });
+    }
+
+    private void recordIfSlow(long start) {
+        long duration = System.nanoTime() - start;
+        if (duration >= circuitBreaker.getCircuitBreakerConfig().getSlowCallDurationThreshold().toNanos()) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(duration);
+            TimeoutException cause = new TimeoutException("Repository call cancelled after " + millis + " ms");
+            circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, cause);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package md.esempla.webflux.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Point in time after which the result of the current request is no longer useful to the client.
+ * <p>
+ * It is put in the Reactor {@link Context} by the web layer, and applied by {@link StatementDeadlines} to the database statements.
+ */
+public final class RequestDeadline {
+
+    private static final String CONTEXT_KEY = RequestDeadline.class.getName();
+
+    private final Instant expiresAt;
+
+    private RequestDeadline(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Creates a {@link Context} modifier that starts a deadline of the given duration when the chain is subscribed.
+     * @param timeout the time allowed to the request.
+     * @return the function to pass to {@code contextWrite}.
+     */
+    public static Function<Context, Context> startingNow(Duration timeout) {
+        return context -> context.put(CONTEXT_KEY, new RequestDeadline(Instant.now().plus(timeout)));
+    }
+
+    /**
+     * Reads the deadline of the current request.
+     * @param context the Reactor context of the subscriber.
+     * @return the deadline, or empty if the request has none.
+     */
+    public static Optional<RequestDeadline> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Duration remaining() {
+        return Duration.between(Instant.now(), expiresAt);
+    }
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+
+    @Override
+    public String toString() {
+        return "RequestDeadline{" + "expiresAt=" + expiresAt + "}";
+    }
+}
@@ -0,0 +1,17 @@
+package md.esempla.webflux.repository;
+
+/**
+ * Thrown when a request, or one of its database statements, runs past its {@link RequestDeadline}.
+ */
+public class RequestDeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RequestDeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public RequestDeadlineExceededException(String message, Throwable t) {
+        super(message, t);
+    }
+}
@@ -0,0 +1,74 @@
+package md.esempla.webflux.repository;
+
+import java.time.Instant;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository of the access tokens revoked before their expiry.
+ */
+@Component
+public class RevokedTokenRepository {
+
+    private final DatabaseClient db;
+
+    /**
+     * A revoked access token.
+     *
+     * @param jti the JWT id of the token.
+     * @param expiresAt the expiry of the token, after which it needs not be remembered.
+     * @param revokedAt the database time of the revocation.
+     */
+    public record RevokedToken(String jti, Instant expiresAt, Instant revokedAt) {}
+
+    public RevokedTokenRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /**
+     * Revoke a token, unless it already is.
+     *
+     * @param jti the JWT id of the token.
+     * @param login the subject of the token.
+     * @param expiresAt the expiry of the token.
+     * @return a {@link Mono} completing when the revocation is stored.
+     */
+    public Mono<Void> insert(String jti, String login, Instant expiresAt) {
+        return db
+            .sql("INSERT INTO revoked_token (jti, login, expires_at) VALUES (:jti, :login, :expiresAt) ON CONFLICT (jti) DO NOTHING")
+            .bind("jti", jti)
+            .bind("login", login)
+            .bind("expiresAt", expiresAt)
+            .then();
+    }
+
+    /**
+     * Find the tokens revoked after a time, which are still valid.
+     *
+     * @param since the database time after which the tokens were revoked.
+     * @param now the current time.
+     * @return the revoked tokens.
+     */
+    public Flux<RevokedToken> findRevokedSince(Instant since, Instant now) {
+        return db
+            .sql("SELECT jti, expires_at, revoked_at FROM revoked_token WHERE revoked_at > :since AND expires_at > :now")
+            .bind("since", since)
+            .bind("now", now)
+            .map(row ->
+                new RevokedToken(row.get("jti", String.class), row.get("expires_at", Instant.class), row.get("revoked_at", Instant.class))
+            )
+            .all();
+    }
+
+    /**
+     * Delete the revocations of the expired tokens.
+     *
+     * @param now the current time.
+     * @return the number of deleted revocations.
+     */
+    public Mono<Long> deleteExpired(Instant now) {
+        return db.sql("DELETE FROM revoked_token WHERE expires_at <= :now").bind("now", now).fetch().rowsUpdated();
+    }
+}
@@ -0,0 +1,9 @@
+package md.esempla.webflux.repository;
+
+/**
+ * Count of the rows matching a query, which may be estimated by the Postgres planner.
+ *
+ * @param count the count of the rows.
+ * @param estimated whether the count is an estimate rather than an exact count.
+ */
+public record RowCount(long count, boolean estimated) {}
@@ -0,0 +1,79 @@
+package md.esempla.webflux.repository;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Estimates row counts from the statistics of the Postgres planner, instead of scanning the rows.
+ * <p>
+ * The statistics are refreshed by autovacuum, so the estimates lag behind the writes and are relatively inaccurate for small
+ * counts: below a threshold, the rows are counted exactly instead.
+ */
+@Component
+public class RowCountEstimator {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\\brows=(\\d+)");
+
+    private final DatabaseClient db;
+
+    private final StatementDeadlines statementDeadlines;
+
+    private final long exactThreshold;
+
+    public RowCountEstimator(DatabaseClient db, StatementDeadlines statementDeadlines, ApplicationProperties applicationProperties) {
+        this.db = db;
+        this.statementDeadlines = statementDeadlines;
+        this.exactThreshold = applicationProperties.getCountEstimation().getExactThreshold();
+    }
+
+    /**
+     * Estimate the count of all the rows of a table.
+     *
+     * @param table the name of the table.
+     * @return the estimate, or empty if the table was never analyzed.
+     */
+    public Mono<Long> estimateTable(String table) {
+        return statementDeadlines
+            .apply(
+                db
+                    .sql("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(:table)")
+                    .bind("table", table)
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+            )
+            .filter(estimate -> estimate >= 0);
+    }
+
+    /**
+     * Estimate the count of the rows returned by a query, from the top node of its plan.
+     *
+     * @param select the query, with its parameters inlined.
+     * @return the estimate.
+     */
+    public Mono<Long> estimateQuery(String select) {
+        return statementDeadlines
+            .apply(db.sql("EXPLAIN " + select).map(row -> row.get(0, String.class)).first())
+            .flatMap(plan -> {
+                Matcher matcher = PLAN_ROWS.matcher(plan);
+                return matcher.find() ? Mono.just(Long.parseLong(matcher.group(1))) : Mono.empty();
+            });
+    }
+
+    /**
+     * Use the estimate when it is above the threshold, and the exact count otherwise.
+     *
+     * @param estimate the estimate.
+     * @param count the exact count, only run when the estimate is below the threshold or missing.
+     * @return the count.
+     */
+    public Mono<RowCount> estimateOrCount(Mono<Long> estimate, Mono<Long> count) {
+        return estimate
+            .filter(rows -> rows >= exactThreshold)
+            .map(rows -> new RowCount(rows, true))
+            .switchIfEmpty(Mono.defer(() -> count.map(rows -> new RowCount(rows, false))));
+    }
+}
@@ -0,0 +1,21 @@
+package md.esempla.webflux.repository;
+
+/**
+ * Version of the set of rows matching some criteria, computed by a single aggregate query which does not read the rows
+ * themselves.
+ * <p>
+ * The {@code version} changes whenever a row of the set is inserted, updated or deleted: besides the latest
+ * {@code update_time}, it sums the Postgres {@code xmin} system column, which holds the id of the transaction that wrote
+ * each row version.
+ *
+ * @param count the number of rows in the set.
+ * @param version an opaque string identifying the state of the rows.
+ */
+public record RowSetVersion(long count, String version) {
+    /**
+     * @return {@code true} if the set holds no row.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+}
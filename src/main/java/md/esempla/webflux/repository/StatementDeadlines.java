@@ -0,0 +1,137 @@
+package md.esempla.webflux.repository;
+
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Wrapped;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import md.esempla.webflux.management.RequestDeadlineMetersService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies the {@link RequestDeadline} of the current request to database statements.
+ * <p>
+ * The remaining time is set as the Postgres {@code statement_timeout} with {@code SET LOCAL}, so it ends with the transaction
+ * and never leaks to other users of the pooled connection. A statement run outside of a transaction, like the reads with
+ * {@code SUPPORTS} propagation, is run in a read-only transaction of its own for that, which costs its {@code BEGIN} and
+ * {@code COMMIT}. When the subscriber cancels (for example because the client went away) while the statement is running, a
+ * Postgres cancel request is sent so that the backend stops working on it instead of running it to completion. A cancel
+ * request targets the backend rather than the statement, so the connection is closed along with it: the pool discards it
+ * instead of handing the backend to another request whose statement the late cancel request would stop.
+ */
+@Component
+public class StatementDeadlines {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementDeadlines.class);
+
+    private static final String QUERY_CANCELED_SQL_STATE = "57014";
+
+    private final DatabaseClient db;
+    private final TransactionalOperator readOnlyTransaction;
+    private final RequestDeadlineMetersService metersService;
+
+    public StatementDeadlines(
+        DatabaseClient db,
+        ReactiveTransactionManager transactionManager,
+        RequestDeadlineMetersService metersService
+    ) {
+        this.db = db;
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        this.readOnlyTransaction = TransactionalOperator.create(transactionManager, definition);
+        this.metersService = metersService;
+    }
+
+    /**
+     * Bounds the given query by the deadline of the current request, if there is one.
+     * @param query the query to run.
+     * @param <T> the type of the results.
+     * @return the query, failing with {@link RequestDeadlineExceededException} if the deadline is reached.
+     */
+    public <T> Flux<T> apply(Flux<T> query) {
+        return Flux.deferContextual(context -> RequestDeadline.from(context).map(deadline -> withDeadline(query, deadline)).orElse(query));
+    }
+
+    /**
+     * Bounds the given query by the deadline of the current request, if there is one.
+     * @param query the query to run.
+     * @param <T> the type of the result.
+     * @return the query, failing with {@link RequestDeadlineExceededException} if the deadline is reached.
+     */
+    public <T> Mono<T> apply(Mono<T> query) {
+        return apply(query.flux()).singleOrEmpty();
+    }
+
+    private <T> Flux<T> withDeadline(Flux<T> query, RequestDeadline deadline) {
+        Duration remaining = deadline.remaining();
+        if (remaining.isNegative() || remaining.isZero()) {
+            metersService.trackStatementDeadlineExceeded();
+            return Flux.error(new RequestDeadlineExceededException("Deadline expired before the statement was sent"));
+        }
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .map(TransactionSynchronizationManager::isActualTransactionActive)
+            .onErrorResume(NoTransactionException.class, e -> Mono.just(false))
+            .flatMapMany(inTransaction ->
+                inTransaction
+                    ? withStatementTimeout(query, remaining)
+                    : readOnlyTransaction.transactional(withStatementTimeout(query, remaining))
+            )
+            .onErrorMap(StatementDeadlines::isStatementTimeout, e -> {
+                metersService.trackStatementDeadlineExceeded();
+                return new RequestDeadlineExceededException("Statement cancelled after " + remaining.toMillis() + " ms", e);
+            });
+    }
+
+    private <T> Flux<T> withStatementTimeout(Flux<T> query, Duration remaining) {
+        // the transaction-bound connection is the one that runs the query, so the timeout and the cancel request target it
+        return db.inConnectionMany(connection -> {
+            AtomicBoolean running = new AtomicBoolean();
+            return db
+                .sql("SET LOCAL statement_timeout = " + Math.max(1, remaining.toMillis()))
+                .then()
+                .thenMany(query.doOnSubscribe(subscription -> running.set(true)).doOnTerminate(() -> running.set(false)))
+                .doOnCancel(() -> {
+                    if (running.getAndSet(false)) {
+                        cancelRunningStatement(connection);
+                    }
+                });
+        });
+    }
+
+    private void cancelRunningStatement(Connection connection) {
+        Object target = connection;
+        while (!(target instanceof PostgresqlConnection) && target instanceof Wrapped<?> wrapped) {
+            target = wrapped.unwrap();
+        }
+        if (target instanceof PostgresqlConnection postgresqlConnection) {
+            LOG.debug("Subscriber cancelled, sending a cancel request for the running statement and closing its connection");
+            postgresqlConnection
+                .cancelRequest()
+                .subscribe(null, e -> LOG.warn("Could not cancel the running statement: {}", e.getMessage()));
+            // closing marks the connection as invalid right away, before it is released to the pool
+            postgresqlConnection
+                .close()
+                .subscribe(null, e -> LOG.warn("Could not close the connection of the cancelled statement: {}", e.getMessage()));
+        }
+    }
+
+    private static boolean isStatementTimeout(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof R2dbcException r2dbcException && QUERY_CANCELED_SQL_STATE.equals(r2dbcException.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package md.esempla.webflux.repository;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.function.Function;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.User;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded, time-limited cache of the users with their authorities, keyed by login.
+ * <p>
+ * It serves {@code GET /api/account}, which the client calls on every navigation, and the logins. Its hits, misses and
+ * evictions are exposed as the {@code cache.*} meters tagged with {@code cache=users}.
+ */
+@Component
+public class UserCache {
+
+    public static final String CACHE_NAME = "users";
+
+    private final AsyncCache<String, User> users;
+
+    public UserCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.UserCache properties = applicationProperties.getUserCache();
+        this.users = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .<String, User>buildAsync(),
+            CACHE_NAME
+        );
+    }
+
+    /**
+     * Get a user from the cache, loading it if needed. Concurrent loads of the same login share the same query, and
+     * a login without user is not cached.
+     *
+     * @param login the login of the user.
+     * @param loader the query loading the user with its authorities.
+     * @return the user, or an empty {@link Mono} if it does not exist.
+     */
+    public Mono<User> get(String login, Function<String, Mono<User>> loader) {
+        return Mono.fromFuture(() -> users.get(login, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    /**
+     * Evict a user, now and after the current transaction completes.
+     *
+     * @param login the login of the user.
+     * @return a {@link Mono} completing when the eviction is done and registered.
+     */
+    public Mono<Void> evict(String login) {
+        return CacheInvalidation.nowAndAfterCompletion(() -> users.synchronous().invalidate(login));
+    }
+
+    /**
+     * Evict all the users, now and after the current transaction completes.
+     *
+     * @return a {@link Mono} completing when the eviction is done and registered.
+     */
+    public Mono<Void> evictAll() {
+        return CacheInvalidation.nowAndAfterCompletion(() -> users.synchronous().invalidateAll());
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.data.domain.*;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.r2dbc.core.DatabaseClient;
@@ -52,6 +53,10 @@ public interface UserRepository extends R2dbcRepository<User, Long>, UserReposit
 
     @Query("DELETE FROM jhi_user_authority WHERE user_id = :userId")
     Mono<Void> deleteUserAuthorities(Long userId);
+
+    @Modifying
+    @Query("UPDATE jhi_user SET password_hash = :newPasswordHash WHERE login = :login AND password_hash = :passwordHash")
+    Mono<Integer> updatePasswordHash(String login, String passwordHash, String newPasswordHash);
 }
 
 interface DeleteExtended<T> {
@@ -71,11 +76,18 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final R2dbcConverter r2dbcConverter;
-
-    public UserRepositoryInternalImpl(DatabaseClient db, R2dbcEntityTemplate r2dbcEntityTemplate, R2dbcConverter r2dbcConverter) {
+    private final StatementDeadlines statementDeadlines;
+
+    public UserRepositoryInternalImpl(
+        DatabaseClient db,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        R2dbcConverter r2dbcConverter,
+        StatementDeadlines statementDeadlines
+    ) {
         this.db = db;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.r2dbcConverter = r2dbcConverter;
+        this.statementDeadlines = statementDeadlines;
     }
 
     @Override
@@ -97,12 +109,18 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
         long page = pageable.getPageNumber();
         long size = pageable.getPageSize();
 
-        return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
-            .map((row, metadata) ->
-                Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
+        return statementDeadlines
+            .apply(
+                db
+                    .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
+                    .map((row, metadata) ->
+                        Tuples.of(
+                            r2dbcConverter.read(User.class, row, metadata),
+                            Optional.ofNullable(row.get("authority_name", String.class))
+                        )
+                    )
+                    .all()
             )
-            .all()
             .groupBy(t -> t.getT1().getLogin())
             .flatMap(l -> l.collectList().map(t -> updateUserWithAuthorities(t.get(0).getT1(), t)))
             .sort(
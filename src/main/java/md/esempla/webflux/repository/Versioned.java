@@ -0,0 +1,10 @@
+package md.esempla.webflux.repository;
+
+/**
+ * An entity read together with its {@link RowSetVersion}, so that its version does not cost another query.
+ *
+ * @param entity the entity.
+ * @param version the version of its row.
+ * @param <T> the type of the entity.
+ */
+public record Versioned<T>(T entity, RowSetVersion version) {}
@@ -20,6 +20,7 @@ public class PostRowMapper implements BiFunction<Row, String, Post> {
 
     /**
      * Take a {@link Row} and a column prefix, and extract all the fields.
+     * The {@code content} and {@code excerpt} columns are optional, as list queries only select the excerpt.
      * @return the {@link Post} stored in the database.
      */
     @Override
@@ -27,7 +28,12 @@ public class PostRowMapper implements BiFunction<Row, String, Post> {
         Post entity = new Post();
         entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
         entity.setTitle(converter.fromRow(row, prefix + "_title", String.class));
-        entity.setContent(converter.fromRow(row, prefix + "_content", String.class));
+        if (row.getMetadata().contains(prefix + "_content")) {
+            entity.setContent(converter.fromRow(row, prefix + "_content", String.class));
+        }
+        if (row.getMetadata().contains(prefix + "_excerpt")) {
+            entity.setExcerpt(converter.fromRow(row, prefix + "_excerpt", String.class));
+        }
         entity.setCreateTime(converter.fromRow(row, prefix + "_create_time", ZonedDateTime.class));
         entity.setUpdateTime(converter.fromRow(row, prefix + "_update_time", ZonedDateTime.class));
         entity.setPostStatusId(converter.fromRow(row, prefix + "_post_status_id", Long.class));
@@ -0,0 +1,291 @@
+package md.esempla.webflux.security;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authorization.AuthenticatedReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorityReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher.MatchResult;
+import reactor.core.publisher.Mono;
+
+/**
+ * The access rules of the requests, compiled once into prefix tries of their path segments.
+ * <p>
+ * The rules are declared like the {@code pathMatchers} of the security DSL, and keep their semantics: the first declared rule
+ * matching the method and the path of a request decides, and a request matching no rule is denied. Instead of matching the
+ * patterns one after the other, a request walks down the trie along its path segments and keeps the earliest rule found on
+ * the way, so that its cost depends on the depth of its path rather than on the number of rules.
+ * <p>
+ * The patterns may have literal segments, segments with {@code *} wildcards, and a trailing {@code /**}, matched like a
+ * {@link org.springframework.web.util.pattern.PathPattern}. Any other pattern syntax is rejected when the table is built.
+ */
+public final class AuthorizationRouteTable implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+    private static final Mono<AuthorizationResult> DENIED = Mono.just(new AuthorizationDecision(false));
+
+    private final Node ignored;
+
+    private final Node rules;
+
+    private AuthorizationRouteTable(Node ignored, Node rules) {
+        this.ignored = ignored;
+        this.rules = rules;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the matcher of the requests the security filter chain applies to: all but the ignored ones.
+     */
+    public ServerWebExchangeMatcher securityMatcher() {
+        return exchange -> find(ignored, exchange.getRequest()) == null ? MatchResult.match() : MatchResult.notMatch();
+    }
+
+    @Override
+    public Mono<AuthorizationResult> authorize(Mono<Authentication> authentication, AuthorizationContext context) {
+        Route route = find(rules, context.getExchange().getRequest());
+        return route == null ? DENIED : route.manager().authorize(authentication, context);
+    }
+
+    /**
+     * @deprecated still abstract in {@link ReactiveAuthorizationManager}, use {@link #authorize(Mono, AuthorizationContext)}
+     * instead.
+     */
+    @Deprecated
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+        return authorize(authentication, context).map(result ->
+            result instanceof AuthorizationDecision decision ? decision : new AuthorizationDecision(result.isGranted())
+        );
+    }
+
+    private static Route find(Node root, ServerHttpRequest request) {
+        String[] segments = segments(request.getPath().pathWithinApplication());
+        return segments == null ? null : find(root, request.getMethod(), segments, 0, null);
+    }
+
+    private static Route find(Node node, HttpMethod method, String[] segments, int depth, Route best) {
+        best = earliest(node.rest, method, best);
+        if (depth == segments.length) {
+            return earliest(node.routes, method, best);
+        }
+        Node literal = node.literals.get(segments[depth]);
+        if (literal != null) {
+            best = find(literal, method, segments, depth + 1, best);
+        }
+        for (Glob glob : node.globs) {
+            if (glob.matches(segments[depth])) {
+                best = find(glob.node(), method, segments, depth + 1, best);
+            } else if (glob.segment().equals("*") && segments[depth].isEmpty() && depth == segments.length - 1) {
+                // A single wildcard ending the pattern also matches the empty segment after a trailing separator
+                best = earliest(glob.node().routes, method, best);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param routes routes in declaration order.
+     */
+    private static Route earliest(List<Route> routes, HttpMethod method, Route best) {
+        for (Route route : routes) {
+            if (best != null && route.order() > best.order()) {
+                break;
+            }
+            if (route.method() == null || route.method().equals(method)) {
+                return route;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Split a path like a {@link org.springframework.web.util.pattern.PathPattern} sees it: each separator starts a segment,
+     * which is empty if no segment follows it.
+     *
+     * @return the values to match of the segments, or {@code null} if the path does not start with a separator.
+     */
+    private static String[] segments(PathContainer path) {
+        List<PathContainer.Element> elements = path.elements();
+        if (elements.isEmpty() || !(elements.get(0) instanceof PathContainer.Separator)) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>(elements.size() / 2 + 1);
+        for (int i = 0; i < elements.size(); i++) {
+            if (i + 1 < elements.size() && elements.get(i + 1) instanceof PathContainer.PathSegment segment) {
+                segments.add(segment.valueToMatch());
+                i++;
+            } else {
+                segments.add("");
+            }
+        }
+        return segments.toArray(String[]::new);
+    }
+
+    /**
+     * Declares the rules, in order.
+     */
+    public static final class Builder {
+
+        private final List<Route> ignored = new ArrayList<>();
+
+        private final List<Route> rules = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * Leave the requests matching these patterns out of the security filter chain, whatever the rules.
+         */
+        public Builder ignoring(String... patterns) {
+            for (String pattern : patterns) {
+                ignored.add(new Route(ignored.size(), null, pattern, null));
+            }
+            return this;
+        }
+
+        public RouteSpec route(String pattern) {
+            return route(null, pattern);
+        }
+
+        public RouteSpec route(HttpMethod method, String pattern) {
+            return new RouteSpec(this, method, pattern);
+        }
+
+        public AuthorizationRouteTable build() {
+            return new AuthorizationRouteTable(compile(ignored), compile(rules));
+        }
+
+        private Builder add(HttpMethod method, String pattern, ReactiveAuthorizationManager<AuthorizationContext> manager) {
+            rules.add(new Route(rules.size(), method, pattern, manager));
+            return this;
+        }
+
+        private static Node compile(List<Route> routes) {
+            Node root = new Node();
+            for (Route route : routes) {
+                String pattern = route.pattern();
+                if (!pattern.startsWith("/") || pattern.contains("{") || pattern.contains("?")) {
+                    throw new IllegalArgumentException("Unsupported route pattern: " + pattern);
+                }
+                String[] segments = pattern.substring(1).split("/", -1);
+                Node node = root;
+                for (int i = 0; i < segments.length; i++) {
+                    String segment = segments[i];
+                    if (segment.equals("**") && i == segments.length - 1) {
+                        node.rest.add(route);
+                        node = null;
+                        break;
+                    }
+                    if (segment.contains("**")) {
+                        throw new IllegalArgumentException("Unsupported route pattern: " + pattern);
+                    }
+                    node = segment.contains("*") ? node.glob(segment) : node.literals.computeIfAbsent(segment, s -> new Node());
+                }
+                if (node != null) {
+                    node.routes.add(route);
+                }
+            }
+            return root;
+        }
+    }
+
+    /**
+     * The access of a declared route.
+     */
+    public static final class RouteSpec {
+
+        private final Builder builder;
+
+        private final HttpMethod method;
+
+        private final String pattern;
+
+        private RouteSpec(Builder builder, HttpMethod method, String pattern) {
+            this.builder = builder;
+            this.method = method;
+            this.pattern = pattern;
+        }
+
+        public Builder permitAll() {
+            return builder.add(method, pattern, (authentication, context) -> Mono.just(new AuthorizationDecision(true)));
+        }
+
+        public Builder authenticated() {
+            return builder.add(method, pattern, AuthenticatedReactiveAuthorizationManager.authenticated());
+        }
+
+        public Builder hasAuthority(String authority) {
+            return builder.add(method, pattern, AuthorityReactiveAuthorizationManager.hasAuthority(authority));
+        }
+    }
+
+    /**
+     * @param order the position of the route among the declared ones.
+     * @param method the method of the requests it applies to, or {@code null} for any.
+     * @param manager the decision of the access, or {@code null} for an ignored route.
+     */
+    private record Route(int order, HttpMethod method, String pattern, ReactiveAuthorizationManager<AuthorizationContext> manager) {}
+
+    /**
+     * The routes whose pattern ends at a segment, or matches any remaining segments after it, and the next segments.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+
+        private final List<Glob> globs = new ArrayList<>();
+
+        private final List<Route> routes = new ArrayList<>();
+
+        private final List<Route> rest = new ArrayList<>();
+
+        private Node glob(String segment) {
+            for (Glob glob : globs) {
+                if (glob.segment().equals(segment)) {
+                    return glob.node();
+                }
+            }
+            Glob glob = new Glob(segment, segment.split("\\*", -1), new Node());
+            globs.add(glob);
+            return glob.node();
+        }
+    }
+
+    /**
+     * A segment pattern whose {@code *} match any characters, but which never matches an empty segment.
+     */
+    private record Glob(String segment, String[] parts, Node node) {
+        boolean matches(String value) {
+            String first = parts[0];
+            String last = parts[parts.length - 1];
+            if (value.isEmpty() || value.length() < first.length() + last.length()) {
+                return false;
+            }
+            if (!value.startsWith(first) || !value.endsWith(last)) {
+                return false;
+            }
+            int from = first.length();
+            int to = value.length() - last.length();
+            for (int i = 1; i < parts.length - 1; i++) {
+                int found = value.indexOf(parts[i], from);
+                if (found < 0 || found + parts[i].length() > to) {
+                    return false;
+                }
+                from = found + parts[i].length();
+            }
+            return true;
+        }
+    }
+}
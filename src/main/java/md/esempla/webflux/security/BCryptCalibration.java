@@ -0,0 +1,84 @@
+package md.esempla.webflux.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * The BCrypt cost picked for this host, with the verification times it was picked from.
+ * <p>
+ * Each cost doubles the time of a verification. The calibration measures the median verification time of the increasing
+ * costs, from the {@code min-strength} up, and keeps the highest one within the {@code target-verify-time}.
+ *
+ * @param strength the BCrypt cost with which the passwords are hashed.
+ * @param targetVerifyMillis the target median verification time, in milliseconds.
+ * @param medianVerifyMillis the measured median verification time by cost, in milliseconds.
+ * @param calibratedAt when the calibration was run.
+ */
+public record BCryptCalibration(
+    int strength,
+    long targetVerifyMillis,
+    SortedMap<Integer, Double> medianVerifyMillis,
+    Instant calibratedAt
+) {
+    private static final Logger LOG = LoggerFactory.getLogger(BCryptCalibration.class);
+
+    private static final int SAMPLES = 5;
+
+    private static final int WARM_UP_ROUNDS = 20;
+
+    private static final int WARM_UP_COST = 4;
+
+    private static final String PASSWORD = "calibration";
+
+    /**
+     * Pick the BCrypt cost of this host.
+     *
+     * @param properties the password hashing properties.
+     * @return the calibration, with the {@code min-strength} and no measurement if the calibration is disabled.
+     */
+    public static BCryptCalibration calibrate(ApplicationProperties.PasswordHashing properties) {
+        Duration target = properties.getTargetVerifyTime();
+        SortedMap<Integer, Double> medians = new TreeMap<>();
+        int strength = properties.getMinStrength();
+        if (properties.isCalibrate()) {
+            warmUp();
+            for (int cost = properties.getMinStrength(); cost <= properties.getMaxStrength(); cost++) {
+                double median = medianVerifyMillis(cost);
+                medians.put(cost, median);
+                if (median > target.toMillis()) {
+                    break;
+                }
+                strength = cost;
+            }
+        }
+        LOG.info("Hashing the passwords with the BCrypt cost {}, median verification times by cost: {}", strength, medians);
+        return new BCryptCalibration(strength, target.toMillis(), Collections.unmodifiableSortedMap(medians), Instant.now());
+    }
+
+    private static void warmUp() {
+        String hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(WARM_UP_COST));
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            BCrypt.checkpw(PASSWORD, hash);
+        }
+    }
+
+    private static double medianVerifyMillis(int cost) {
+        String hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost));
+        long[] times = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.checkpw(PASSWORD, hash);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[SAMPLES / 2] / 1_000_000.0;
+    }
+}
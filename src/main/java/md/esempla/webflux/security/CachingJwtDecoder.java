@@ -0,0 +1,94 @@
+package md.esempla.webflux.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveJwtDecoder} caching the tokens verified by its delegate until they expire.
+ * <p>
+ * The clients send the same token with every request, so it is parsed and its signature verified only the first time. The
+ * tokens are keyed by their SHA-256, so that the cache holds no usable token. Only the verified tokens are cached: the
+ * invalid ones always go through the delegate, so that their errors are counted every time.
+ * <p>
+ * Hits and misses are exposed as the {@code cache.*} meters tagged {@code cache=verified-jwts}.
+ */
+public class CachingJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+
+    private final Cache<String, Jwt> jwts;
+
+    public CachingJwtDecoder(ReactiveJwtDecoder delegate, ApplicationProperties.JwtCache properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.jwts = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder().maximumSize(properties.getMaximumSize()).expireAfter(new UntilExpiry()).recordStats().build(),
+            "verified-jwts"
+        );
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        String key = hash(token);
+        Jwt cached = jwts.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return delegate
+            .decode(token)
+            .doOnNext(jwt -> {
+                if (jwt.getExpiresAt() != null) {
+                    jwts.put(key, jwt);
+                }
+            });
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A token is kept until its expiry, whatever its reads and updates.
+     */
+    private static final class UntilExpiry implements Expiry<String, Jwt> {
+
+        private static final long MAX_SECONDS = Long.MAX_VALUE / 1_000_000_000L;
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            Duration validity = Duration.between(Instant.now(), jwt.getExpiresAt());
+            if (validity.isNegative()) {
+                return 0;
+            }
+            return validity.getSeconds() >= MAX_SECONDS ? Long.MAX_VALUE : validity.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -3,11 +3,15 @@ package md.esempla.webflux.security;
 import java.util.*;
 import md.esempla.webflux.domain.Authority;
 import md.esempla.webflux.domain.User;
+import md.esempla.webflux.repository.CacheInvalidationBus;
+import md.esempla.webflux.repository.CacheInvalidationEvent;
+import md.esempla.webflux.repository.UserCache;
 import md.esempla.webflux.repository.UserRepository;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -16,17 +20,23 @@ import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, and rehash their password when its stored hash is outdated.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements ReactiveUserDetailsService {
+public class DomainUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
 
     private static final Logger LOG = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserCache userCache;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public DomainUserDetailsService(UserRepository userRepository, UserCache userCache, CacheInvalidationBus cacheInvalidationBus) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     @Override
@@ -42,12 +52,29 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return userRepository
-            .findOneWithAuthoritiesByLogin(lowercaseLogin)
+        return userCache
+            .get(lowercaseLogin, userRepository::findOneWithAuthoritiesByLogin)
             .switchIfEmpty(Mono.error(new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database")))
             .map(user -> createSpringSecurityUser(lowercaseLogin, user));
     }
 
+    /**
+     * Store the new hash of a password, unless it was changed in the meantime.
+     *
+     * @param user the authenticated user, with their current password hash.
+     * @param newPassword the password hashed with the current cost.
+     * @return the user with their new password hash.
+     */
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        LOG.debug("Rehashing the password of {}", user.getUsername());
+        return userRepository
+            .updatePasswordHash(user.getUsername(), user.getPassword(), newPassword)
+            .filter(updated -> updated > 0)
+            .flatMap(updated -> cacheInvalidationBus.invalidate(CacheInvalidationEvent.user(user.getUsername())))
+            .thenReturn(org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword).build());
+    }
+
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
@@ -0,0 +1,33 @@
+package md.esempla.webflux.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * {@link BCryptPasswordEncoder} asking for the rehash of the passwords hashed with a lower cost than its own, so that the
+ * stored hashes are raised to the calibrated cost on the next successful login.
+ * <p>
+ * A hash with a higher cost is kept: each node calibrates its own cost, and nodes on different hardware, or a node measuring
+ * a little differently after a restart, would otherwise keep rewriting each other's hashes on every login.
+ */
+public class RehashingBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public RehashingBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+}
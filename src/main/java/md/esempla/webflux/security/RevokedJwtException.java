@@ -0,0 +1,15 @@
+package md.esempla.webflux.security;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+
+/**
+ * This exception is thrown in case of a valid JWT whose id is in the {@link TokenRevocationList}.
+ */
+public class RevokedJwtException extends BadJwtException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RevokedJwtException(String message) {
+        super(message);
+    }
+}
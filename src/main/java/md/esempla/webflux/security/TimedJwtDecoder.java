@@ -0,0 +1,86 @@
+package md.esempla.webflux.security;
+
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jwt.proc.BadJWTException;
+import java.text.ParseException;
+import java.time.Duration;
+import md.esempla.webflux.management.SecurityMetersService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveJwtDecoder} recording the time spent decoding the tokens with its delegate, and counting the invalid ones.
+ * <p>
+ * The errors are classified by their type, and the type of their cause, as the Nimbus decoder raises them:
+ * <ul>
+ *     <li>{@code malformed}: the token or its claims could not be parsed;</li>
+ *     <li>{@code invalid-signature}: the signature was not verified with the key;</li>
+ *     <li>{@code unsupported}: the token is not signed, or not with the expected algorithm;</li>
+ *     <li>{@code expired}: the claims were rejected by the validator, which checks the timestamps only for our tokens;</li>
+ *     <li>{@code revoked}: the token is valid but was revoked.</li>
+ * </ul>
+ */
+public class TimedJwtDecoder implements ReactiveJwtDecoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimedJwtDecoder.class);
+
+    private final ReactiveJwtDecoder delegate;
+
+    private final SecurityMetersService metersService;
+
+    public TimedJwtDecoder(ReactiveJwtDecoder delegate, SecurityMetersService metersService) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        // Deferred, so that the errors the Nimbus decoder throws right away are timed and classified too
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return delegate
+                .decode(token)
+                .doOnSuccess(jwt -> metersService.trackJwtDecodeTime(Duration.ofNanos(System.nanoTime() - start), "valid"))
+                .doOnError(e -> metersService.trackJwtDecodeTime(Duration.ofNanos(System.nanoTime() - start), track(e)));
+        });
+    }
+
+    /**
+     * Count an invalid token by the cause of its error.
+     *
+     * @return the cause, or {@code error} if the token could not be decoded for another reason.
+     */
+    private String track(Throwable e) {
+        if (e instanceof RevokedJwtException) {
+            metersService.trackTokenRevoked();
+            return "revoked";
+        }
+        if (e instanceof JwtValidationException) {
+            metersService.trackTokenExpired();
+            return "expired";
+        }
+        if (e instanceof BadJwtException) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ParseException || cause instanceof BadJWTException) {
+                metersService.trackTokenMalformed();
+                return "malformed";
+            }
+            if (cause instanceof BadJWSException) {
+                metersService.trackTokenInvalidSignature();
+                return "invalid-signature";
+            }
+            if (cause == null || cause instanceof BadJOSEException) {
+                metersService.trackTokenUnsupported();
+                return "unsupported";
+            }
+        }
+        LOG.error("Unknown JWT error {}", e.getMessage());
+        return "error";
+    }
+}
@@ -0,0 +1,48 @@
+package md.esempla.webflux.security;
+
+import java.time.Duration;
+import md.esempla.webflux.management.PasswordHashingMetersService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} recording the time spent hashing and verifying passwords with its delegate, the verifications by
+ * whether the password matched.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final PasswordHashingMetersService metersService;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, PasswordHashingMetersService metersService) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            metersService.trackHashTime(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matched = false;
+        try {
+            matched = delegate.matches(rawPassword, encodedPassword);
+            return matched;
+        } finally {
+            metersService.trackVerifyTime(Duration.ofNanos(System.nanoTime() - start), matched);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,62 @@
+package md.esempla.webflux.security;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import md.esempla.webflux.management.SecurityMetersService;
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveAuthenticationManager} recording the time spent authenticating with its delegate, tagged {@code success},
+ * {@code bad-credentials}, {@code not-activated}, {@code account-unavailable}, {@code rejected} when the password hashing is
+ * saturated, or {@code error}.
+ * <p>
+ * The user lookup and the password verification are timed on their own, by {@link TimedReactiveUserDetailsService} and
+ * {@link TimedPasswordEncoder}.
+ */
+public class TimedReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveAuthenticationManager delegate;
+
+    private final SecurityMetersService metersService;
+
+    public TimedReactiveAuthenticationManager(ReactiveAuthenticationManager delegate, SecurityMetersService metersService) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return delegate
+                .authenticate(authentication)
+                .doOnSuccess(authenticated -> track(start, authenticated != null ? "success" : "bad-credentials"))
+                .doOnError(e -> track(start, outcome(e)));
+        });
+    }
+
+    private void track(long start, String outcome) {
+        metersService.trackAuthenticationTime(Duration.ofNanos(System.nanoTime() - start), outcome);
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof BadCredentialsException || e instanceof UsernameNotFoundException) {
+            return "bad-credentials";
+        }
+        if (e instanceof UserNotActivatedException) {
+            return "not-activated";
+        }
+        if (e instanceof AccountStatusException) {
+            return "account-unavailable";
+        }
+        if (e instanceof RejectedExecutionException) {
+            return "rejected";
+        }
+        return "error";
+    }
+}
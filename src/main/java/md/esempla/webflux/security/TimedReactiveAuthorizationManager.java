@@ -0,0 +1,52 @@
+package md.esempla.webflux.security;
+
+import java.time.Duration;
+import md.esempla.webflux.management.SecurityMetersService;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveAuthorizationManager} recording the time spent deciding with its delegate, tagged {@code granted},
+ * {@code denied} or {@code error}.
+ */
+public class TimedReactiveAuthorizationManager<T> implements ReactiveAuthorizationManager<T> {
+
+    private final ReactiveAuthorizationManager<T> delegate;
+
+    private final SecurityMetersService metersService;
+
+    public TimedReactiveAuthorizationManager(ReactiveAuthorizationManager<T> delegate, SecurityMetersService metersService) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+    }
+
+    @Override
+    public Mono<AuthorizationResult> authorize(Mono<Authentication> authentication, T object) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return delegate
+                .authorize(authentication, object)
+                // No result denies the access
+                .doOnSuccess(result -> track(start, result != null && result.isGranted() ? "granted" : "denied"))
+                .doOnError(e -> track(start, "error"));
+        });
+    }
+
+    /**
+     * @deprecated still abstract in {@link ReactiveAuthorizationManager}, use {@link #authorize(Mono, Object)} instead.
+     */
+    @Deprecated
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, T object) {
+        return authorize(authentication, object).map(result ->
+            result instanceof AuthorizationDecision decision ? decision : new AuthorizationDecision(result.isGranted())
+        );
+    }
+
+    private void track(long start, String outcome) {
+        metersService.trackAuthorizationTime(Duration.ofNanos(System.nanoTime() - start), outcome);
+    }
+}
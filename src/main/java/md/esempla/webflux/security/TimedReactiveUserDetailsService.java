@@ -0,0 +1,49 @@
+package md.esempla.webflux.security;
+
+import java.time.Duration;
+import md.esempla.webflux.management.SecurityMetersService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveUserDetailsService} recording the time spent looking up the users with its delegate, tagged {@code found},
+ * {@code not-found}, {@code not-activated} or {@code error}.
+ */
+public class TimedReactiveUserDetailsService implements ReactiveUserDetailsService {
+
+    private final ReactiveUserDetailsService delegate;
+
+    private final SecurityMetersService metersService;
+
+    public TimedReactiveUserDetailsService(ReactiveUserDetailsService delegate, SecurityMetersService metersService) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return delegate
+                .findByUsername(username)
+                .doOnSuccess(user -> track(start, user != null ? "found" : "not-found"))
+                .doOnError(e -> track(start, outcome(e)));
+        });
+    }
+
+    private void track(long start, String outcome) {
+        metersService.trackUserLookupTime(Duration.ofNanos(System.nanoTime() - start), outcome);
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof UsernameNotFoundException) {
+            return "not-found";
+        }
+        if (e instanceof UserNotActivatedException) {
+            return "not-activated";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,155 @@
+package md.esempla.webflux.security;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The access tokens revoked before their expiry, by JWT id.
+ * <p>
+ * The revocations are stored in the database, and every instance keeps the ones of the unexpired tokens in memory: a Bloom
+ * filter, which rules out almost all the valid tokens with a few bit probes, in front of the exact set of the revoked ids.
+ * Each instance loads the tokens revoked since its last load every {@code refresh-interval}, so the tokens revoked on another
+ * instance are rejected within that interval. The revocations are forgotten once their tokens expire, the Bloom filter being
+ * rebuilt without them every 10 minutes.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    /**
+     * The revocations are loaded by their database time, with an overlap covering the revocations committed after a later one.
+     */
+    private static final Duration LOAD_OVERLAP = Duration.ofMinutes(1);
+
+    /**
+     * The revocations of the expired tokens are removed at this interval, a removal still running at the next one being given up.
+     */
+    private static final Duration REMOVAL_INTERVAL = Duration.ofMinutes(10);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final ApplicationProperties.TokenRevocation properties;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private volatile BloomFilter filter;
+
+    private long filterCapacity;
+
+    private volatile Instant lastRevokedAt = Instant.EPOCH;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository, ApplicationProperties applicationProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.properties = applicationProperties.getTokenRevocation();
+        rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscriptions.add(
+            Flux.interval(Duration.ZERO, properties.getRefreshInterval()).onBackpressureDrop().concatMap(tick -> load()).subscribe()
+        );
+        subscriptions.add(
+            Flux.interval(REMOVAL_INTERVAL, REMOVAL_INTERVAL).onBackpressureDrop().concatMap(tick -> removeExpiredRevocations()).subscribe()
+        );
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    /**
+     * Check whether a token is revoked, without any I/O.
+     *
+     * @param jti the JWT id of the token, if any.
+     * @return whether the token is revoked.
+     */
+    public boolean isRevoked(String jti) {
+        return jti != null && filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Revoke a token on all the instances.
+     *
+     * @param jti the JWT id of the token.
+     * @param login the subject of the token.
+     * @param expiresAt the expiry of the token.
+     * @return a {@link Mono} completing when the revocation is stored, and applies to this instance.
+     */
+    public Mono<Void> revoke(String jti, String login, Instant expiresAt) {
+        return revokedTokenRepository.insert(jti, login, expiresAt).then(Mono.fromRunnable(() -> add(jti, expiresAt)));
+    }
+
+    /**
+     * Forget the revocations of the expired tokens, and delete them from the database.
+     */
+    Mono<Void> removeExpiredRevocations() {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            rebuild();
+            return revokedTokenRepository.deleteExpired(now);
+        })
+            .timeout(REMOVAL_INTERVAL)
+            .doOnNext(deleted -> LOG.debug("Deleted {} revocations of expired tokens", deleted))
+            .then()
+            .doOnError(e -> LOG.warn("Could not delete the revocations of expired tokens: {}", e.getMessage()))
+            .onErrorComplete();
+    }
+
+    /**
+     * Load the tokens revoked since the last load.
+     */
+    Mono<Void> load() {
+        return revokedTokenRepository
+            .findRevokedSince(lastRevokedAt.minus(LOAD_OVERLAP), Instant.now())
+            .doOnNext(token -> {
+                add(token.jti(), token.expiresAt());
+                if (token.revokedAt().isAfter(lastRevokedAt)) {
+                    lastRevokedAt = token.revokedAt();
+                }
+            })
+            .then()
+            .doOnError(e -> LOG.warn("Could not load the revoked tokens: {}", e.getMessage()))
+            .onErrorComplete();
+    }
+
+    /**
+     * The writes are serialized, so that none is lost while the filter is rebuilt. The reads do not lock.
+     */
+    private synchronized void add(String jti, Instant expiresAt) {
+        if (revoked.put(jti, expiresAt) == null) {
+            if (revoked.size() > filterCapacity) {
+                rebuild();
+            } else {
+                filter.put(jti);
+            }
+        }
+    }
+
+    private synchronized void rebuild() {
+        long capacity = Math.max(properties.getExpectedRevocations(), 2L * revoked.size());
+        BloomFilter rebuilt = new BloomFilter(capacity, properties.getFalsePositiveProbability());
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        filterCapacity = capacity;
+    }
+}
@@ -2,11 +2,19 @@ package md.esempla.webflux.service;
 
 import md.esempla.webflux.domain.Comment;
 import md.esempla.webflux.domain.criteria.CommentCriteria;
+import java.util.Arrays;
+import java.util.Optional;
+import md.esempla.webflux.repository.CacheInvalidationBus;
+import md.esempla.webflux.repository.CacheInvalidationEvent;
 import md.esempla.webflux.repository.CommentRepository;
+import md.esempla.webflux.repository.QueryResultCache;
+import md.esempla.webflux.repository.RowSetVersion;
+import md.esempla.webflux.repository.Versioned;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -20,10 +28,22 @@ public class CommentService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CommentService.class);
 
+    private static final String COMMENTS = "comments";
+
     private final CommentRepository commentRepository;
 
-    public CommentService(CommentRepository commentRepository) {
+    private final QueryResultCache queryResultCache;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public CommentService(
+        CommentRepository commentRepository,
+        QueryResultCache queryResultCache,
+        CacheInvalidationBus cacheInvalidationBus
+    ) {
         this.commentRepository = commentRepository;
+        this.queryResultCache = queryResultCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     /**
@@ -34,7 +54,7 @@ public class CommentService {
      */
     public Mono<Comment> save(Comment comment) {
         LOG.debug("Request to save Comment : {}", comment);
-        return commentRepository.save(comment);
+        return commentRepository.save(comment).delayUntil(result -> invalidateCachedQueries(result, Optional.empty()));
     }
 
     /**
@@ -45,7 +65,9 @@ public class CommentService {
      */
     public Mono<Comment> update(Comment comment) {
         LOG.debug("Request to update Comment : {}", comment);
-        return commentRepository.save(comment);
+        return findPostId(comment.getId()).flatMap(previousPostId ->
+            commentRepository.save(comment).delayUntil(result -> invalidateCachedQueries(result, previousPostId))
+        );
     }
 
     /**
@@ -69,7 +91,8 @@ public class CommentService {
 
                 return existingComment;
             })
-            .flatMap(commentRepository::save);
+            .flatMap(commentRepository::save)
+            .delayUntil(result -> invalidateCachedQueries(result, Optional.empty()));
     }
 
     /**
@@ -78,10 +101,10 @@ public class CommentService {
      * @param pageable the pagination information.
      * @return the list of entities.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Flux<Comment> findByCriteria(CommentCriteria criteria, Pageable pageable) {
         LOG.debug("Request to get all Comments by Criteria");
-        return commentRepository.findByCriteria(criteria, pageable);
+        return queryResultCache.comments().getPage(criteria, pageable, COMMENTS, commentRepository::findByCriteria);
     }
 
     /**
@@ -89,9 +112,10 @@ public class CommentService {
      * @param criteria filtering criteria
      * @return the count of comments
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Mono<Long> countByCriteria(CommentCriteria criteria) {
         LOG.debug("Request to get the count of all Comments by Criteria");
-        return commentRepository.countByCriteria(criteria);
+        return findVersionByCriteria(criteria).map(RowSetVersion::count);
     }
 
     /**
@@ -103,6 +127,41 @@ public class CommentService {
         return commentRepository.count();
     }
 
+    /**
+     * Find the version of the comments by criteria, without reading them.
+     * @param criteria filtering criteria
+     * @return the version of the comments
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Mono<RowSetVersion> findVersionByCriteria(CommentCriteria criteria) {
+        LOG.debug("Request to get the version of all Comments by Criteria");
+        return queryResultCache.comments().getVersion(criteria, commentRepository::findVersionByCriteria);
+    }
+
+    /**
+     * Find the version of one comment by id, without reading it.
+     *
+     * @param id the id of the entity.
+     * @return the version of the entity, empty if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<RowSetVersion> findVersion(Long id) {
+        LOG.debug("Request to get the version of Comment : {}", id);
+        return commentRepository.findVersionById(id);
+    }
+
+    /**
+     * Get one comment by id, with its version.
+     *
+     * @param id the id of the entity.
+     * @return the entity and its version, empty if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<Versioned<Comment>> findOneWithVersion(Long id) {
+        LOG.debug("Request to get Comment with its version : {}", id);
+        return commentRepository.findWithVersionById(id);
+    }
+
     /**
      * Get one comment by id.
      *
@@ -123,6 +182,21 @@ public class CommentService {
      */
     public Mono<Void> delete(Long id) {
         LOG.debug("Request to delete Comment : {}", id);
-        return commentRepository.deleteById(id);
+        return findPostId(id).flatMap(previousPostId ->
+            commentRepository.deleteById(id).then(invalidateCachedQueries(new Comment().id(id), previousPostId))
+        );
+    }
+
+    private Mono<Optional<Long>> findPostId(Long id) {
+        return commentRepository.findPostIdById(id).map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+
+    /**
+     * Invalidate the cached lists of comments which may hold the comment, before or after the write, on all the nodes.
+     */
+    private Mono<Void> invalidateCachedQueries(Comment comment, Optional<Long> previousPostId) {
+        return cacheInvalidationBus.invalidate(
+            CacheInvalidationEvent.comment(comment.getId(), Arrays.asList(comment.getPostId(), previousPostId.orElse(null)))
+        );
     }
 }
@@ -0,0 +1,159 @@
+package md.esempla.webflux.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Locale;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.SecurityMetersService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Limits the login attempts, by login and by IP address.
+ * <p>
+ * Each login and each IP address has a token bucket: an attempt takes a token, and the tokens come back one per refill
+ * interval, up to the capacity of the bucket. The attempts finding an empty bucket are rejected with a
+ * {@link TooManyRequestsException}, before the user is looked up and the password verified. An attempt rejected for its login
+ * gives the token of its address back, so that hammering a locked-out login does not also lock out the other users sharing
+ * the address, like the clients behind a NAT.
+ * <p>
+ * The buckets are kept in memory, in caches bounded by {@code maximum-keys}. A bucket left alone long enough to be full again
+ * is expired, as it would behave like a new one. The buckets are updated under one lock among a few {@code stripes}, so that
+ * the attempts on different keys seldom contend.
+ */
+@Service
+public class LoginThrottlingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoginThrottlingService.class);
+
+    private final SecurityMetersService securityMetersService;
+
+    private final boolean enabled;
+
+    private final Throttle logins;
+
+    private final Throttle addresses;
+
+    public LoginThrottlingService(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService) {
+        ApplicationProperties.LoginThrottling properties = applicationProperties.getLoginThrottling();
+        this.securityMetersService = securityMetersService;
+        this.enabled = properties.isEnabled();
+        this.logins = new Throttle(properties.getLoginCapacity(), properties.getLoginRefillInterval(), properties);
+        this.addresses = new Throttle(properties.getAddressCapacity(), properties.getAddressRefillInterval(), properties);
+    }
+
+    /**
+     * Take an attempt from the buckets of a login and of an IP address.
+     *
+     * @param login the login or email the user is authenticating with.
+     * @param address the IP address of the client, if known.
+     * @throws TooManyRequestsException if either bucket is empty.
+     */
+    public void acquire(String login, String address) {
+        if (!enabled) {
+            return;
+        }
+        if (address != null) {
+            long retryAfter = addresses.tryAcquire(address);
+            if (retryAfter > 0) {
+                LOG.debug("Throttling the login attempts from {}", address);
+                securityMetersService.trackLoginThrottledByAddress();
+                throw rejected(retryAfter);
+            }
+        }
+        if (login != null) {
+            long retryAfter = logins.tryAcquire(login.toLowerCase(Locale.ENGLISH));
+            if (retryAfter > 0) {
+                if (address != null) {
+                    addresses.release(address);
+                }
+                LOG.debug("Throttling the login attempts of {}", login);
+                securityMetersService.trackLoginThrottledByLogin();
+                throw rejected(retryAfter);
+            }
+        }
+    }
+
+    private static TooManyRequestsException rejected(long retryAfterNanos) {
+        // Retry-After is given in seconds, so round up to avoid a retry finding the bucket still empty
+        Duration retryAfter = Duration.ofSeconds((retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        return new TooManyRequestsException("Too many login attempts", retryAfter);
+    }
+
+    /**
+     * Token buckets of one kind of key.
+     */
+    private static final class Throttle {
+
+        private final int capacity;
+
+        private final long refillIntervalNanos;
+
+        private final Object[] stripes;
+
+        private final Cache<String, Bucket> buckets;
+
+        Throttle(int capacity, Duration refillInterval, ApplicationProperties.LoginThrottling properties) {
+            this.capacity = capacity;
+            this.refillIntervalNanos = refillInterval.toNanos();
+            this.stripes = new Object[properties.getStripes()];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new Object();
+            }
+            this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumKeys())
+                .expireAfterAccess(refillInterval.multipliedBy(capacity))
+                .build();
+        }
+
+        /**
+         * @return {@code 0} if a token was taken, or else the nanoseconds until the next token.
+         */
+        long tryAcquire(String key) {
+            Bucket bucket = buckets.get(key, k -> new Bucket(capacity, System.nanoTime()));
+            synchronized (stripes[Math.floorMod(key.hashCode(), stripes.length)]) {
+                long now = System.nanoTime();
+                long refills = (now - bucket.refilledAt) / refillIntervalNanos;
+                if (refills > 0) {
+                    bucket.tokens = (int) Math.min(capacity, bucket.tokens + refills);
+                    bucket.refilledAt = bucket.tokens == capacity ? now : bucket.refilledAt + refills * refillIntervalNanos;
+                }
+                if (bucket.tokens > 0) {
+                    bucket.tokens--;
+                    return 0;
+                }
+                return Math.max(1, bucket.refilledAt + refillIntervalNanos - now);
+            }
+        }
+
+        /**
+         * Give back a token taken by an attempt which was rejected for another reason.
+         */
+        void release(String key) {
+            Bucket bucket = buckets.getIfPresent(key);
+            if (bucket == null) {
+                return;
+            }
+            synchronized (stripes[Math.floorMod(key.hashCode(), stripes.length)]) {
+                bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+            }
+        }
+    }
+
+    /**
+     * A token bucket, guarded by the stripe of its key.
+     */
+    private static final class Bucket {
+
+        private int tokens;
+
+        private long refilledAt;
+
+        Bucket(int tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
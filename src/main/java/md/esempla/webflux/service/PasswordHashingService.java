@@ -0,0 +1,96 @@
+package md.esempla.webflux.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.PasswordHashingMetersService;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs the password hashings and verifications.
+ * <p>
+ * BCrypt is deliberately CPU-heavy, so it runs on a pool of dedicated threads sized to the CPUs, rather than on the shared
+ * {@link Schedulers#boundedElastic()} where a burst of logins would starve the other blocking work. Hashings wait in a
+ * bounded queue for a free thread; when it is full, they are rejected at once with a {@link TooManyRequestsException}. The
+ * queue depth and the activity of the pool are exposed as the {@code executor.*} meters tagged {@code name=password-hashing}.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordHashingMetersService metersService;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Scheduler scheduler;
+
+    private final Duration retryAfter;
+
+    public PasswordHashingService(
+        ApplicationProperties applicationProperties,
+        PasswordHashingMetersService metersService,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.PasswordHashing properties = applicationProperties.getPasswordHashing();
+        this.metersService = metersService;
+        this.executor = new ThreadPoolExecutor(
+            properties.getThreads(),
+            properties.getThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory("password-hashing-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.scheduler = Schedulers.fromExecutorService(
+            ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing"),
+            "password-hashing"
+        );
+        this.retryAfter = properties.getRetryAfter();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the scheduler of the hashing threads, whose rejections should be mapped with {@link #rejected(Throwable)}.
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Hash or verify passwords on the hashing threads.
+     *
+     * @param hashing the hashing.
+     * @param <T> the type of the result.
+     * @return the result, or a {@link TooManyRequestsException} if the hashing queue is full.
+     */
+    public <T> Mono<T> run(Callable<T> hashing) {
+        return Mono.fromCallable(hashing).subscribeOn(scheduler).onErrorMap(RejectedExecutionException.class, this::rejected);
+    }
+
+    /**
+     * Track a hashing rejected by the scheduler.
+     *
+     * @param rejection the rejection of the scheduler.
+     * @return the exception telling the client to retry later.
+     */
+    public TooManyRequestsException rejected(Throwable rejection) {
+        metersService.trackRejected();
+        return new TooManyRequestsException("Too many passwords are being hashed", retryAfter);
+    }
+}
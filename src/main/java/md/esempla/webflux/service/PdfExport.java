@@ -0,0 +1,11 @@
+package md.esempla.webflux.service;
+
+import java.nio.file.Path;
+
+/**
+ * A PDF exported into a temporary file, which belongs to the caller.
+ *
+ * @param file the temporary file.
+ * @param truncated whether more rows matched than were exported.
+ */
+public record PdfExport(Path file, boolean truncated) {}
@@ -0,0 +1,283 @@
+package md.esempla.webflux.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import md.esempla.webflux.service.dto.PdfJobDTO;
+import md.esempla.webflux.service.dto.PdfJobRequestDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * Service running the PDF exports in the background, for exports too long to wait for in a single request.
+ * <p>
+ * The jobs wait in a queue for one of a fixed number of workers, each one rendering through the {@link PdfService}, and
+ * retrying while its rendering pool is full. A user may only have a few jobs pending or running at the same time. The
+ * results are stored in a directory, and deleted with their job once it has expired. The jobs are kept in memory, so they
+ * are only known to the node which runs them.
+ */
+@Service
+public class PdfJobService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PdfJobService.class);
+
+    private static final String EXTENSION = ".pdf";
+
+    private final PostExportService postExportService;
+
+    private final PostService postService;
+
+    private final ApplicationProperties.PdfJobs properties;
+
+    private final Duration retryAfter;
+
+    private final Path directory;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final Sinks.Many<Job> queue = Sinks.many().unicast().onBackpressureBuffer();
+
+    private Disposable workers;
+
+    public PdfJobService(PostExportService postExportService, PostService postService, ApplicationProperties applicationProperties) {
+        this.postExportService = postExportService;
+        this.postService = postService;
+        this.properties = applicationProperties.getPdfJobs();
+        this.retryAfter = applicationProperties.getPdfRendering().getRetryAfter();
+        this.directory = Path.of(properties.getDirectory());
+    }
+
+    /**
+     * Create the result directory, removing the results left by a previous run, and start the workers.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> results = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path result : results) {
+                delete(result);
+            }
+        }
+        workers = queue.asFlux().flatMap(this::run, properties.getWorkers()).subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (workers != null) {
+            workers.dispose();
+        }
+    }
+
+    /**
+     * Queue an export.
+     *
+     * @param login the login of the user requesting the export.
+     * @param request the export to run.
+     * @return the pending job, or a {@link TooManyRequestsException} if the user already has too many jobs.
+     */
+    public Mono<PdfJobDTO> submit(String login, PdfJobRequestDTO request) {
+        LOG.debug("Request to submit a PDF job for {} : {}", login, request);
+        return Mono.fromCallable(() -> admit(login, request))
+            .doOnNext(job -> queue.emitNext(job, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1))))
+            .map(Job::toDto);
+    }
+
+    private synchronized Job admit(String login, PdfJobRequestDTO request) {
+        long active = jobs.values().stream().filter(job -> job.login.equals(login) && !job.isFinished()).count();
+        if (active >= properties.getMaxJobsPerUser()) {
+            throw new TooManyRequestsException("Too many PDF jobs are pending", retryAfter);
+        }
+        Job job = new Job(
+            UUID.randomUUID().toString(),
+            login,
+            request.getTemplate(),
+            request.getCriteria() != null ? request.getCriteria() : new PostCriteria(),
+            postExportService.rowCap(request.getMaxRows())
+        );
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    /**
+     * Get a job of a user.
+     *
+     * @param login the login of the user.
+     * @param id the id of the job.
+     * @return the job, or empty if the user has no such job.
+     */
+    public Mono<PdfJobDTO> findOne(String login, String id) {
+        return Mono.justOrEmpty(find(login, id)).map(Job::toDto);
+    }
+
+    /**
+     * Get the result of a completed job of a user.
+     *
+     * @param login the login of the user.
+     * @param id the id of the job.
+     * @return the PDF file, or empty if the user has no such completed job.
+     */
+    public Mono<Path> findResult(String login, String id) {
+        return Mono.justOrEmpty(find(login, id)).mapNotNull(job -> job.result);
+    }
+
+    private Job find(String login, String id) {
+        Job job = jobs.get(id);
+        return job != null && job.login.equals(login) ? job : null;
+    }
+
+    /**
+     * Expired jobs are deleted with their result.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void removeExpiredJobs() {
+        Instant now = Instant.now();
+        jobs
+            .values()
+            .stream()
+            .filter(job -> job.isExpired(now))
+            .forEach(job -> {
+                if (jobs.remove(job.id, job) && job.result != null) {
+                    delete(job.result);
+                }
+                LOG.debug("Removed expired PDF job: {}", job.id);
+            });
+    }
+
+    private Mono<Void> run(Job job) {
+        Retry whileRenderingPoolIsFull = Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+            .maxBackoff(retryAfter)
+            .filter(TooManyRequestsException.class::isInstance);
+        Mono<PdfExport> export = Mono.defer(() ->
+            postExportService.exportToPdf(job.template, job.criteria, job.rowCap, job.rows::addAndGet)
+        ).retryWhen(whileRenderingPoolIsFull);
+        return Mono.fromRunnable(job::start)
+            .then(postService.countByCriteria(job.criteria))
+            .doOnNext(count -> job.totalRows = Math.min(count, job.rowCap))
+            .then(export)
+            .flatMap(result -> Mono.fromCallable(() -> store(job, result)).subscribeOn(Schedulers.boundedElastic()))
+            .doOnNext(job::complete)
+            .doOnError(e -> {
+                LOG.warn("PDF job {} failed: {}", job.id, e.getMessage());
+                job.fail();
+            })
+            .onErrorComplete()
+            .then();
+    }
+
+    private Path store(Job job, PdfExport export) throws IOException {
+        job.truncated = export.truncated();
+        try {
+            return Files.move(export.file(), directory.resolve(job.id + EXTENSION), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            delete(export.file());
+            throw e;
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Could not delete the PDF job result {}: {}", file, e.getMessage());
+        }
+    }
+
+    private final class Job {
+
+        private final String id;
+
+        private final String login;
+
+        private final String template;
+
+        private final PostCriteria criteria;
+
+        private final int rowCap;
+
+        private final Instant createdDate = Instant.now();
+
+        private final AtomicLong rows = new AtomicLong();
+
+        private volatile PdfJobDTO.Status status = PdfJobDTO.Status.PENDING;
+
+        private volatile Long totalRows;
+
+        private volatile boolean truncated;
+
+        private volatile Path result;
+
+        private volatile Instant completedDate;
+
+        private Job(String id, String login, String template, PostCriteria criteria, int rowCap) {
+            this.id = id;
+            this.login = login;
+            this.template = template;
+            this.criteria = criteria;
+            this.rowCap = rowCap;
+        }
+
+        private void start() {
+            this.status = PdfJobDTO.Status.RUNNING;
+        }
+
+        private void complete(Path result) {
+            this.result = result;
+            this.completedDate = Instant.now();
+            this.status = PdfJobDTO.Status.COMPLETED;
+        }
+
+        private void fail() {
+            this.completedDate = Instant.now();
+            this.status = PdfJobDTO.Status.FAILED;
+        }
+
+        private boolean isFinished() {
+            return status == PdfJobDTO.Status.COMPLETED || status == PdfJobDTO.Status.FAILED;
+        }
+
+        private boolean isExpired(Instant now) {
+            Instant expiryDate = expiryDate();
+            return expiryDate != null && !now.isBefore(expiryDate);
+        }
+
+        private Instant expiryDate() {
+            Instant completed = completedDate;
+            return completed != null ? completed.plus(properties.getTtl()) : null;
+        }
+
+        private PdfJobDTO toDto() {
+            PdfJobDTO dto = new PdfJobDTO();
+            dto.setId(id);
+            dto.setStatus(status);
+            dto.setRows(rows.get());
+            dto.setTotalRows(totalRows);
+            dto.setTruncated(truncated);
+            dto.setCreatedDate(createdDate);
+            dto.setCompletedDate(completedDate);
+            dto.setExpiryDate(expiryDate());
+            return dto;
+        }
+    }
+}
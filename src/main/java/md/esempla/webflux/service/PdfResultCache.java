@@ -0,0 +1,242 @@
+package md.esempla.webflux.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.repository.RowSetVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import tech.jhipster.service.Criteria;
+
+/**
+ * Cache of the exported PDFs on local disk, bounded by their total size.
+ * <p>
+ * A PDF is keyed by a digest of its template, criteria, row cap and the {@link RowSetVersion} of the rows matching the
+ * criteria, which changes with any insert, update or delete of these rows. A modified post thus leads to a new key, and
+ * the PDFs of the previous versions are deleted as they fall out of use. The key identifies the content of the PDF, so it
+ * also makes a strong {@code ETag}.
+ * <p>
+ * The PDFs are handed out as {@link CachedPdf} leases, to be closed once they have been sent. An evicted PDF is deleted
+ * when its last lease is closed, so the directory may briefly exceed its budget by the PDFs still being sent.
+ * <p>
+ * Hits and misses are exposed as the {@code cache.*} meters tagged {@code cache=pdf-results}.
+ */
+@Component
+public class PdfResultCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PdfResultCache.class);
+
+    private static final String EXTENSION = ".pdf";
+
+    private final Path directory;
+
+    private final long maximumWeight;
+
+    private final Cache<String, Entry> pdfs;
+
+    /**
+     * A lease on a cached PDF, which keeps its file from being deleted until it is closed.
+     */
+    public static final class CachedPdf implements AutoCloseable {
+
+        private final Entry entry;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private CachedPdf(Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * @return the file of the PDF, owned by the cache.
+         */
+        public Path file() {
+            return entry.file;
+        }
+
+        /**
+         * @return whether more rows matched than were exported.
+         */
+        public boolean truncated() {
+            return entry.truncated;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                entry.release();
+            }
+        }
+    }
+
+    /**
+     * A cached file, with the number of leases on it.
+     */
+    private static final class Entry {
+
+        private final Path file;
+
+        private final boolean truncated;
+
+        private int leases;
+
+        private boolean removed;
+
+        private Entry(Path file, boolean truncated) {
+            this.file = file;
+            this.truncated = truncated;
+        }
+
+        synchronized boolean acquire() {
+            if (removed) {
+                return false;
+            }
+            leases++;
+            return true;
+        }
+
+        synchronized void release() {
+            if (--leases == 0 && removed) {
+                delete(file);
+            }
+        }
+
+        synchronized void remove() {
+            removed = true;
+            if (leases == 0) {
+                delete(file);
+            }
+        }
+    }
+
+    public PdfResultCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.PdfCache properties = applicationProperties.getPdfCache();
+        this.directory = Path.of(properties.getDirectory());
+        this.maximumWeight = properties.getMaximumSize().toKilobytes();
+        this.pdfs = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String key, Entry entry) -> weigh(entry.file))
+                // Delete the evicted files right away, unless they are being sent, so that the directory stays within its budget
+                .executor(Runnable::run)
+                .removalListener((String key, Entry entry, RemovalCause cause) -> entry.remove())
+                .recordStats()
+                .build(),
+            "pdf-results"
+        );
+    }
+
+    /**
+     * Create the cache directory, removing the PDFs cached by a previous run.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                delete(file);
+            }
+        }
+    }
+
+    /**
+     * Compute the key of a PDF.
+     *
+     * @param template the name of the template.
+     * @param criteria the criteria which the exported rows match.
+     * @param rowCap the maximum number of exported rows.
+     * @param version the version of the rows matching the criteria.
+     * @return the key, as an hexadecimal digest.
+     */
+    public String key(String template, Criteria criteria, int rowCap, RowSetVersion version) {
+        String content = String.join(
+            "\n",
+            template,
+            String.valueOf(criteria),
+            String.valueOf(rowCap),
+            String.valueOf(version.count()),
+            version.version()
+        );
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get a cached PDF.
+     *
+     * @param key the key of the PDF.
+     * @return a lease on the cached PDF, to be closed once it has been sent, if any.
+     */
+    public Optional<CachedPdf> get(String key) {
+        return Optional.ofNullable(pdfs.getIfPresent(key))
+            .filter(entry -> Files.exists(entry.file))
+            .filter(Entry::acquire)
+            .map(CachedPdf::new);
+    }
+
+    /**
+     * Move an exported PDF into the cache, unless it is larger than the whole cache.
+     *
+     * @param key the key of the PDF.
+     * @param export the exported PDF.
+     * @return a lease on the cached PDF, to be closed once it has been sent, or empty if the export was too large to be cached,
+     * in which case it still belongs to the caller.
+     * @throws IOException if the export could not be moved into the cache.
+     */
+    public Optional<CachedPdf> put(String key, PdfExport export) throws IOException {
+        if (weigh(export.file()) > maximumWeight) {
+            return Optional.empty();
+        }
+        Path file = Files.move(
+            export.file(),
+            directory.resolve(key + "-" + UUID.randomUUID() + EXTENSION),
+            StandardCopyOption.REPLACE_EXISTING
+        );
+        Entry entry = new Entry(file, export.truncated());
+        // Lease the PDF before caching it, as it may be evicted right away
+        entry.acquire();
+        pdfs.put(key, entry);
+        return Optional.of(new CachedPdf(entry));
+    }
+
+    /**
+     * The weight of a PDF is its size in kilobytes.
+     */
+    private static int weigh(Path file) {
+        try {
+            return (int) Math.min(Integer.MAX_VALUE, Files.size(file) / 1024 + 1);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Could not delete the cached PDF {}: {}", file, e.getMessage());
+        }
+    }
+}
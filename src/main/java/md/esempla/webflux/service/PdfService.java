@@ -1,30 +1,177 @@
 package md.esempla.webflux.service;
 
-import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
+import com.openhtmltopdf.pdfboxout.PdfBoxRenderer;
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.PdfRenderingMetersService;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+/**
+ * Renders PDFs from Mustache templates, compiled once by the {@link PdfTemplateRegistry}.
+ * <p>
+ * The layout and serialization of a PDF are CPU-heavy and blocking, so they run on a bounded pool of dedicated threads
+ * rather than on the event loop. Renderings wait in a bounded queue for a free thread; when it is full, they are rejected
+ * with a {@link TooManyRequestsException}. The queue depth and the activity of the pool are exposed as the
+ * {@code executor.*} meters tagged {@code name=pdf-render}.
+ */
 @Service
 public class PdfService {
 
-    public byte[] generatePdfFromTemplate(String templatePath, Map<String, Object> data) throws IOException {
-        // Render Mustache template to HTML
-        MustacheFactory mf = new DefaultMustacheFactory();
-        Mustache mustache = mf.compile(templatePath);
-        StringWriter htmlWriter = new StringWriter();
-        mustache.execute(htmlWriter, data).flush();
-
-        // Convert HTML to PDF
-        ByteArrayOutputStream pdfStream = new ByteArrayOutputStream();
-        PdfRendererBuilder builder = new PdfRendererBuilder();
-        builder.withHtmlContent(htmlWriter.toString(), null);
-        builder.toStream(pdfStream);
-        builder.run();
-
-        return pdfStream.toByteArray();
+    private static final Logger LOG = LoggerFactory.getLogger(PdfService.class);
+
+    private final PdfTemplateRegistry templateRegistry;
+
+    private final PdfRenderingMetersService metersService;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ExecutorService monitoredExecutor;
+
+    private final Duration retryAfter;
+
+    public PdfService(
+        ApplicationProperties applicationProperties,
+        PdfTemplateRegistry templateRegistry,
+        PdfRenderingMetersService metersService,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.PdfRendering properties = applicationProperties.getPdfRendering();
+        this.templateRegistry = templateRegistry;
+        this.metersService = metersService;
+        this.executor = new ThreadPoolExecutor(
+            properties.getThreads(),
+            properties.getThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory("pdf-render-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.monitoredExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "pdf-render");
+        this.retryAfter = properties.getRetryAfter();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Render a PDF into a temporary file on the rendering threads, the template being rendered once for each chunk of data.
+     * <p>
+     * The chunks are read one at a time, and each one is laid out as a separate HTML document appended to the same PDF, so
+     * that a single chunk is held in memory. Each chunk therefore starts on a new page. The PDF itself is buffered in
+     * temporary files by PDFBox.
+     *
+     * @param templatePath the classpath location of the Mustache template.
+     * @param chunks the data of the template for each chunk.
+     * @return the temporary file, to be deleted by the caller, or a {@link TooManyRequestsException} if the rendering queue
+     * is full. The file is deleted here if the subscriber cancels before receiving it.
+     */
+    public Mono<Path> renderToFile(String templatePath, Flux<Map<String, Object>> chunks) {
+        return submit(
+            () -> {
+                try {
+                    return generatePdfFileFromTemplate(templatePath, chunks.toIterable(1));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            },
+            PdfService::deleteQuietly
+        ).doOnDiscard(Path.class, PdfService::deleteQuietly);
+    }
+
+    /**
+     * Run a rendering on the rendering threads. A rendering that has not started when the subscriber cancels is skipped;
+     * one that is already running cannot be interrupted, so its result is handed to {@code orphaned} instead.
+     */
+    private <T> Mono<T> submit(Supplier<T> rendering, Consumer<? super T> orphaned) {
+        return Mono.defer(() -> {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                monitoredExecutor.execute(() -> {
+                    if (future.isDone()) {
+                        return;
+                    }
+                    try {
+                        T result = timed(rendering);
+                        if (!future.complete(result)) {
+                            orphaned.accept(result);
+                        }
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                metersService.trackRejected();
+                return Mono.error(new TooManyRequestsException("Too many PDFs are being rendered", retryAfter));
+            }
+            return Mono.fromFuture(future);
+        });
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Could not delete the abandoned PDF {}: {}", file, e.getMessage());
+        }
+    }
+
+    private <T> T timed(Supplier<T> rendering) {
+        long start = System.nanoTime();
+        try {
+            return rendering.get();
+        } finally {
+            metersService.trackRenderTime(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private Path generatePdfFileFromTemplate(String templatePath, Iterable<Map<String, Object>> chunks) throws IOException {
+        Mustache mustache = templateRegistry.template(templatePath);
+        Path file = Files.createTempFile("pdf-", ".pdf");
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupTempFileOnly())) {
+            for (Map<String, Object> chunk : chunks) {
+                StringWriter htmlWriter = new StringWriter();
+                mustache.execute(htmlWriter, templateRegistry.scopes(chunk)).flush();
+
+                PdfRendererBuilder builder = templateRegistry.configure(new PdfRendererBuilder());
+                builder.usePDDocument(document);
+                builder.withHtmlContent(htmlWriter.toString(), null);
+                try (PdfBoxRenderer renderer = builder.buildPdfRenderer()) {
+                    renderer.layout();
+                    renderer.createPDFWithoutClosing();
+                }
+            }
+            document.save(file.toFile());
+            return file;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
     }
 }
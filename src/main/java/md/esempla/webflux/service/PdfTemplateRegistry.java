@@ -0,0 +1,161 @@
+package md.esempla.webflux.service;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import com.github.mustachejava.MustacheFactory;
+import com.openhtmltopdf.extend.impl.FSDefaultCacheStore;
+import com.openhtmltopdf.outputdevice.helper.BaseRendererBuilder;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of the resources shared by the PDF renderings.
+ * <p>
+ * The Mustache templates are compiled once, or again when they change if {@code reload-templates} is set. The stylesheet
+ * and the fonts are read once, the fonts being registered with every renderer from memory, along with a cache of their
+ * metrics. The PDF renderers themselves cannot be reused, as each one lays out a single document.
+ */
+@Component
+public class PdfTemplateRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PdfTemplateRegistry.class);
+
+    private static final String STYLESHEET = "stylesheet";
+
+    private static final int FS_SELECTION_ITALIC = 1;
+
+    private final MustacheFactory mustacheFactory = new DefaultMustacheFactory();
+
+    private final Map<String, CompiledTemplate> templates = new ConcurrentHashMap<>();
+
+    private final FSDefaultCacheStore fontMetrics = new FSDefaultCacheStore();
+
+    private final boolean reloadTemplates;
+
+    private final Map<String, Object> sharedScope;
+
+    private final List<Font> fonts;
+
+    public PdfTemplateRegistry(ApplicationProperties applicationProperties) {
+        ApplicationProperties.PdfRendering properties = applicationProperties.getPdfRendering();
+        this.reloadTemplates = properties.isReloadTemplates();
+        this.sharedScope = Map.of(STYLESHEET, readStylesheet(properties.getStylesheet()));
+        this.fonts = readFonts(properties.getFonts());
+    }
+
+    /**
+     * Get a compiled template.
+     *
+     * @param templatePath the classpath location of the Mustache template.
+     * @return the compiled template.
+     */
+    public Mustache template(String templatePath) {
+        CompiledTemplate template = templates.computeIfAbsent(templatePath, this::compile);
+        if (reloadTemplates && template.lastModified() != lastModified(templatePath)) {
+            LOG.debug("Reloading the PDF template {}", templatePath);
+            template = compile(templatePath);
+            templates.put(templatePath, template);
+        }
+        return template.mustache();
+    }
+
+    /**
+     * Get the scopes in which a template is executed: the variables shared by all the templates, overridden by the data of
+     * the rendering.
+     *
+     * @param data the data of the rendering.
+     * @return the scopes.
+     */
+    public List<Object> scopes(Map<String, Object> data) {
+        return List.of(sharedScope, data);
+    }
+
+    /**
+     * Register the shared fonts and caches with a renderer.
+     *
+     * @param builder the builder of the renderer.
+     * @return the builder.
+     */
+    public PdfRendererBuilder configure(PdfRendererBuilder builder) {
+        builder.useFastMode();
+        builder.useCacheStore(PdfRendererBuilder.CacheStore.PDF_FONT_METRICS, fontMetrics);
+        for (Font font : fonts) {
+            builder.useFont(() -> new ByteArrayInputStream(font.bytes()), font.family(), font.weight(), font.style(), true);
+        }
+        return builder;
+    }
+
+    private CompiledTemplate compile(String templatePath) {
+        long lastModified = reloadTemplates ? lastModified(templatePath) : 0L;
+        try (Reader reader = new InputStreamReader(new ClassPathResource(templatePath).getInputStream(), StandardCharsets.UTF_8)) {
+            return new CompiledTemplate(mustacheFactory.compile(reader, templatePath), lastModified);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long lastModified(String templatePath) {
+        try {
+            return new ClassPathResource(templatePath).lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String readStylesheet(String location) {
+        ClassPathResource resource = new ClassPathResource(location);
+        if (!resource.exists()) {
+            LOG.warn("The PDF stylesheet {} does not exist", location);
+            return "";
+        }
+        try {
+            return resource.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Font> readFonts(List<String> locations) {
+        List<Font> fonts = new ArrayList<>();
+        for (String location : locations) {
+            try (InputStream input = new ClassPathResource(location).getInputStream()) {
+                byte[] bytes = input.readAllBytes();
+                try (TrueTypeFont ttf = new TTFParser().parse(new ByteArrayInputStream(bytes))) {
+                    boolean italic = (ttf.getOS2Windows().getFsSelection() & FS_SELECTION_ITALIC) != 0;
+                    Font font = new Font(
+                        bytes,
+                        ttf.getNaming().getFontFamily(),
+                        ttf.getOS2Windows().getWeightClass(),
+                        italic ? BaseRendererBuilder.FontStyle.ITALIC : BaseRendererBuilder.FontStyle.NORMAL
+                    );
+                    LOG.debug("Registered the PDF font {} from {}", font.family(), location);
+                    fonts.add(font);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the PDF font " + location, e);
+            }
+        }
+        return List.copyOf(fonts);
+    }
+
+    private record CompiledTemplate(Mustache mustache, long lastModified) {}
+
+    private record Font(byte[] bytes, String family, int weight, BaseRendererBuilder.FontStyle style) {}
+}
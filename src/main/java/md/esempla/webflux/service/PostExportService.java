@@ -0,0 +1,132 @@
+package md.esempla.webflux.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.Post;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+/**
+ * Service exporting the posts matching some criteria as PDFs.
+ * <p>
+ * The posts are read from the database by chunks in the order of their ids, and laid out chunk by chunk, so that the memory
+ * used by an export does not depend on its number of rows. Each chunk is read in a short transaction of its own, which
+ * ends before the chunk is laid out: a long export holds no pooled connection while it is rendered. The chunks are thus
+ * not read from the same snapshot, and a post written during an export may or may not be part of it.
+ */
+@Service
+public class PostExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PostExportService.class);
+
+    public static final String DEFAULT_TEMPLATE = "sample";
+
+    private final PdfService pdfService;
+
+    private final PostService postService;
+
+    private final ApplicationProperties.PdfRendering properties;
+
+    public PostExportService(PdfService pdfService, PostService postService, ApplicationProperties applicationProperties) {
+        this.pdfService = pdfService;
+        this.postService = postService;
+        this.properties = applicationProperties.getPdfRendering();
+    }
+
+    /**
+     * Check that a template exists, in the {@code templates} directory of the classpath.
+     *
+     * @param template the name of the template, without extension.
+     * @return whether the template exists.
+     */
+    public boolean templateExists(String template) {
+        return new ClassPathResource(templatePath(template)).exists();
+    }
+
+    /**
+     * Cap the number of rows requested by a client with the configured maximum.
+     *
+     * @param maxRows the number of rows requested, if any.
+     * @return the number of rows to export.
+     */
+    public int rowCap(Integer maxRows) {
+        return maxRows != null ? Math.max(0, Math.min(maxRows, properties.getMaxRows())) : properties.getMaxRows();
+    }
+
+    /**
+     * Export the posts as a PDF into a temporary file.
+     *
+     * @param template the name of the template, without extension.
+     * @param criteria the criteria which the exported posts should match.
+     * @param rowCap the maximum number of exported posts.
+     * @param onRows called with the number of posts of each chunk, once it is read.
+     * @return the export, or a {@link TooManyRequestsException} if too many PDFs are being rendered.
+     */
+    public Mono<PdfExport> exportToPdf(String template, PostCriteria criteria, int rowCap, LongConsumer onRows) {
+        LOG.debug("Request to export Posts by criteria: {}", criteria);
+        AtomicBoolean truncated = new AtomicBoolean();
+        // One more post than the cap tells whether the export is truncated
+        int limit = rowCap + 1;
+        int chunkSize = properties.getChunkSize();
+        AtomicInteger read = new AtomicInteger();
+        Flux<Post> posts = readPage(criteria, null, Math.min(chunkSize, limit))
+            .expand(page -> {
+                int remaining = limit - read.addAndGet(page.size());
+                // a short page is the last one
+                return page.size() < chunkSize || remaining <= 0
+                    ? Mono.empty()
+                    : readPage(criteria, page.get(page.size() - 1).getId(), Math.min(chunkSize, remaining));
+            })
+            .flatMapIterable(page -> page)
+            .index()
+            .filter(indexed -> {
+                if (indexed.getT1() < rowCap) {
+                    return true;
+                }
+                truncated.set(true);
+                return false;
+            })
+            .map(Tuple2::getT2);
+        Flux<Map<String, Object>> chunks = posts
+            .buffer(properties.getChunkSize())
+            .doOnNext(chunk -> onRows.accept(chunk.size()))
+            .defaultIfEmpty(List.of())
+            .index()
+            .map(chunk -> {
+                Map<String, Object> data = new HashMap<>();
+                data.put("first", chunk.getT1() == 0);
+                data.put("posts", chunk.getT2());
+                return data;
+            });
+        return pdfService.renderToFile(templatePath(template), chunks).map(file -> new PdfExport(file, truncated.get()));
+    }
+
+    /**
+     * Read the posts following the given id, ending the transaction of the query before they are used.
+     */
+    private Mono<List<Post>> readPage(PostCriteria criteria, Long afterId, int pageSize) {
+        PostCriteria page = criteria.copy();
+        if (afterId != null) {
+            Long greaterThan = page.id().getGreaterThan();
+            page.id().setGreaterThan(greaterThan != null ? Math.max(greaterThan, afterId) : afterId);
+        }
+        return postService.streamByCriteria(page, PageRequest.of(0, pageSize, Sort.by("id"))).collectList();
+    }
+
+    private static String templatePath(String template) {
+        return "templates/" + template + ".mustache";
+    }
+}
@@ -2,11 +2,21 @@ package md.esempla.webflux.service;
 
 import md.esempla.webflux.domain.Post;
 import md.esempla.webflux.domain.criteria.PostCriteria;
+import java.util.Arrays;
+import java.util.Optional;
+import md.esempla.webflux.repository.CacheInvalidationBus;
+import md.esempla.webflux.repository.CacheInvalidationEvent;
 import md.esempla.webflux.repository.PostRepository;
+import md.esempla.webflux.repository.QueryResultCache;
+import md.esempla.webflux.repository.RowCount;
+import md.esempla.webflux.repository.RowCountEstimator;
+import md.esempla.webflux.repository.RowSetVersion;
+import md.esempla.webflux.repository.Versioned;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -20,10 +30,28 @@ public class PostService {
 
     private static final Logger LOG = LoggerFactory.getLogger(PostService.class);
 
+    private static final String SUMMARIES = "summaries";
+
+    private static final String CONTENTS = "contents";
+
     private final PostRepository postRepository;
 
-    public PostService(PostRepository postRepository) {
+    private final QueryResultCache queryResultCache;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final RowCountEstimator rowCountEstimator;
+
+    public PostService(
+        PostRepository postRepository,
+        QueryResultCache queryResultCache,
+        CacheInvalidationBus cacheInvalidationBus,
+        RowCountEstimator rowCountEstimator
+    ) {
         this.postRepository = postRepository;
+        this.queryResultCache = queryResultCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.rowCountEstimator = rowCountEstimator;
     }
 
     /**
@@ -34,7 +62,7 @@ public class PostService {
      */
     public Mono<Post> save(Post post) {
         LOG.debug("Request to save Post : {}", post);
-        return postRepository.save(post);
+        return postRepository.save(post).delayUntil(result -> invalidateCachedQueries(result, Optional.empty()));
     }
 
     /**
@@ -45,7 +73,9 @@ public class PostService {
      */
     public Mono<Post> update(Post post) {
         LOG.debug("Request to update Post : {}", post);
-        return postRepository.save(post);
+        return findPostStatusId(post.getId()).flatMap(previousPostStatusId ->
+            postRepository.save(post).delayUntil(result -> invalidateCachedQueries(result, previousPostStatusId))
+        );
     }
 
     /**
@@ -75,7 +105,8 @@ public class PostService {
 
                 return existingPost;
             })
-            .flatMap(postRepository::save);
+            .flatMap(postRepository::save)
+            .delayUntil(result -> invalidateCachedQueries(result, Optional.empty()));
     }
 
     /**
@@ -84,20 +115,57 @@ public class PostService {
      * @param pageable the pagination information.
      * @return the list of entities.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Flux<Post> findByCriteria(PostCriteria criteria, Pageable pageable) {
         LOG.debug("Request to get all Posts by Criteria");
+        return queryResultCache.posts().getPage(criteria, pageable, CONTENTS, postRepository::findByCriteria);
+    }
+
+    /**
+     * Stream posts by Criteria, bypassing the query cache, for exports which read too many posts to hold them in memory.
+     * The transaction lasts until the returned posts have all been consumed.
+     *
+     * @param pageable the range of posts to read.
+     * @return the entities, as they are read from the database.
+     */
+    @Transactional(readOnly = true)
+    public Flux<Post> streamByCriteria(PostCriteria criteria, Pageable pageable) {
+        LOG.debug("Request to stream all Posts by Criteria");
         return postRepository.findByCriteria(criteria, pageable);
     }
 
+    /**
+     * Find posts by Criteria, with an excerpt instead of the full content.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Flux<Post> findSummariesByCriteria(PostCriteria criteria, Pageable pageable) {
+        LOG.debug("Request to get all Post summaries by Criteria");
+        return queryResultCache.posts().getPage(criteria, pageable, SUMMARIES, postRepository::findSummariesByCriteria);
+    }
+
     /**
      * Find the count of posts by criteria.
      * @param criteria filtering criteria
      * @return the count of posts
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Mono<Long> countByCriteria(PostCriteria criteria) {
         LOG.debug("Request to get the count of all Posts by Criteria");
-        return postRepository.countByCriteria(criteria);
+        return findVersionByCriteria(criteria).map(RowSetVersion::count);
+    }
+
+    /**
+     * Estimate the count of posts by criteria, from the statistics of the database. Small counts are exact.
+     * @param criteria filtering criteria
+     * @return the estimated count of posts
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Mono<RowCount> estimateCountByCriteria(PostCriteria criteria) {
+        LOG.debug("Request to estimate the count of all Posts by Criteria");
+        return rowCountEstimator.estimateOrCount(postRepository.estimateCountByCriteria(criteria), countByCriteria(criteria));
     }
 
     /**
@@ -109,6 +177,41 @@ public class PostService {
         return postRepository.count();
     }
 
+    /**
+     * Find the version of the posts by criteria, without reading them.
+     * @param criteria filtering criteria
+     * @return the version of the posts
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Mono<RowSetVersion> findVersionByCriteria(PostCriteria criteria) {
+        LOG.debug("Request to get the version of all Posts by Criteria");
+        return queryResultCache.posts().getVersion(criteria, postRepository::findVersionByCriteria);
+    }
+
+    /**
+     * Find the version of one post by id, without reading it.
+     *
+     * @param id the id of the entity.
+     * @return the version of the entity, empty if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<RowSetVersion> findVersion(Long id) {
+        LOG.debug("Request to get the version of Post : {}", id);
+        return postRepository.findVersionById(id);
+    }
+
+    /**
+     * Get one post by id, with its version.
+     *
+     * @param id the id of the entity.
+     * @return the entity and its version, empty if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<Versioned<Post>> findOneWithVersion(Long id) {
+        LOG.debug("Request to get Post with its version : {}", id);
+        return postRepository.findWithVersionById(id);
+    }
+
     /**
      * Get one post by id.
      *
@@ -129,6 +232,22 @@ public class PostService {
      */
     public Mono<Void> delete(Long id) {
         LOG.debug("Request to delete Post : {}", id);
-        return postRepository.deleteById(id);
+        return findPostStatusId(id).flatMap(previousPostStatusId ->
+            postRepository.deleteById(id).then(invalidateCachedQueries(new Post().id(id), previousPostStatusId))
+        );
+    }
+
+    private Mono<Optional<Long>> findPostStatusId(Long id) {
+        return postRepository.findPostStatusIdById(id).map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+
+    /**
+     * Invalidate the cached lists of posts which may hold the post, before or after the write, and the cached lists of
+     * comments which embed it, on all the nodes.
+     */
+    private Mono<Void> invalidateCachedQueries(Post post, Optional<Long> previousPostStatusId) {
+        return cacheInvalidationBus.invalidate(
+            CacheInvalidationEvent.post(post.getId(), Arrays.asList(post.getPostStatusId(), previousPostStatusId.orElse(null)))
+        );
     }
 }
@@ -0,0 +1,157 @@
+package md.esempla.webflux.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.RefreshToken;
+import md.esempla.webflux.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service issuing and rotating the refresh tokens.
+ * <p>
+ * A login starts a family of refresh tokens, which all expire when its first token does. Each token is exchanged once for the
+ * next one of its family. If a token is presented again, it was stolen by either the client or the presenter, so the whole
+ * family is deleted and both have to log in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final ApplicationProperties.RefreshTokens properties;
+
+    /**
+     * A refresh token given to a client.
+     *
+     * @param login the login of the user.
+     * @param value the value of the token, which is not stored.
+     */
+    public record IssuedToken(String login, String value) {}
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, ApplicationProperties applicationProperties) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.properties = applicationProperties.getRefreshTokens();
+    }
+
+    /**
+     * Start a family of refresh tokens, after a login with a password.
+     *
+     * @param login the login of the user.
+     * @param rememberMe whether the family should last for the "remember me" validity.
+     * @return the first token of the family.
+     */
+    public Mono<IssuedToken> issue(String login, boolean rememberMe) {
+        Instant expiresAt = Instant.now().plus(rememberMe ? properties.getValidityForRememberMe() : properties.getValidity());
+        return save(login, UUID.randomUUID(), expiresAt);
+    }
+
+    /**
+     * Exchange a refresh token for the next one of its family.
+     * <p>
+     * This is deliberately not transactional: the deletion of a family whose token is replayed must not be rolled back with
+     * the rejection of the replay.
+     *
+     * @param value the value of the presented token.
+     * @return the next token, or a {@link BadCredentialsException} if the presented token is unknown, expired or already used.
+     */
+    public Mono<IssuedToken> rotate(String value) {
+        Instant now = Instant.now();
+        return refreshTokenRepository
+            .findOneByTokenHash(hash(value))
+            .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Unknown refresh token")))
+            .flatMap(token -> {
+                if (token.getUsedAt() != null) {
+                    return revokeFamily(token);
+                }
+                if (!token.getExpiresAt().isAfter(now)) {
+                    return Mono.error(new BadCredentialsException("Expired refresh token"));
+                }
+                return refreshTokenRepository
+                    .markUsed(token.getId(), now)
+                    .flatMap(marked ->
+                        // A concurrent exchange of the same token got there first
+                        marked == 0 ? revokeFamily(token) : save(token.getLogin(), token.getFamilyId(), token.getExpiresAt())
+                    );
+            });
+    }
+
+    /**
+     * Delete the family of a refresh token, when its client logs out.
+     *
+     * @param value the value of the token.
+     * @return a {@link Mono} completing when the family is deleted.
+     */
+    public Mono<Void> revoke(String value) {
+        return refreshTokenRepository
+            .findOneByTokenHash(hash(value))
+            .flatMap(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()))
+            .then();
+    }
+
+    /**
+     * Delete all the refresh tokens of a user, whose sessions then end when their access tokens expire.
+     *
+     * @param login the login of the user.
+     * @return a {@link Mono} completing when the tokens are deleted.
+     */
+    public Mono<Void> revokeAll(String login) {
+        return refreshTokenRepository.deleteByLogin(login).then();
+    }
+
+    /**
+     * Expired refresh tokens should be deleted regularly, at 01:30 (am) every day.
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void removeExpiredTokens() {
+        refreshTokenRepository
+            .deleteExpired(Instant.now())
+            .doOnNext(deleted -> LOG.debug("Deleted {} expired refresh tokens", deleted))
+            .block();
+    }
+
+    private Mono<IssuedToken> revokeFamily(RefreshToken token) {
+        LOG.warn("Refresh token of {} used twice, revoking its family {}", token.getLogin(), token.getFamilyId());
+        return refreshTokenRepository
+            .deleteByFamilyId(token.getFamilyId())
+            .then(Mono.error(new BadCredentialsException("Refresh token already used")));
+    }
+
+    private Mono<IssuedToken> save(String login, UUID familyId, Instant expiresAt) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(value));
+        token.setFamilyId(familyId);
+        token.setLogin(login);
+        token.setExpiresAt(expiresAt);
+        return refreshTokenRepository.save(token).thenReturn(new IssuedToken(login, value));
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package md.esempla.webflux.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is rejected because the resources it needs are saturated, the client being told when to retry.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
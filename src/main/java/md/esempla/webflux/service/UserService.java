@@ -9,6 +9,12 @@ import md.esempla.webflux.config.Constants;
 import md.esempla.webflux.domain.Authority;
 import md.esempla.webflux.domain.User;
 import md.esempla.webflux.repository.AuthorityRepository;
+import md.esempla.webflux.repository.CacheInvalidationBus;
+import md.esempla.webflux.repository.CacheInvalidationEvent;
+import md.esempla.webflux.repository.ReferenceDataCache;
+import md.esempla.webflux.repository.RowCount;
+import md.esempla.webflux.repository.RowCountEstimator;
+import md.esempla.webflux.repository.UserCache;
 import md.esempla.webflux.repository.UserRepository;
 import md.esempla.webflux.security.AuthoritiesConstants;
 import md.esempla.webflux.security.SecurityUtils;
@@ -38,12 +44,40 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final PasswordHashingService passwordHashingService;
+
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final ReferenceDataCache referenceDataCache;
+
+    private final UserCache userCache;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final RowCountEstimator rowCountEstimator;
+
+    private final RefreshTokenService refreshTokenService;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        PasswordHashingService passwordHashingService,
+        AuthorityRepository authorityRepository,
+        ReferenceDataCache referenceDataCache,
+        UserCache userCache,
+        CacheInvalidationBus cacheInvalidationBus,
+        RowCountEstimator rowCountEstimator,
+        RefreshTokenService refreshTokenService
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.authorityRepository = authorityRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.userCache = userCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.rowCountEstimator = rowCountEstimator;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Transactional
@@ -66,14 +100,16 @@ public class UserService {
         return userRepository
             .findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minus(1, ChronoUnit.DAYS)))
-            .publishOn(Schedulers.boundedElastic())
-            .map(user -> {
-                user.setPassword(passwordEncoder.encode(newPassword));
-                user.setResetKey(null);
-                user.setResetDate(null);
-                return user;
-            })
-            .flatMap(this::saveUser);
+            .flatMap(user ->
+                passwordHashingService.run(() -> {
+                    user.setPassword(passwordEncoder.encode(newPassword));
+                    user.setResetKey(null);
+                    user.setResetDate(null);
+                    return user;
+                })
+            )
+            .flatMap(this::saveUser)
+            .delayUntil(user -> refreshTokenService.revokeAll(user.getLogin()));
     }
 
     @Transactional
@@ -109,9 +145,8 @@ public class UserService {
                     return Mono.error(new EmailAlreadyUsedException());
                 }
             })
-            .publishOn(Schedulers.boundedElastic())
             .then(
-                Mono.fromCallable(() -> {
+                passwordHashingService.run(() -> {
                     User newUser = new User();
                     String encryptedPassword = passwordEncoder.encode(password);
                     newUser.setLogin(userDTO.getLogin().toLowerCase());
@@ -161,16 +196,16 @@ public class UserService {
         return Flux.fromIterable(userDTO.getAuthorities() != null ? userDTO.getAuthorities() : new HashSet<>())
             .flatMap(authorityRepository::findById)
             .doOnNext(authority -> user.getAuthorities().add(authority))
-            .then(Mono.just(user))
-            .publishOn(Schedulers.boundedElastic())
-            .map(newUser -> {
-                String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
-                newUser.setPassword(encryptedPassword);
-                newUser.setResetKey(RandomUtil.generateResetKey());
-                newUser.setResetDate(Instant.now());
-                newUser.setActivated(true);
-                return newUser;
-            })
+            .then(
+                passwordHashingService.run(() -> {
+                    String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
+                    user.setPassword(encryptedPassword);
+                    user.setResetKey(RandomUtil.generateResetKey());
+                    user.setResetDate(Instant.now());
+                    user.setActivated(true);
+                    return user;
+                })
+            )
             .flatMap(this::saveUser)
             .doOnNext(user1 -> LOG.debug("Created Information for User: {}", user1));
     }
@@ -186,6 +221,7 @@ public class UserService {
         return userRepository
             .findById(userDTO.getId())
             .flatMap(user -> {
+                Mono<Void> evictPreviousLogin = evictCachedUser(user.getLogin());
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -197,8 +233,8 @@ public class UserService {
                 user.setLangKey(userDTO.getLangKey());
                 Set<Authority> managedAuthorities = user.getAuthorities();
                 managedAuthorities.clear();
-                return userRepository
-                    .deleteUserAuthorities(user.getId())
+                return evictPreviousLogin
+                    .then(userRepository.deleteUserAuthorities(user.getId()))
                     .thenMany(Flux.fromIterable(userDTO.getAuthorities()))
                     .flatMap(authorityRepository::findById)
                     .map(managedAuthorities::add)
@@ -214,6 +250,8 @@ public class UserService {
         return userRepository
             .findOneByLogin(login)
             .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .delayUntil(user -> evictCachedUser(user.getLogin()))
+            .delayUntil(user -> refreshTokenService.revokeAll(user.getLogin()))
             .doOnNext(user -> LOG.debug("Deleted User: {}", user))
             .then();
     }
@@ -263,7 +301,8 @@ public class UserService {
                         Flux.fromIterable(user.getAuthorities())
                             .flatMap(authority -> userRepository.saveUserAuthority(savedUser.getId(), authority.getName()))
                             .then(Mono.just(savedUser))
-                    );
+                    )
+                    .delayUntil(savedUser -> evictCachedUser(savedUser.getLogin()));
             });
     }
 
@@ -271,17 +310,19 @@ public class UserService {
     public Mono<Void> changePassword(String currentClearTextPassword, String newPassword) {
         return SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .publishOn(Schedulers.boundedElastic())
-            .map(user -> {
-                String currentEncryptedPassword = user.getPassword();
-                if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
-                    throw new InvalidPasswordException();
-                }
-                String encryptedPassword = passwordEncoder.encode(newPassword);
-                user.setPassword(encryptedPassword);
-                return user;
-            })
+            .flatMap(user ->
+                passwordHashingService.run(() -> {
+                    String currentEncryptedPassword = user.getPassword();
+                    if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
+                        throw new InvalidPasswordException();
+                    }
+                    String encryptedPassword = passwordEncoder.encode(newPassword);
+                    user.setPassword(encryptedPassword);
+                    return user;
+                })
+            )
             .flatMap(this::saveUser)
+            .delayUntil(user -> refreshTokenService.revokeAll(user.getLogin()))
             .doOnNext(user -> LOG.debug("Changed password for User: {}", user))
             .then();
     }
@@ -301,6 +342,15 @@ public class UserService {
         return userRepository.count();
     }
 
+    /**
+     * Estimate the count of users from the statistics of the database. Small counts are exact.
+     * @return the estimated count of users.
+     */
+    @Transactional(readOnly = true)
+    public Mono<RowCount> estimateManagedUsersCount() {
+        return rowCountEstimator.estimateOrCount(rowCountEstimator.estimateTable("jhi_user"), userRepository.count());
+    }
+
     @Transactional(readOnly = true)
     public Mono<User> getUserWithAuthoritiesByLogin(String login) {
         return userRepository.findOneWithAuthoritiesByLogin(login);
@@ -308,7 +358,7 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public Mono<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        return SecurityUtils.getCurrentUserLogin().flatMap(login -> userCache.get(login, userRepository::findOneWithAuthoritiesByLogin));
     }
 
     /**
@@ -328,6 +378,7 @@ public class UserService {
                 LocalDateTime.ofInstant(Instant.now().minus(3, ChronoUnit.DAYS), ZoneOffset.UTC)
             )
             .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .delayUntil(user -> evictCachedUser(user.getLogin()))
             .doOnNext(user -> LOG.debug("Deleted User: {}", user));
     }
 
@@ -337,6 +388,10 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Flux<String> getAuthorities() {
-        return authorityRepository.findAll().map(Authority::getName);
+        return referenceDataCache.authorities().findAll().map(Authority::getName);
+    }
+
+    private Mono<Void> evictCachedUser(String login) {
+        return cacheInvalidationBus.invalidate(CacheInvalidationEvent.user(login));
     }
 }
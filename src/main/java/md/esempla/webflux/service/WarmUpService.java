@@ -0,0 +1,159 @@
+package md.esempla.webflux.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.Comment;
+import md.esempla.webflux.domain.Post;
+import md.esempla.webflux.domain.PostStatus;
+import md.esempla.webflux.domain.criteria.CommentCriteria;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import md.esempla.webflux.repository.CommentRepository;
+import md.esempla.webflux.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Warms the application up before it is reported ready, see the {@code warmUp} health indicator of
+ * {@link md.esempla.webflux.config.WarmUpConfiguration}.
+ * <p>
+ * The R2DBC pool is opened to its initial size, each query shape of the post and comment repositories is executed
+ * (so that the SQL rendering, the statement caches and the JIT get exercised) and representative payloads are serialized
+ * (so that Jackson builds its serializers), for the configured number of iterations or until the time budget runs out.
+ */
+@Service
+public class WarmUpService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WarmUpService.class);
+
+    private static final Pageable PAGEABLE = PageRequest.of(0, 20, Sort.by("id"));
+
+    private final ApplicationProperties.WarmUp properties;
+
+    private final ConnectionFactory connectionFactory;
+
+    private final PostRepository postRepository;
+
+    private final CommentRepository commentRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean complete;
+
+    public WarmUpService(
+        ApplicationProperties applicationProperties,
+        ConnectionFactory connectionFactory,
+        PostRepository postRepository,
+        CommentRepository commentRepository,
+        ObjectMapper objectMapper
+    ) {
+        this.properties = applicationProperties.getWarmUp();
+        this.connectionFactory = connectionFactory;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            complete = true;
+            return;
+        }
+        warmUp().subscribe();
+    }
+
+    /**
+     * @return {@code true} once the warm-up has completed, failed or run out of time.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    Mono<Void> warmUp() {
+        long start = System.nanoTime();
+        AtomicInteger iterations = new AtomicInteger();
+        return warmUpPool()
+            .thenMany(
+                Flux.range(0, properties.getIterations()).concatMap(i ->
+                    executeQueryShapes().then(Mono.fromRunnable(this::serializePayloads)).doOnSuccess(v -> iterations.incrementAndGet())
+                )
+            )
+            .take(properties.getTimeBudget())
+            .then()
+            .doOnError(e -> LOG.warn("Warm-up failed: {}", e.getMessage()))
+            .onErrorComplete()
+            .doOnTerminate(() -> {
+                complete = true;
+                LOG.info(
+                    "Warm-up completed {} of {} iterations in {} ms",
+                    iterations.get(),
+                    properties.getIterations(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis()
+                );
+            });
+    }
+
+    private Mono<Void> warmUpPool() {
+        Object target = connectionFactory;
+        while (!(target instanceof ConnectionPool) && target instanceof Wrapped<?> wrapped) {
+            target = wrapped.unwrap();
+        }
+        if (target instanceof ConnectionPool pool) {
+            return pool.warmup().doOnNext(connections -> LOG.debug("Opened {} pooled connections", connections)).then();
+        }
+        return Mono.empty();
+    }
+
+    private Mono<Void> executeQueryShapes() {
+        PostCriteria postCriteria = new PostCriteria();
+        postCriteria.title().setContains("warm-up");
+        postCriteria.postStatusId().setEquals(0L);
+        CommentCriteria commentCriteria = new CommentCriteria();
+        commentCriteria.content().setContains("warm-up");
+        commentCriteria.postId().setEquals(0L);
+        return Flux.concat(
+            postRepository.findByCriteria(new PostCriteria(), PAGEABLE).then(),
+            postRepository.findByCriteria(postCriteria, PAGEABLE).then(),
+            postRepository.findSummariesByCriteria(new PostCriteria(), PAGEABLE).then(),
+            postRepository.countByCriteria(postCriteria).then(),
+            postRepository.findById(0L).then(),
+            commentRepository.findByCriteria(new CommentCriteria(), PAGEABLE).then(),
+            commentRepository.findByCriteria(commentCriteria, PAGEABLE).then(),
+            commentRepository.countByCriteria(commentCriteria).then(),
+            commentRepository.findById(0L).then()
+        ).then();
+    }
+
+    private void serializePayloads() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        PostStatus postStatus = new PostStatus().id(0L).status("warm-up");
+        Post post = new Post().id(0L).title("warm-up").content("warm-up").createTime(now).updateTime(now).postStatus(postStatus);
+        Post summary = new Post().id(0L).title("warm-up").excerpt("warm-up").createTime(now).updateTime(now).postStatus(postStatus);
+        Comment comment = new Comment().id(0L).content("warm-up").createTime(now).post(post);
+        try {
+            objectMapper.writeValueAsBytes(post);
+            objectMapper.writeValueAsBytes(List.of(post, summary));
+            objectMapper.writeValueAsBytes(comment);
+            objectMapper.writeValueAsBytes(List.of(comment));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the warm-up payloads", e);
+        }
+    }
+}
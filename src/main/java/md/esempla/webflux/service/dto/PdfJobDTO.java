@@ -0,0 +1,123 @@
+package md.esempla.webflux.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO representing the state of a PDF export running in the background.
+ */
+public class PdfJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private String id;
+
+    private Status status;
+
+    private long rows;
+
+    private Long totalRows;
+
+    private boolean truncated;
+
+    private Instant createdDate;
+
+    private Instant completedDate;
+
+    private Instant expiryDate;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the number of rows read so far.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * @return the number of rows to export, once the job is running.
+     */
+    public Long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(Long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getCompletedDate() {
+        return completedDate;
+    }
+
+    public void setCompletedDate(Instant completedDate) {
+        this.completedDate = completedDate;
+    }
+
+    /**
+     * @return the date after which the job and its result are deleted, once the job is finished.
+     */
+    public Instant getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(Instant expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PdfJobDTO{" +
+            "id='" + id + '\'' +
+            ", status=" + status +
+            ", rows=" + rows +
+            ", totalRows=" + totalRows +
+            ", truncated=" + truncated +
+            ", createdDate=" + createdDate +
+            ", completedDate=" + completedDate +
+            ", expiryDate=" + expiryDate +
+            "}";
+    }
+}
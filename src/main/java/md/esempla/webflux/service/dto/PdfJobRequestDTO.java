@@ -0,0 +1,57 @@
+package md.esempla.webflux.service.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import java.io.Serializable;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import md.esempla.webflux.service.PostExportService;
+
+/**
+ * A DTO representing a request to export the posts as a PDF in the background.
+ */
+public class PdfJobRequestDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Pattern(regexp = "^[a-z0-9-]+$")
+    private String template = PostExportService.DEFAULT_TEMPLATE;
+
+    private PostCriteria criteria = new PostCriteria();
+
+    @Min(0)
+    private Integer maxRows;
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    public PostCriteria getCriteria() {
+        return criteria;
+    }
+
+    public void setCriteria(PostCriteria criteria) {
+        this.criteria = criteria;
+    }
+
+    public Integer getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(Integer maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PdfJobRequestDTO{" +
+            "template='" + template + '\'' +
+            ", criteria=" + criteria +
+            ", maxRows=" + maxRows +
+            "}";
+    }
+}
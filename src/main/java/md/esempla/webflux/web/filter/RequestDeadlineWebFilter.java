@@ -0,0 +1,99 @@
+package md.esempla.webflux.web.filter;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.RequestDeadlineMetersService;
+import md.esempla.webflux.repository.RequestDeadline;
+import md.esempla.webflux.repository.RequestDeadlineExceededException;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gives every API request a deadline, taken from the {@value #TIMEOUT_HEADER} header (in milliseconds) or from the
+ * per-endpoint defaults of {@link ApplicationProperties.Deadline}.
+ * <p>
+ * The deadline is carried in the Reactor context as a {@link RequestDeadline}, so that database statements can be bounded by it,
+ * and the request is aborted with a {@link RequestDeadlineExceededException} once it expires. The deadline only bounds the work
+ * done before the response is committed: once it is, no error response can be written anymore, and the body (like a large
+ * download to a slow client) is left to complete.
+ */
+public class RequestDeadlineWebFilter implements WebFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final ApplicationProperties.Deadline properties;
+
+    private final RequestDeadlineMetersService metersService;
+
+    private final List<Map.Entry<String, Duration>> endpointTimeouts;
+
+    public RequestDeadlineWebFilter(ApplicationProperties.Deadline properties, RequestDeadlineMetersService metersService) {
+        this.properties = properties;
+        this.metersService = metersService;
+        this.endpointTimeouts = properties
+            .getEndpoints()
+            .entrySet()
+            .stream()
+            .sorted(Comparator.comparingInt((Map.Entry<String, Duration> e) -> e.getKey().length()).reversed())
+            .map(e -> Map.entry(e.getKey(), e.getValue()))
+            .toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Duration timeout = resolveTimeout(exchange.getRequest());
+        if (timeout == null) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        Mono<Long> deadline = Mono.delay(timeout).filter(tick -> !response.isCommitted()).switchIfEmpty(Mono.never());
+        return chain
+            .filter(exchange)
+            .timeout(
+                deadline,
+                Mono.defer(() -> {
+                    metersService.trackRequestDeadlineExceeded();
+                    return Mono.error(new RequestDeadlineExceededException("Request did not complete within " + timeout.toMillis() + " ms"));
+                })
+            )
+            .contextWrite(RequestDeadline.startingNow(timeout));
+    }
+
+    Duration resolveTimeout(ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        if (!properties.isEnabled() || !path.startsWith("/api/")) {
+            return null;
+        }
+        Duration requested = parseTimeoutHeader(request.getHeaders().getFirst(TIMEOUT_HEADER));
+        if (requested != null) {
+            return properties.getMaxTimeout() != null && requested.compareTo(properties.getMaxTimeout()) > 0
+                ? properties.getMaxTimeout()
+                : requested;
+        }
+        for (Map.Entry<String, Duration> endpoint : endpointTimeouts) {
+            if (path.startsWith(endpoint.getKey())) {
+                return endpoint.getValue();
+            }
+        }
+        return properties.getDefaultTimeout();
+    }
+
+    private static Duration parseTimeoutHeader(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(value.trim());
+            return millis > 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
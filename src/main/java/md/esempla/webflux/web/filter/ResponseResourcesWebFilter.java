@@ -0,0 +1,55 @@
+package md.esempla.webflux.web.filter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Closes the resources which a response holds on to once it has been written, or once the client has gone away.
+ * <p>
+ * A handler returning a file, like a cached PDF, hands it over to the response writer, which sends it with zero-copy transfer
+ * after the handler has returned. The handler registers what keeps the file alive with {@link #closeAfterResponse}, so that it
+ * is only let go of when the transfer has ended.
+ */
+public class ResponseResourcesWebFilter implements WebFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseResourcesWebFilter.class);
+
+    private static final String RESOURCES_ATTRIBUTE = ResponseResourcesWebFilter.class.getName() + ".resources";
+
+    /**
+     * Close a resource once the response of the exchange has been written.
+     *
+     * @param exchange the current exchange.
+     * @param resource the resource held on to by the response.
+     * @throws IllegalStateException if the exchange does not go through this filter.
+     */
+    public static void closeAfterResponse(ServerWebExchange exchange, AutoCloseable resource) {
+        List<AutoCloseable> resources = exchange.getAttribute(RESOURCES_ATTRIBUTE);
+        if (resources == null) {
+            close(resource);
+            throw new IllegalStateException("The response resources are not tracked for " + exchange.getRequest().getPath());
+        }
+        resources.add(resource);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        List<AutoCloseable> resources = new CopyOnWriteArrayList<>();
+        exchange.getAttributes().put(RESOURCES_ATTRIBUTE, resources);
+        return chain.filter(exchange).doFinally(signal -> resources.forEach(ResponseResourcesWebFilter::close));
+    }
+
+    private static void close(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            LOG.warn("Could not close {}: {}", resource, e.getMessage());
+        }
+    }
+}
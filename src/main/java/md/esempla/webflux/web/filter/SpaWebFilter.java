@@ -8,17 +8,18 @@ import reactor.core.publisher.Mono;
 public class SpaWebFilter implements WebFilter {
 
     /**
-     * Forwards any unmapped paths (except those containing a period) to the client {@code index.html}.
+     * Forwards any unmapped paths (except those containing a period) to the client {@code index.html}, which is served from
+     * memory by the {@link StaticAssetsWebFilter}.
      */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String path = exchange.getRequest().getURI().getPath();
         if (
+            path.startsWith("/") &&
             !path.startsWith("/api") &&
             !path.startsWith("/management") &&
             !path.startsWith("/v3/api-docs") &&
-            !path.contains(".") &&
-            path.matches("/(.*)")
+            path.indexOf('.') < 0
         ) {
             return chain.filter(exchange.mutate().request(exchange.getRequest().mutate().path("/index.html").build()).build());
         }
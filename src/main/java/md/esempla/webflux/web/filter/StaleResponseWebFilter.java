@@ -0,0 +1,176 @@
+package md.esempla.webflux.web.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.StaleResponseMetersService;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the last successful JSON response of the read endpoints listed in {@link ApplicationProperties.DatabaseCircuitBreaker.StaleCache}
+ * in a bounded local cache, and serves it with {@code Warning} and {@code Age} headers while the database circuit breaker is open.
+ * <p>
+ * Requests without a cached response go through and fail fast with a {@code 503 (Service Unavailable)}.
+ */
+public class StaleResponseWebFilter implements WebFilter {
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private static final List<String> CACHED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.LINK, "X-Total-Count");
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final StaleResponseMetersService metersService;
+
+    private final List<String> paths;
+
+    private final long maximumEntrySize;
+
+    private final Cache<String, StaleResponse> responses;
+
+    public StaleResponseWebFilter(
+        ApplicationProperties.DatabaseCircuitBreaker.StaleCache properties,
+        CircuitBreaker circuitBreaker,
+        StaleResponseMetersService metersService
+    ) {
+        this.circuitBreaker = circuitBreaker;
+        this.metersService = metersService;
+        this.paths = List.copyOf(properties.getPaths());
+        this.maximumEntrySize = properties.getMaximumEntrySize().toBytes();
+        this.responses = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaximumSize().toBytes())
+            .weigher((String key, StaleResponse response) -> key.length() + response.body().length)
+            .expireAfterWrite(properties.getMaxAge())
+            .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET || !isCachedPath(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        String key = cacheKey(request);
+        if (isOpen()) {
+            StaleResponse stale = responses.getIfPresent(key);
+            if (stale != null) {
+                metersService.trackStaleResponseServed();
+                return writeStale(exchange.getResponse(), stale);
+            }
+            metersService.trackStaleResponseMissed();
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().response(new RecordingResponse(exchange.getResponse(), key)).build());
+    }
+
+    private boolean isCachedPath(String path) {
+        return paths.stream().anyMatch(path::startsWith);
+    }
+
+    private boolean isOpen() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String accept = MediaType.toString(request.getHeaders().getAccept());
+        return accept + ' ' + request.getURI().getRawPath() + (query != null ? '?' + query : "");
+    }
+
+    private static Mono<Void> writeStale(ServerHttpResponse response, StaleResponse stale) {
+        long age = Math.max(0, Duration.between(stale.storedAt(), Instant.now()).toSeconds());
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().addAll(stale.headers());
+        response.getHeaders().set(HttpHeaders.WARNING, STALE_WARNING);
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(age));
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(stale.body())));
+    }
+
+    private record StaleResponse(byte[] body, HttpHeaders headers, Instant storedAt) {}
+
+    private class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+
+        RecordingResponse(ServerHttpResponse delegate, String key) {
+            super(delegate);
+            this.key = key;
+        }
+
+        /**
+         * The body goes through as it is written, while a copy of it is kept as long as it fits in an entry.
+         */
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isRecordable()) {
+                return super.writeWith(body);
+            }
+            Recording recording = new Recording();
+            if (body instanceof Mono<? extends DataBuffer> mono) {
+                return super.writeWith(mono.doOnNext(recording::append).doOnSuccess(buffer -> recording.record()));
+            }
+            return super.writeWith(Flux.from(body).doOnNext(recording::append).doOnComplete(recording::record));
+        }
+
+        private boolean isRecordable() {
+            MediaType contentType = getHeaders().getContentType();
+            return (
+                (getStatusCode() == null || getStatusCode().isSameCodeAs(HttpStatus.OK)) &&
+                contentType != null &&
+                contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+            );
+        }
+
+        private class Recording {
+
+            private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+            void append(DataBuffer buffer) {
+                int size = buffer.readableByteCount();
+                if (copy == null || copy.size() + (long) size > maximumEntrySize) {
+                    copy = null;
+                    return;
+                }
+                byte[] bytes = new byte[size];
+                int position = buffer.readPosition();
+                buffer.read(bytes);
+                buffer.readPosition(position);
+                copy.writeBytes(bytes);
+            }
+
+            void record() {
+                if (copy == null) {
+                    responses.invalidate(key);
+                    return;
+                }
+                HttpHeaders headers = new HttpHeaders();
+                CACHED_HEADERS.forEach(name -> {
+                    List<String> values = getHeaders().get(name);
+                    if (values != null) {
+                        headers.put(name, values);
+                    }
+                });
+                responses.put(key, new StaleResponse(copy.toByteArray(), headers, Instant.now()));
+            }
+        }
+    }
+}
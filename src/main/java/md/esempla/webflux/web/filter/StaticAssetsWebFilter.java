@@ -0,0 +1,198 @@
+package md.esempla.webflux.web.filter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the files of the Angular bundle indexed at startup, ahead of the resource handler.
+ * <p>
+ * The files whose name carries a content hash never change, so they are served with an {@code immutable} far-future
+ * {@code Cache-Control}. A file with a {@code .br} or {@code .gz} sibling is served precompressed to the clients accepting
+ * that encoding. {@code index.html}, which {@link SpaWebFilter} forwards every client route to, is kept in memory with an
+ * {@code ETag} of its content, so that the browsers revalidate it instead of downloading it again.
+ * <p>
+ * The other files go through to the resource handler, as do all the requests when no bundle was built.
+ */
+public class StaticAssetsWebFilter implements WebFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StaticAssetsWebFilter.class);
+
+    static final String INDEX_PATH = "/index.html";
+
+    private static final String IDENTITY = "identity";
+
+    /**
+     * The encodings of the siblings, by order of preference.
+     */
+    private static final Map<String, String> ENCODINGS = new LinkedHashMap<>();
+
+    static {
+        ENCODINGS.put("br", ".br");
+        ENCODINGS.put("gzip", ".gz");
+    }
+
+    private final Map<String, Asset> assets;
+
+    public StaticAssetsWebFilter(ApplicationProperties.StaticAssets properties) {
+        this.assets = properties.isEnabled() ? index(properties) : Map.of();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (method != HttpMethod.GET && method != HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+        Asset asset = assets.get(request.getPath().pathWithinApplication().value());
+        if (asset == null) {
+            return chain.filter(exchange);
+        }
+        return write(exchange, asset, asset.select(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, Asset asset, Variant variant) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        if (asset.variants().size() > 1) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (asset.cacheControl() != null) {
+            headers.setCacheControl(asset.cacheControl());
+        }
+        if (variant.etag() != null && exchange.checkNotModified(variant.etag())) {
+            return response.setComplete();
+        }
+        headers.setContentType(asset.contentType());
+        if (!variant.encoding().equals(IDENTITY)) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, variant.encoding());
+        }
+        headers.setContentLength(variant.length());
+        if (exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return response.setComplete();
+        }
+        if (variant.content() != null) {
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(variant.content())));
+        }
+        return response.writeWith(DataBufferUtils.read(variant.resource(), response.bufferFactory(), 8192));
+    }
+
+    /**
+     * Index the hashed files, the files with precompressed siblings, and {@code index.html}, by request path.
+     */
+    private static Map<String, Asset> index(ApplicationProperties.StaticAssets properties) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        try {
+            Resource root = resolver.getResource(properties.getLocation());
+            if (!root.exists()) {
+                LOG.debug("No static assets in {}", properties.getLocation());
+                return Map.of();
+            }
+            String base = root.getURL().toString();
+            Map<String, Resource> files = new HashMap<>();
+            for (Resource resource : resolver.getResources(properties.getLocation() + "**")) {
+                String url = resource.getURL().toString();
+                if (url.startsWith(base) && !url.endsWith("/") && resource.isReadable()) {
+                    files.put("/" + url.substring(base.length()), resource);
+                }
+            }
+            Pattern hashedFile = Pattern.compile(properties.getHashedFilePattern());
+            String immutable = CacheControl.maxAge(properties.getImmutableMaxAge()).cachePublic().immutable().getHeaderValue();
+            Map<String, Asset> assets = new HashMap<>();
+            int hashed = 0;
+            for (Map.Entry<String, Resource> file : files.entrySet()) {
+                String path = file.getKey();
+                boolean isIndex = path.equals(INDEX_PATH);
+                boolean isHashed = hashedFile.matcher(path.substring(path.lastIndexOf('/') + 1)).matches();
+                Map<String, Variant> variants = new LinkedHashMap<>();
+                for (Map.Entry<String, String> encoding : ENCODINGS.entrySet()) {
+                    Resource sibling = files.get(path + encoding.getValue());
+                    if (sibling != null) {
+                        variants.put(encoding.getKey(), variant(encoding.getKey(), sibling, isIndex));
+                    }
+                }
+                if (isIndex || isHashed || !variants.isEmpty()) {
+                    variants.put(IDENTITY, variant(IDENTITY, file.getValue(), isIndex));
+                    MediaType contentType = MediaTypeFactory.getMediaType(path).orElse(MediaType.APPLICATION_OCTET_STREAM);
+                    // index.html is revalidated with its ETag, the other files keep the headers of the resource handler
+                    String cacheControl = isHashed ? immutable : isIndex ? CacheControl.noCache().getHeaderValue() : null;
+                    assets.put(path, new Asset(contentType, cacheControl, variants));
+                    hashed += isHashed ? 1 : 0;
+                }
+            }
+            LOG.info("Indexed {} static assets, {} of them hashed, in {}", assets.size(), hashed, properties.getLocation());
+            return Map.copyOf(assets);
+        } catch (IOException e) {
+            LOG.warn(
+                "Could not index the static assets in {}, leaving them to the resource handler: {}",
+                properties.getLocation(),
+                e.toString()
+            );
+            return Map.of();
+        }
+    }
+
+    /**
+     * The variants of {@code index.html} are kept in memory, with an {@code ETag}; the others are read from their resource.
+     */
+    private static Variant variant(String encoding, Resource resource, boolean inMemory) throws IOException {
+        if (!inMemory) {
+            return new Variant(encoding, resource, resource.contentLength(), null, null);
+        }
+        byte[] content = resource.getContentAsByteArray();
+        return new Variant(encoding, null, content.length, content, "\"" + DigestUtils.md5DigestAsHex(content) + "\"");
+    }
+
+    /**
+     * @param variants the variants by encoding, by order of preference, ending with the identity.
+     */
+    private record Asset(MediaType contentType, String cacheControl, Map<String, Variant> variants) {
+        Variant select(List<String> acceptEncoding) {
+            if (acceptEncoding != null) {
+                for (Variant variant : variants.values()) {
+                    if (!variant.encoding().equals(IDENTITY) && accepts(acceptEncoding, variant.encoding())) {
+                        return variant;
+                    }
+                }
+            }
+            return variants.get(IDENTITY);
+        }
+
+        private static boolean accepts(List<String> acceptEncoding, String encoding) {
+            for (String header : acceptEncoding) {
+                for (String coding : header.split(",")) {
+                    int parameters = coding.indexOf(';');
+                    String name = (parameters < 0 ? coding : coding.substring(0, parameters)).trim();
+                    if (name.equalsIgnoreCase(encoding)) {
+                        return parameters < 0 || !coding.substring(parameters + 1).trim().matches("q=0(\\.0*)?");
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Variant(String encoding, Resource resource, long length, byte[] content, String etag) {}
+}
@@ -3,13 +3,21 @@ package md.esempla.webflux.web.rest;
 import static md.esempla.webflux.security.SecurityUtils.AUTHORITIES_KEY;
 import static md.esempla.webflux.security.SecurityUtils.JWT_ALGORITHM;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.Valid;
+import java.net.InetSocketAddress;
 import java.security.Principal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.security.TokenRevocationList;
+import md.esempla.webflux.service.LoginThrottlingService;
+import md.esempla.webflux.service.RefreshTokenService;
 import md.esempla.webflux.web.rest.vm.LoginVM;
+import md.esempla.webflux.web.rest.vm.RefreshTokenVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,11 +25,15 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -47,24 +59,100 @@ public class AuthenticateController {
 
     private final ReactiveAuthenticationManager authenticationManager;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, ReactiveAuthenticationManager authenticationManager) {
+    private final LoginThrottlingService loginThrottlingService;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final ReactiveUserDetailsService userDetailsService;
+
+    private final ApplicationProperties.RefreshTokens refreshTokens;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        ReactiveAuthenticationManager authenticationManager,
+        LoginThrottlingService loginThrottlingService,
+        RefreshTokenService refreshTokenService,
+        ReactiveUserDetailsService userDetailsService,
+        ApplicationProperties applicationProperties,
+        TokenRevocationList tokenRevocationList
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManager = authenticationManager;
+        this.loginThrottlingService = loginThrottlingService;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsService = userDetailsService;
+        this.refreshTokens = applicationProperties.getRefreshTokens();
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     @PostMapping("/authenticate")
-    public Mono<ResponseEntity<JWTToken>> authorize(@Valid @RequestBody Mono<LoginVM> loginVM) {
+    public Mono<ResponseEntity<JWTToken>> authorize(@Valid @RequestBody Mono<LoginVM> loginVM, ServerHttpRequest request) {
         return loginVM
+            // Reject the attempts over the limits of their login or address before any lookup or hashing
+            .doOnNext(login -> loginThrottlingService.acquire(login.getUsername(), clientAddress(request)))
             .flatMap(login ->
                 authenticationManager
                     .authenticate(new UsernamePasswordAuthenticationToken(login.getUsername(), login.getPassword()))
-                    .flatMap(auth -> Mono.fromCallable(() -> this.createToken(auth, login.isRememberMe())))
+                    .flatMap(auth -> {
+                        Mono<String> jwt = Mono.fromCallable(() -> this.createToken(auth, login.isRememberMe()));
+                        if (!refreshTokens.isEnabled()) {
+                            return jwt.map(idToken -> new JWTToken(idToken, null));
+                        }
+                        return jwt.zipWith(refreshTokenService.issue(auth.getName(), login.isRememberMe()), (idToken, refreshToken) ->
+                            new JWTToken(idToken, refreshToken.value())
+                        );
+                    })
             )
-            .map(jwt -> {
-                HttpHeaders httpHeaders = new HttpHeaders();
-                httpHeaders.setBearerAuth(jwt);
-                return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
-            });
+            .map(AuthenticateController::toResponse);
+    }
+
+    /**
+     * {@code POST /authenticate/refresh} : exchange a refresh token for a new access token and the next refresh token, without
+     * verifying the password of the user again.
+     *
+     * @param refreshTokenVM the refresh token.
+     * @return the new tokens, or status {@code 401 (Unauthorized)} if the refresh token is unknown, expired or already used.
+     */
+    @PostMapping("/authenticate/refresh")
+    public Mono<ResponseEntity<JWTToken>> refresh(@Valid @RequestBody Mono<RefreshTokenVM> refreshTokenVM) {
+        if (!refreshTokens.isEnabled()) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return refreshTokenVM
+            .flatMap(vm -> refreshTokenService.rotate(vm.getRefreshToken()))
+            .flatMap(refreshToken ->
+                // Load the current authorities, and check the user is still activated
+                userDetailsService
+                    .findByUsername(refreshToken.login())
+                    .map(user -> UsernamePasswordAuthenticationToken.authenticated(user.getUsername(), null, user.getAuthorities()))
+                    .map(auth -> new JWTToken(this.createToken(auth, false), refreshToken.value()))
+            )
+            .map(AuthenticateController::toResponse);
+    }
+
+    /**
+     * {@code POST /authenticate/revoke} : revoke the access token of the request before its expiry, along with the family of
+     * the given refresh token, if any.
+     *
+     * @param jwt the access token of the request.
+     * @param refreshTokenVM the refresh token to revoke, if any.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/authenticate/revoke")
+    public Mono<ResponseEntity<Void>> revoke(
+        @AuthenticationPrincipal Jwt jwt,
+        @RequestBody(required = false) Mono<RefreshTokenVM> refreshTokenVM
+    ) {
+        LOG.debug("REST request to revoke the tokens of {}", jwt.getSubject());
+        Mono<Void> accessToken = jwt.getId() == null
+            ? Mono.empty()
+            : tokenRevocationList.revoke(jwt.getId(), jwt.getSubject(), jwt.getExpiresAt());
+        Mono<Void> refreshToken = refreshTokenVM
+            .filter(vm -> vm.getRefreshToken() != null)
+            .flatMap(vm -> refreshTokenService.revoke(vm.getRefreshToken()));
+        return accessToken.then(refreshToken).thenReturn(ResponseEntity.noContent().build());
     }
 
     /**
@@ -79,12 +167,26 @@ public class AuthenticateController {
         return principal == null ? null : principal.getName();
     }
 
+    private static ResponseEntity<JWTToken> toResponse(JWTToken token) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setBearerAuth(token.getIdToken());
+        return new ResponseEntity<>(token, httpHeaders, HttpStatus.OK);
+    }
+
+    private static String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress == null || remoteAddress.getAddress() == null ? null : remoteAddress.getAddress().getHostAddress();
+    }
+
     public String createToken(Authentication authentication, boolean rememberMe) {
         String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(" "));
 
         Instant now = Instant.now();
         Instant validity;
-        if (rememberMe) {
+        if (refreshTokens.isEnabled()) {
+            // The session is held by the refresh token, so the access token can be short-lived
+            validity = now.plus(refreshTokens.getAccessTokenValidity());
+        } else if (rememberMe) {
             validity = now.plus(this.tokenValidityInSecondsForRememberMe, ChronoUnit.SECONDS);
         } else {
             validity = now.plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS);
@@ -92,6 +194,7 @@ public class AuthenticateController {
 
         // @formatter:off
         JwtClaimsSet claims = JwtClaimsSet.builder()
+            .id(UUID.randomUUID().toString())
             .issuedAt(now)
             .expiresAt(validity)
             .subject(authentication.getName())
@@ -109,8 +212,11 @@ public class AuthenticateController {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -121,5 +227,15 @@ public class AuthenticateController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
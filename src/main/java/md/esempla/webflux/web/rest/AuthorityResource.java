@@ -6,6 +6,9 @@ import java.net.URISyntaxException;
 import java.util.List;
 import md.esempla.webflux.domain.Authority;
 import md.esempla.webflux.repository.AuthorityRepository;
+import md.esempla.webflux.repository.CacheInvalidationBus;
+import md.esempla.webflux.repository.CacheInvalidationEvent;
+import md.esempla.webflux.repository.ReferenceDataCache;
 import md.esempla.webflux.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,8 +40,18 @@ public class AuthorityResource {
 
     private final AuthorityRepository authorityRepository;
 
-    public AuthorityResource(AuthorityRepository authorityRepository) {
+    private final ReferenceDataCache referenceDataCache;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public AuthorityResource(
+        AuthorityRepository authorityRepository,
+        ReferenceDataCache referenceDataCache,
+        CacheInvalidationBus cacheInvalidationBus
+    ) {
         this.authorityRepository = authorityRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     /**
@@ -60,6 +73,7 @@ public class AuthorityResource {
                 }
                 return authorityRepository
                     .save(authority)
+                    .delayUntil(result -> cacheInvalidationBus.invalidate(CacheInvalidationEvent.authority(result.getName())))
                     .map(result -> {
                         try {
                             return ResponseEntity.created(new URI("/api/authorities/" + result.getName()))
@@ -81,7 +95,7 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public Mono<List<Authority>> getAllAuthorities() {
         LOG.debug("REST request to get all Authorities");
-        return authorityRepository.findAll().collectList();
+        return referenceDataCache.authorities().findAll().collectList();
     }
 
     /**
@@ -92,7 +106,7 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public Flux<Authority> getAllAuthoritiesAsStream() {
         LOG.debug("REST request to get all Authorities as a stream");
-        return authorityRepository.findAll();
+        return referenceDataCache.authorities().findAll();
     }
 
     /**
@@ -121,6 +135,8 @@ public class AuthorityResource {
         LOG.debug("REST request to delete Authority : {}", id);
         return authorityRepository
             .deleteById(id)
+            // The deleted authority is also removed from the cached users holding it
+            .then(cacheInvalidationBus.invalidate(CacheInvalidationEvent.authority(id)))
             .then(
                 Mono.just(
                     ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id)).build()
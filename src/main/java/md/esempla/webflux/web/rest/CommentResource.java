@@ -9,6 +9,7 @@ import java.util.Objects;
 import md.esempla.webflux.domain.Comment;
 import md.esempla.webflux.domain.criteria.CommentCriteria;
 import md.esempla.webflux.repository.CommentRepository;
+import md.esempla.webflux.repository.LookaheadPageRequest;
 import md.esempla.webflux.service.CommentService;
 import md.esempla.webflux.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
@@ -22,11 +23,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.ForwardedHeaderUtils;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link md.esempla.webflux.domain.Comment}.
@@ -120,32 +121,64 @@ public class CommentResource {
 
     /**
      * {@code GET  /comments} : get all the comments.
+     * <p>
+     * The response has a weak {@code ETag}, and is answered with {@code 304 (Not Modified)} without reading the comments when
+     * it matches the {@code If-None-Match} header.
+     * <p>
+     * With {@code count=none}, or the {@code Prefer: count=none} header, the comments are neither counted nor versioned:
+     * the response only has the {@code next} and {@code prev} links, and no {@code X-Total-Count} nor {@code ETag}.
      *
      * @param pageable the pagination information.
-     * @param request a {@link ServerHttpRequest} request.
+     * @param exchange the current exchange.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of comments in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of comments in body,
+     * or with status {@code 304 (Not Modified)}.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<ResponseEntity<List<Comment>>> getAllComments(
         CommentCriteria criteria,
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        ServerHttpRequest request
+        ServerWebExchange exchange
     ) {
         LOG.debug("REST request to get Comments by criteria: {}", criteria);
+        ServerHttpRequest request = exchange.getRequest();
+        if (CountMode.of(request) == CountMode.NONE) {
+            return commentService
+                .findByCriteria(criteria, LookaheadPageRequest.of(pageable))
+                .collectList()
+                .map(rows -> SlicePaginationUtil.toSlice(rows, pageable))
+                .map(slice ->
+                    ResponseEntity.ok()
+                        .headers(
+                            SlicePaginationUtil.generateSliceHttpHeaders(
+                                ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
+                                slice
+                            )
+                        )
+                        .body(slice.getContent())
+                );
+        }
         return commentService
-            .countByCriteria(criteria)
-            .zipWith(commentService.findByCriteria(criteria, pageable).collectList())
-            .map(countWithEntities ->
-                ResponseEntity.ok()
-                    .headers(
-                        PaginationUtil.generatePaginationHttpHeaders(
-                            ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
-                            new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+            .findVersionByCriteria(criteria)
+            .flatMap(version -> {
+                String eTag = ETagUtil.weakETag(version);
+                return ETagUtil.<List<Comment>>notModified(exchange, eTag).switchIfEmpty(
+                    commentService
+                        .findByCriteria(criteria, pageable)
+                        .collectList()
+                        .map(entities ->
+                            ResponseEntity.ok()
+                                .eTag(eTag)
+                                .headers(
+                                    PaginationUtil.generatePaginationHttpHeaders(
+                                        ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
+                                        new PageImpl<>(entities, pageable, version.count())
+                                    )
+                                )
+                                .body(entities)
                         )
-                    )
-                    .body(countWithEntities.getT2())
-            );
+                );
+            });
     }
 
     /**
@@ -164,13 +197,24 @@ public class CommentResource {
      * {@code GET  /comments/:id} : get the "id" comment.
      *
      * @param id the id of the comment to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the comment, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the comment,
+     * or with status {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<Comment>> getComment(@PathVariable("id") Long id) {
+    public Mono<ResponseEntity<Comment>> getComment(@PathVariable("id") Long id, ServerWebExchange exchange) {
         LOG.debug("REST request to get Comment : {}", id);
-        Mono<Comment> comment = commentService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(comment);
+        Mono<ResponseEntity<Comment>> comment = commentService
+            .findOneWithVersion(id)
+            .map(versioned -> ResponseEntity.ok().eTag(ETagUtil.weakETag(versioned.version())).body(versioned.entity()));
+        // Only a conditional request is worth probing the version of the comment before reading it
+        Mono<ResponseEntity<Comment>> response = exchange.getRequest().getHeaders().getIfNoneMatch().isEmpty()
+            ? comment
+            : commentService
+                .findVersion(id)
+                .flatMap(version -> ETagUtil.<Comment>notModified(exchange, ETagUtil.weakETag(version)).switchIfEmpty(comment));
+        return response.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
     }
 
     /**
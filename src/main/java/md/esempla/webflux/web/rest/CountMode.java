@@ -0,0 +1,61 @@
+package md.esempla.webflux.web.rest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * How the total of a paginated list is reported, as requested by the client with the {@code count} parameter or with the
+ * {@code Prefer: count=...} header.
+ */
+enum CountMode {
+    /**
+     * The rows are counted, and the total is reported in the {@code X-Total-Count} header. This is the default.
+     */
+    EXACT,
+    /**
+     * The rows are not counted, and only the {@code next} and {@code prev} links are reported.
+     */
+    NONE,
+    /**
+     * The rows are counted by the Postgres planner, or exactly when it estimates only a few of them. The total is reported
+     * in the {@code X-Total-Count} header, and whether it is estimated in the {@code X-Total-Count-Estimated} header.
+     */
+    ESTIMATED;
+
+    static final String PARAMETER = "count";
+
+    static final String ESTIMATED_HEADER = "X-Total-Count-Estimated";
+
+    private static final String PREFER_HEADER = "Prefer";
+
+    private static final String PREFERENCE_PREFIX = PARAMETER + "=";
+
+    /**
+     * @param request the current request.
+     * @return the requested mode, or {@link #EXACT} when none or an unknown one is requested.
+     */
+    static CountMode of(ServerHttpRequest request) {
+        String mode = request.getQueryParams().getFirst(PARAMETER);
+        if (mode == null) {
+            mode = request
+                .getHeaders()
+                .getOrEmpty(PREFER_HEADER)
+                .stream()
+                .flatMap(header -> Arrays.stream(header.split("[,;]")))
+                .map(String::trim)
+                .filter(preference -> preference.startsWith(PREFERENCE_PREFIX))
+                .map(preference -> preference.substring(PREFERENCE_PREFIX.length()))
+                .findFirst()
+                .orElse(null);
+        }
+        if (mode == null) {
+            return EXACT;
+        }
+        return switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "none" -> NONE;
+            case "estimated", "planned" -> ESTIMATED;
+            default -> EXACT;
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package md.esempla.webflux.web.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import md.esempla.webflux.repository.RowSetVersion;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utility class for the weak {@code ETag}s of the REST resources.
+ * <p>
+ * A response carrying an {@code ETag} is answered with a {@code 304 (Not Modified)} by Spring before its body is serialized
+ * when it matches the {@code If-None-Match} of the request. {@link #notModified(ServerWebExchange, String)} checks this
+ * before the body is even read from the database.
+ */
+final class ETagUtil {
+
+    private ETagUtil() {}
+
+    /**
+     * Compute a weak {@code ETag} from the given parts, which together identify the content of a response.
+     *
+     * @param parts the parts of the {@code ETag}.
+     * @return the weak {@code ETag}.
+     */
+    static String weakETag(Object... parts) {
+        String content = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("\n"));
+        return "W/\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Compute a weak {@code ETag} from the version of the rows of a response.
+     *
+     * @param version the version of the rows.
+     * @return the weak {@code ETag}.
+     */
+    static String weakETag(RowSetVersion version) {
+        return weakETag(version.count(), version.version());
+    }
+
+    /**
+     * Check the {@code If-None-Match} header of the request against the given {@code ETag}.
+     *
+     * @param exchange the current exchange.
+     * @param eTag the {@code ETag} of the current content.
+     * @param <X> type of the response body.
+     * @return a {@code 304 (Not Modified)} response if the client has the current content, or an empty {@link Mono}.
+     */
+    static <X> Mono<ResponseEntity<X>> notModified(ServerWebExchange exchange, String eTag) {
+        if (!exchange.checkNotModified(eTag)) {
+            return Mono.empty();
+        }
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+    }
+}
@@ -0,0 +1,38 @@
+package md.esempla.webflux.web.rest;
+
+import md.esempla.webflux.security.AuthoritiesConstants;
+import md.esempla.webflux.security.BCryptCalibration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for inspecting the hashing of the passwords.
+ */
+@RestController
+@RequestMapping("/api/admin/password-hashing")
+public class PasswordHashingResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordHashingResource.class);
+
+    private final BCryptCalibration bCryptCalibration;
+
+    public PasswordHashingResource(BCryptCalibration bCryptCalibration) {
+        this.bCryptCalibration = bCryptCalibration;
+    }
+
+    /**
+     * {@code GET /admin/password-hashing/calibration} : get the BCrypt cost picked at startup.
+     *
+     * @return the {@link BCryptCalibration}, with the verification times measured for each cost.
+     */
+    @GetMapping("/calibration")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public BCryptCalibration getCalibration() {
+        LOG.debug("REST request to get the BCrypt calibration");
+        return bCryptCalibration;
+    }
+}
@@ -0,0 +1,107 @@
+package md.esempla.webflux.web.rest;
+
+import jakarta.validation.Valid;
+import java.net.URI;
+import md.esempla.webflux.security.SecurityUtils;
+import md.esempla.webflux.service.PdfJobService;
+import md.esempla.webflux.service.PostExportService;
+import md.esempla.webflux.service.dto.PdfJobDTO;
+import md.esempla.webflux.service.dto.PdfJobRequestDTO;
+import md.esempla.webflux.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for running the PDF exports in the background.
+ */
+@RestController
+@RequestMapping("/api/pdf/jobs")
+public class PdfJobResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PdfJobResource.class);
+
+    private static final String ENTITY_NAME = "pdfJob";
+
+    private final PdfJobService pdfJobService;
+
+    private final PostExportService postExportService;
+
+    public PdfJobResource(PdfJobService pdfJobService, PostExportService postExportService) {
+        this.pdfJobService = pdfJobService;
+        this.postExportService = postExportService;
+    }
+
+    /**
+     * {@code POST  /pdf/jobs} : start exporting the posts as a PDF.
+     *
+     * @param request the template, criteria and row cap of the export.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the pending job, or with status
+     * {@code 400 (Bad Request)} if the template does not exist, or with status {@code 429 (Too Many Requests)} if the user
+     * already has too many jobs.
+     */
+    @PostMapping("")
+    public Mono<ResponseEntity<PdfJobDTO>> createJob(@Valid @RequestBody PdfJobRequestDTO request) {
+        LOG.debug("REST request to create a PDF job : {}", request);
+        if (!postExportService.templateExists(request.getTemplate())) {
+            throw new BadRequestAlertException("Unknown template", ENTITY_NAME, "templatenotfound");
+        }
+        return SecurityUtils.getCurrentUserLogin()
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED)))
+            .flatMap(login -> pdfJobService.submit(login, request))
+            .map(job -> ResponseEntity.accepted().location(URI.create("/api/pdf/jobs/" + job.getId())).body(job));
+    }
+
+    /**
+     * {@code GET  /pdf/jobs/:id} : get the status and progress of the "id" job.
+     *
+     * @param id the id of the job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}")
+    public Mono<PdfJobDTO> getJob(@PathVariable("id") String id) {
+        LOG.debug("REST request to get PDF job : {}", id);
+        return SecurityUtils.getCurrentUserLogin()
+            .flatMap(login -> pdfJobService.findOne(login, id))
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    /**
+     * {@code GET  /pdf/jobs/:id/content} : download the PDF of the "id" job.
+     * <p>
+     * Byte ranges may be requested, to resume a download. The file is sent with zero-copy transfer when the server supports it.
+     *
+     * @param id the id of the job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} and the PDF in body, or
+     * with status {@code 409 (Conflict)} if the job is not completed, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/content")
+    public Mono<ResponseEntity<Resource>> getJobContent(@PathVariable("id") String id) {
+        LOG.debug("REST request to get the content of PDF job : {}", id);
+        return SecurityUtils.getCurrentUserLogin()
+            .flatMap(login ->
+                pdfJobService
+                    .findOne(login, id)
+                    .flatMap(job ->
+                        job.getStatus() == PdfJobDTO.Status.COMPLETED
+                            ? pdfJobService.findResult(login, id)
+                            : Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "The PDF job is not completed"))
+                    )
+            )
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+            .map(file ->
+                ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"posts.pdf\"")
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .body(new FileSystemResource(file))
+            );
+    }
+}
@@ -1,51 +1,124 @@
 package md.esempla.webflux.web.rest;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import md.esempla.webflux.domain.Post;
-import md.esempla.webflux.service.PdfService;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import md.esempla.webflux.service.PdfExport;
+import md.esempla.webflux.service.PdfResultCache;
+import md.esempla.webflux.service.PostExportService;
 import md.esempla.webflux.service.PostService;
+import md.esempla.webflux.web.filter.ResponseResourcesWebFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequestMapping("/api/pdf")
 public class PdfResource {
 
-    private final PdfService pdfService;
+    private static final Logger LOG = LoggerFactory.getLogger(PdfResource.class);
+
+    private final PostExportService postExportService;
+
     private final PostService postService;
 
-    public PdfResource(PdfService pdfService, PostService postService) {
-        this.pdfService = pdfService;
+    private final PdfResultCache pdfResultCache;
+
+    public PdfResource(PostExportService postExportService, PostService postService, PdfResultCache pdfResultCache) {
+        this.postExportService = postExportService;
         this.postService = postService;
+        this.pdfResultCache = pdfResultCache;
     }
 
+    /**
+     * {@code GET  /pdf/generate} : export the posts as a PDF.
+     * <p>
+     * The posts are streamed from the database by id, and laid out by chunks into a temporary file. When more posts match
+     * than the row cap, the first ones are exported and the {@code X-Export-Truncated} header is set.
+     * <p>
+     * The PDF is cached on disk until the exported posts change, and sent with zero-copy transfer and a strong {@code ETag}.
+     *
+     * @param criteria the criteria which the exported posts should match.
+     * @param maxRows the maximum number of exported posts, capped by the configuration.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the PDF in body, or with status
+     * {@code 304 (Not Modified)}, or with status {@code 429 (Too Many Requests)} if too many PDFs are being rendered.
+     */
     @GetMapping(value = "/generate", produces = MediaType.APPLICATION_PDF_VALUE)
-    public Mono<ResponseEntity<byte[]>> generatePdf() {
+    public Mono<ResponseEntity<Resource>> generatePdf(
+        PostCriteria criteria,
+        @RequestParam(name = "maxRows", required = false) Integer maxRows,
+        ServerWebExchange exchange
+    ) {
+        LOG.debug("REST request to export Posts by criteria: {}", criteria);
+        int rowCap = postExportService.rowCap(maxRows);
         return postService
-            .findByCriteria(null, null)
-            .collectList()
-            .map(posts -> {
-                Map<String, Object> data = new HashMap<>();
-                data.put("posts", posts);
-                return data;
-            })
-            .map(data -> {
-                try {
-                    return pdfService.generatePdfFromTemplate("templates/sample.mustache", data);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            })
-            .map(pdfBytes ->
-                ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=\"posts.pdf\"")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(pdfBytes)
-            );
+            .findVersionByCriteria(criteria)
+            .flatMap(version -> {
+                String key = pdfResultCache.key(PostExportService.DEFAULT_TEMPLATE, criteria, rowCap, version);
+                // The key is a digest of everything the PDF is made of, so it identifies its bytes
+                String eTag = "\"" + key + "\"";
+                return ETagUtil.<Resource>notModified(exchange, eTag).switchIfEmpty(
+                    Mono.justOrEmpty(pdfResultCache.get(key))
+                        .map(pdf -> cachedResponse(exchange, pdf, eTag))
+                        .switchIfEmpty(
+                            postExportService
+                                .exportToPdf(PostExportService.DEFAULT_TEMPLATE, criteria, rowCap, rows -> {})
+                                .publishOn(Schedulers.boundedElastic())
+                                .map(export -> store(exchange, key, export, eTag))
+                        )
+                );
+            });
+    }
+
+    private ResponseEntity<Resource> store(ServerWebExchange exchange, String key, PdfExport export, String eTag) {
+        try {
+            return pdfResultCache
+                .put(key, export)
+                .map(pdf -> cachedResponse(exchange, pdf, eTag))
+                .orElseGet(() -> uncachedResponse(export));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A cached PDF is kept from being deleted until it has been sent.
+     */
+    private static ResponseEntity<Resource> cachedResponse(ServerWebExchange exchange, PdfResultCache.CachedPdf pdf, String eTag) {
+        ResponseResourcesWebFilter.closeAfterResponse(exchange, pdf);
+        return ResponseEntity.ok()
+            .header("Content-Disposition", "attachment; filename=\"posts.pdf\"")
+            .header("X-Export-Truncated", String.valueOf(pdf.truncated()))
+            .eTag(eTag)
+            .contentType(MediaType.APPLICATION_PDF)
+            .body(new FileSystemResource(pdf.file()));
+    }
+
+    /**
+     * A PDF too large to be cached is read once and deleted when it is closed.
+     */
+    private static ResponseEntity<Resource> uncachedResponse(PdfExport export) {
+        try {
+            long size = Files.size(export.file());
+            return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"posts.pdf\"")
+                .header("X-Export-Truncated", String.valueOf(export.truncated()))
+                .contentType(MediaType.APPLICATION_PDF)
+                .contentLength(size)
+                .body(new InputStreamResource(Files.newInputStream(export.file(), StandardOpenOption.DELETE_ON_CLOSE)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Objects;
 import md.esempla.webflux.domain.Post;
 import md.esempla.webflux.domain.criteria.PostCriteria;
+import md.esempla.webflux.repository.LookaheadPageRequest;
 import md.esempla.webflux.repository.PostRepository;
 import md.esempla.webflux.service.PostService;
 import md.esempla.webflux.web.rest.errors.BadRequestAlertException;
@@ -22,11 +23,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.ForwardedHeaderUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link md.esempla.webflux.domain.Post}.
@@ -120,32 +122,87 @@ public class PostResource {
 
     /**
      * {@code GET  /posts} : get all the posts.
+     * <p>
+     * The posts only carry an {@code excerpt} of their content, unless {@code includeContent=true} is requested.
+     * The response has a weak {@code ETag}, and is answered with {@code 304 (Not Modified)} without reading the posts when
+     * it matches the {@code If-None-Match} header.
+     * <p>
+     * With {@code count=none}, or the {@code Prefer: count=none} header, the posts are neither counted nor versioned: the
+     * response only has the {@code next} and {@code prev} links, and no {@code X-Total-Count} nor {@code ETag}.
+     * With {@code count=estimated}, the total is estimated from the statistics of the database, without {@code ETag}.
      *
      * @param pageable the pagination information.
-     * @param request a {@link ServerHttpRequest} request.
+     * @param exchange the current exchange.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of posts in body.
+     * @param includeContent whether the full content of the posts should be returned.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of posts in body,
+     * or with status {@code 304 (Not Modified)}.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<ResponseEntity<List<Post>>> getAllPosts(
         PostCriteria criteria,
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        ServerHttpRequest request
+        ServerWebExchange exchange,
+        @RequestParam(name = "includeContent", required = false, defaultValue = "false") boolean includeContent
     ) {
         LOG.debug("REST request to get Posts by criteria: {}", criteria);
+        ServerHttpRequest request = exchange.getRequest();
+        if (CountMode.of(request) == CountMode.NONE) {
+            return findPosts(criteria, LookaheadPageRequest.of(pageable), includeContent)
+                .collectList()
+                .map(rows -> SlicePaginationUtil.toSlice(rows, pageable))
+                .map(slice ->
+                    ResponseEntity.ok()
+                        .headers(
+                            SlicePaginationUtil.generateSliceHttpHeaders(
+                                ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
+                                slice
+                            )
+                        )
+                        .body(slice.getContent())
+                );
+        }
+        if (CountMode.of(request) == CountMode.ESTIMATED) {
+            return findPosts(criteria, pageable, includeContent)
+                .collectList()
+                .zipWith(postService.estimateCountByCriteria(criteria))
+                .map(entitiesAndCount ->
+                    ResponseEntity.ok()
+                        .headers(
+                            PaginationUtil.generatePaginationHttpHeaders(
+                                ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
+                                new PageImpl<>(entitiesAndCount.getT1(), pageable, entitiesAndCount.getT2().count())
+                            )
+                        )
+                        .header(CountMode.ESTIMATED_HEADER, String.valueOf(entitiesAndCount.getT2().estimated()))
+                        .body(entitiesAndCount.getT1())
+                );
+        }
         return postService
-            .countByCriteria(criteria)
-            .zipWith(postService.findByCriteria(criteria, pageable).collectList())
-            .map(countWithEntities ->
-                ResponseEntity.ok()
-                    .headers(
-                        PaginationUtil.generatePaginationHttpHeaders(
-                            ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
-                            new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+            .findVersionByCriteria(criteria)
+            .flatMap(version -> {
+                String eTag = ETagUtil.weakETag(version);
+                Flux<Post> posts = findPosts(criteria, pageable, includeContent);
+                return ETagUtil.<List<Post>>notModified(exchange, eTag).switchIfEmpty(
+                    posts
+                        .collectList()
+                        .map(entities ->
+                            ResponseEntity.ok()
+                                .eTag(eTag)
+                                .headers(
+                                    PaginationUtil.generatePaginationHttpHeaders(
+                                        ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
+                                        new PageImpl<>(entities, pageable, version.count())
+                                    )
+                                )
+                                .body(entities)
                         )
-                    )
-                    .body(countWithEntities.getT2())
-            );
+                );
+            });
+    }
+
+    private Flux<Post> findPosts(PostCriteria criteria, Pageable pageable, boolean includeContent) {
+        return includeContent ? postService.findByCriteria(criteria, pageable) : postService.findSummariesByCriteria(criteria, pageable);
     }
 
     /**
@@ -164,13 +221,24 @@ public class PostResource {
      * {@code GET  /posts/:id} : get the "id" post.
      *
      * @param id the id of the post to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the post, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the post,
+     * or with status {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<Post>> getPost(@PathVariable("id") Long id) {
+    public Mono<ResponseEntity<Post>> getPost(@PathVariable("id") Long id, ServerWebExchange exchange) {
         LOG.debug("REST request to get Post : {}", id);
-        Mono<Post> post = postService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(post);
+        Mono<ResponseEntity<Post>> post = postService
+            .findOneWithVersion(id)
+            .map(versioned -> ResponseEntity.ok().eTag(ETagUtil.weakETag(versioned.version())).body(versioned.entity()));
+        // Only a conditional request is worth probing the version of the post before reading it
+        Mono<ResponseEntity<Post>> response = exchange.getRequest().getHeaders().getIfNoneMatch().isEmpty()
+            ? post
+            : postService
+                .findVersion(id)
+                .flatMap(version -> ETagUtil.<Post>notModified(exchange, ETagUtil.weakETag(version)).switchIfEmpty(post));
+        return response.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
     }
 
     /**
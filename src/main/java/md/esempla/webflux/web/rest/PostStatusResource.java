@@ -7,7 +7,10 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import md.esempla.webflux.domain.PostStatus;
+import md.esempla.webflux.repository.CacheInvalidationBus;
+import md.esempla.webflux.repository.CacheInvalidationEvent;
 import md.esempla.webflux.repository.PostStatusRepository;
+import md.esempla.webflux.repository.ReferenceDataCache;
 import md.esempla.webflux.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +24,6 @@ import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link md.esempla.webflux.domain.PostStatus}.
@@ -40,8 +42,18 @@ public class PostStatusResource {
 
     private final PostStatusRepository postStatusRepository;
 
-    public PostStatusResource(PostStatusRepository postStatusRepository) {
+    private final ReferenceDataCache referenceDataCache;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public PostStatusResource(
+        PostStatusRepository postStatusRepository,
+        ReferenceDataCache referenceDataCache,
+        CacheInvalidationBus cacheInvalidationBus
+    ) {
         this.postStatusRepository = postStatusRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     /**
@@ -59,6 +71,7 @@ public class PostStatusResource {
         }
         return postStatusRepository
             .save(postStatus)
+            .delayUntil(result -> invalidateCaches(result.getId()))
             .map(result -> {
                 try {
                     return ResponseEntity.created(new URI("/api/post-statuses/" + result.getId()))
@@ -103,6 +116,7 @@ public class PostStatusResource {
                 return postStatusRepository
                     .save(postStatus)
                     .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                    .delayUntil(result -> invalidateCaches(result.getId()))
                     .map(result ->
                         ResponseEntity.ok()
                             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -113,18 +127,25 @@ public class PostStatusResource {
 
     /**
      * {@code GET  /post-statuses} : get all the postStatuses.
+     * <p>
+     * The response has a weak {@code ETag}, and is answered with {@code 304 (Not Modified)} when it matches the
+     * {@code If-None-Match} header.
      *
      * @param filter the filter of the request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of postStatuses in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of postStatuses in body,
+     * or with status {@code 304 (Not Modified)}.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<List<PostStatus>> getAllPostStatuses(@RequestParam(name = "filter", required = false) String filter) {
+    public Mono<ResponseEntity<List<PostStatus>>> getAllPostStatuses(@RequestParam(name = "filter", required = false) String filter) {
+        Flux<PostStatus> postStatuses;
         if ("post-is-null".equals(filter)) {
             LOG.debug("REST request to get all PostStatuss where post is null");
-            return postStatusRepository.findAllWherePostIsNull().collectList();
+            postStatuses = postStatusRepository.findAllWherePostIsNull();
+        } else {
+            LOG.debug("REST request to get all PostStatuses");
+            postStatuses = referenceDataCache.postStatuses().findAll();
         }
-        LOG.debug("REST request to get all PostStatuses");
-        return postStatusRepository.findAll().collectList();
+        return postStatuses.collectList().map(entities -> ResponseEntity.ok().eTag(eTagOf(entities)).body(entities));
     }
 
     /**
@@ -134,20 +155,24 @@ public class PostStatusResource {
     @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
     public Flux<PostStatus> getAllPostStatusesAsStream() {
         LOG.debug("REST request to get all PostStatuses as a stream");
-        return postStatusRepository.findAll();
+        return referenceDataCache.postStatuses().findAll();
     }
 
     /**
      * {@code GET  /post-statuses/:id} : get the "id" postStatus.
      *
      * @param id the id of the postStatus to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the postStatus, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the postStatus,
+     * or with status {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
     public Mono<ResponseEntity<PostStatus>> getPostStatus(@PathVariable("id") Long id) {
         LOG.debug("REST request to get PostStatus : {}", id);
-        Mono<PostStatus> postStatus = postStatusRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(postStatus);
+        return postStatusRepository
+            .findById(id)
+            .map(postStatus -> ResponseEntity.ok().eTag(eTagOf(List.of(postStatus))).body(postStatus))
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
     }
 
     /**
@@ -161,6 +186,7 @@ public class PostStatusResource {
         LOG.debug("REST request to delete PostStatus : {}", id);
         return postStatusRepository
             .deleteById(id)
+            .then(invalidateCaches(id))
             .then(
                 Mono.just(
                     ResponseEntity.noContent()
@@ -169,4 +195,19 @@ public class PostStatusResource {
                 )
             );
     }
+
+    /**
+     * The postStatuses are embedded in the cached lists of posts, which are invalidated along, on all the nodes.
+     */
+    private Mono<Void> invalidateCaches(Long id) {
+        return cacheInvalidationBus.invalidate(CacheInvalidationEvent.postStatus(id));
+    }
+
+    /**
+     * The postStatuses are small and mostly served from the {@link ReferenceDataCache}, so their {@code ETag} is computed
+     * from their content.
+     */
+    private static String eTagOf(List<PostStatus> postStatuses) {
+        return ETagUtil.weakETag(postStatuses.stream().map(postStatus -> postStatus.getId() + "=" + postStatus.getStatus()).toArray());
+    }
 }
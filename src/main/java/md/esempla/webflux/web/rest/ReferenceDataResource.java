@@ -0,0 +1,41 @@
+package md.esempla.webflux.web.rest;
+
+import md.esempla.webflux.repository.ReferenceDataCache;
+import md.esempla.webflux.security.AuthoritiesConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for managing the {@link ReferenceDataCache}.
+ */
+@RestController
+@RequestMapping("/api/admin/reference-data")
+public class ReferenceDataResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReferenceDataResource.class);
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public ReferenceDataResource(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    /**
+     * {@code POST  /admin/reference-data/refresh} : reload the cached post statuses and authorities, for instance after
+     * modifying them directly in the database.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/refresh")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Mono<ResponseEntity<Void>> refreshReferenceData() {
+        LOG.debug("REST request to refresh the reference data");
+        return referenceDataCache.refreshAll().then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
@@ -0,0 +1,68 @@
+package md.esempla.webflux.web.rest;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for the pagination of lists whose rows are not counted.
+ * <p>
+ * The page is read along with the first row of the next page, see
+ * {@link md.esempla.webflux.repository.LookaheadPageRequest}, which tells whether a {@code next} link is reported.
+ */
+final class SlicePaginationUtil {
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private SlicePaginationUtil() {}
+
+    /**
+     * Build the slice of the requested page from the rows read with a {@link md.esempla.webflux.repository.LookaheadPageRequest}.
+     *
+     * @param rows the rows of the page, and the first row of the next page if any.
+     * @param pageable the requested page.
+     * @param <T> type of the rows.
+     * @return the slice.
+     */
+    static <T> Slice<T> toSlice(List<T> rows, Pageable pageable) {
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Generate the pagination headers of a slice: the {@code next} and {@code prev} links, but no {@code X-Total-Count}.
+     *
+     * @param uriBuilder the URI of the request.
+     * @param slice the slice.
+     * @return the pagination headers.
+     */
+    static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(prepareLink(uriBuilder, slice.getNumber() + 1, slice.getSize(), "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(prepareLink(uriBuilder, slice.getNumber() - 1, slice.getSize(), "prev"));
+        }
+        if (!links.isEmpty()) {
+            headers.add(HttpHeaders.LINK, String.join(",", links));
+        }
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        String uri = uriBuilder
+            .replaceQueryParam("page", Integer.toString(pageNumber))
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return MessageFormat.format(HEADER_LINK_FORMAT, uri, relType);
+    }
+}
@@ -10,6 +10,7 @@ import java.util.Collections;
 import java.util.List;
 import md.esempla.webflux.config.Constants;
 import md.esempla.webflux.domain.User;
+import md.esempla.webflux.repository.RowCount;
 import md.esempla.webflux.repository.UserRepository;
 import md.esempla.webflux.security.AuthoritiesConstants;
 import md.esempla.webflux.service.MailService;
@@ -24,6 +25,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -188,6 +190,8 @@ public class UserResource {
 
     /**
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
+     * <p>
+     * With {@code count=estimated}, the total is estimated from the statistics of the database.
      *
      * @param request a {@link ServerHttpRequest} request.
      * @param pageable the pagination information.
@@ -204,15 +208,21 @@ public class UserResource {
             return Mono.just(ResponseEntity.badRequest().build());
         }
 
-        return userService
-            .countManagedUsers()
-            .map(total -> new PageImpl<>(new ArrayList<>(), pageable, total))
-            .map(page ->
-                PaginationUtil.generatePaginationHttpHeaders(
+        boolean estimated = CountMode.of(request) == CountMode.ESTIMATED;
+        Mono<RowCount> count = estimated
+            ? userService.estimateManagedUsersCount()
+            : userService.countManagedUsers().map(total -> new RowCount(total, false));
+        return count
+            .map(total -> {
+                HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(
                     ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
-                    page
-                )
-            )
+                    new PageImpl<>(new ArrayList<>(), pageable, total.count())
+                );
+                if (estimated) {
+                    headers.add(CountMode.ESTIMATED_HEADER, String.valueOf(total.estimated()));
+                }
+                return headers;
+            })
             .map(headers -> ResponseEntity.ok().headers(headers).body(userService.getAllManagedUsers(pageable)));
     }
 
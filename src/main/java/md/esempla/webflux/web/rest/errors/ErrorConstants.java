@@ -6,12 +6,18 @@ public final class ErrorConstants {
 
     public static final String ERR_CONCURRENCY_FAILURE = "error.concurrencyFailure";
     public static final String ERR_VALIDATION = "error.validation";
+    public static final String ERR_DEADLINE_EXCEEDED = "error.deadlineExceeded";
+    public static final String ERR_SERVICE_UNAVAILABLE = "error.serviceUnavailable";
+    public static final String ERR_TOO_MANY_REQUESTS = "error.tooManyRequests";
     public static final String PROBLEM_BASE_URL = "https://www.jhipster.tech/problem";
     public static final URI DEFAULT_TYPE = URI.create(PROBLEM_BASE_URL + "/problem-with-message");
     public static final URI CONSTRAINT_VIOLATION_TYPE = URI.create(PROBLEM_BASE_URL + "/constraint-violation");
     public static final URI INVALID_PASSWORD_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-password");
     public static final URI EMAIL_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/email-already-used");
     public static final URI LOGIN_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/login-already-used");
+    public static final URI DEADLINE_EXCEEDED_TYPE = URI.create(PROBLEM_BASE_URL + "/deadline-exceeded");
+    public static final URI SERVICE_UNAVAILABLE_TYPE = URI.create(PROBLEM_BASE_URL + "/service-unavailable");
+    public static final URI TOO_MANY_REQUESTS_TYPE = URI.create(PROBLEM_BASE_URL + "/too-many-requests");
 
     private ErrorConstants() {}
 }
@@ -2,12 +2,15 @@ package md.esempla.webflux.web.rest.errors;
 
 import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import md.esempla.webflux.repository.RequestDeadlineExceededException;
+import md.esempla.webflux.service.TooManyRequestsException;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
@@ -196,6 +199,9 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler implemen
 
     private URI getMappedType(Throwable err) {
         if (err instanceof MethodArgumentNotValidException) return ErrorConstants.CONSTRAINT_VIOLATION_TYPE;
+        if (err instanceof RequestDeadlineExceededException) return ErrorConstants.DEADLINE_EXCEEDED_TYPE;
+        if (err instanceof CallNotPermittedException) return ErrorConstants.SERVICE_UNAVAILABLE_TYPE;
+        if (err instanceof TooManyRequestsException) return ErrorConstants.TOO_MANY_REQUESTS_TYPE;
         return ErrorConstants.DEFAULT_TYPE;
     }
 
@@ -206,6 +212,12 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler implemen
             return ErrorConstants.ERR_CONCURRENCY_FAILURE;
         } else if (err instanceof WebExchangeBindException) {
             return ErrorConstants.ERR_VALIDATION;
+        } else if (err instanceof RequestDeadlineExceededException) {
+            return ErrorConstants.ERR_DEADLINE_EXCEEDED;
+        } else if (err instanceof CallNotPermittedException) {
+            return ErrorConstants.ERR_SERVICE_UNAVAILABLE;
+        } else if (err instanceof TooManyRequestsException) {
+            return ErrorConstants.ERR_TOO_MANY_REQUESTS;
         }
         return null;
     }
@@ -231,6 +243,9 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler implemen
         if (err instanceof ConcurrencyFailureException) return HttpStatus.CONFLICT;
         if (err instanceof BadCredentialsException) return HttpStatus.UNAUTHORIZED;
         if (err instanceof UsernameNotFoundException) return HttpStatus.UNAUTHORIZED;
+        if (err instanceof RequestDeadlineExceededException) return HttpStatus.GATEWAY_TIMEOUT;
+        if (err instanceof CallNotPermittedException) return HttpStatus.SERVICE_UNAVAILABLE;
+        if (err instanceof TooManyRequestsException) return HttpStatus.TOO_MANY_REQUESTS;
         return null;
     }
 
@@ -240,6 +255,12 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler implemen
     }
 
     private HttpHeaders buildHeaders(Throwable err) {
+        if (err instanceof TooManyRequestsException tooManyRequestsException) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+            headers.set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, tooManyRequestsException.getRetryAfter().toSeconds())));
+            return headers;
+        }
         return err instanceof BadRequestAlertException badRequestAlertException
             ? HeaderUtil.createFailureAlert(
                 applicationName,
@@ -5,6 +5,7 @@ export interface IPost {
   id: number;
   title?: string | null;
   content?: string | null;
+  excerpt?: string | null;
   createTime?: dayjs.Dayjs | null;
   updateTime?: dayjs.Dayjs | null;
   postStatus?: IPostStatus | null;
@@ -0,0 +1,196 @@
+package md.esempla.webflux.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import md.esempla.webflux.security.AuthoritiesConstants;
+import md.esempla.webflux.security.AuthorizationRouteTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorityReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.authorization.DelegatingReactiveAuthorizationManager;
+import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.OrServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcherEntry;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks that {@link SecurityConfiguration#authorizationRoutes()} decides like the former {@code pathMatchers} declarations.
+ */
+class AuthorizationRoutesTest {
+
+    private static final ServerWebExchangeMatcher DECLARED_SECURITY_MATCHER = new NegatedServerWebExchangeMatcher(
+        new OrServerWebExchangeMatcher(pathMatchers("/app/**", "/i18n/**", "/content/**", "/swagger-ui/**"))
+    );
+
+    private static final ReactiveAuthorizationManager<ServerWebExchange> DECLARED_RULES = declaredRules();
+
+    private static final Map<String, Mono<Authentication>> AUTHENTICATIONS = Map.of(
+        "none",
+        Mono.empty(),
+        "anonymous",
+        Mono.just(new AnonymousAuthenticationToken("key", "anonymous", AuthorityUtils.createAuthorityList(AuthoritiesConstants.ANONYMOUS))),
+        "user",
+        Mono.just(new UsernamePasswordAuthenticationToken("user", null, AuthorityUtils.createAuthorityList(AuthoritiesConstants.USER))),
+        "admin",
+        Mono.just(
+            new UsernamePasswordAuthenticationToken(
+                "admin",
+                null,
+                AuthorityUtils.createAuthorityList(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)
+            )
+        )
+    );
+
+    private static final List<String> PATHS = List.of(
+        "",
+        "/",
+        "//",
+        "/.",
+        "/..",
+        "/a.",
+        "/favicon.ico",
+        "/index.html",
+        "/index.html/",
+        "/a.b/c",
+        "/account/settings",
+        "/admin/user-management",
+        "/app",
+        "/app/",
+        "/app/main.js",
+        "/appx/main.js",
+        "/i18n/en.json",
+        "/content/images/logo.png",
+        "/swagger-ui/index.html",
+        "/api",
+        "/api/",
+        "/apix",
+        "/API/account",
+        "/api/account",
+        "/api/account/",
+        "/api//account",
+        "//api/account",
+        "/api;v=1/account",
+        "/api/authenticate",
+        "/api/authenticate/",
+        "/api/authenticate/refresh",
+        "/api/authenticate/revoke",
+        "/api/register",
+        "/api/register/x",
+        "/api/activate",
+        "/api/account/reset-password/init",
+        "/api/account/reset-password/finish",
+        "/api/account/reset-password/other",
+        "/api/admin",
+        "/api/admin/",
+        "/api/admin/users",
+        "/api/%61dmin/users",
+        "/api/admin;x=y/users",
+        "/api/adminx/users",
+        "/services/x/api/users",
+        "/services",
+        "/v3/api-docs",
+        "/v3/api-docs/swagger-config",
+        "/v3/api-docsx",
+        "/management",
+        "/management/health",
+        "/management/health/",
+        "/management/health/liveness",
+        "/management/healthz",
+        "/management/info",
+        "/management/info/",
+        "/management/prometheus",
+        "/management/env",
+        "/management/caches/x"
+    );
+
+    private final AuthorizationRouteTable routes = SecurityConfiguration.authorizationRoutes();
+
+    @Test
+    void testSameRequestsAreLeftOutOfTheSecurityFilterChain() {
+        exchanges().forEach(exchange ->
+            assertThat(routes.securityMatcher().matches(exchange).block().isMatch())
+                .as("%s %s", exchange.getRequest().getMethod(), exchange.getRequest().getURI())
+                .isEqualTo(DECLARED_SECURITY_MATCHER.matches(exchange).block().isMatch())
+        );
+    }
+
+    @Test
+    void testSameAccessIsGranted() {
+        exchanges().forEach(exchange ->
+            AUTHENTICATIONS.forEach((name, authentication) ->
+                assertThat(granted(routes.authorize(authentication, new AuthorizationContext(exchange))))
+                    .as("%s %s as %s", exchange.getRequest().getMethod(), exchange.getRequest().getURI(), name)
+                    .isEqualTo(granted(DECLARED_RULES.authorize(authentication, exchange)))
+            )
+        );
+    }
+
+    private static Stream<ServerWebExchange> exchanges() {
+        return PATHS.stream()
+            .flatMap(path ->
+                Stream.of(HttpMethod.GET, HttpMethod.POST, HttpMethod.DELETE).map(method ->
+                    MockServerWebExchange.from(MockServerHttpRequest.method(method, URI.create("http://localhost" + path)))
+                )
+            );
+    }
+
+    private static boolean granted(Mono<AuthorizationResult> result) {
+        return result.map(AuthorizationResult::isGranted).defaultIfEmpty(false).block();
+    }
+
+    /**
+     * The rules as they were declared with the security DSL.
+     */
+    private static ReactiveAuthorizationManager<ServerWebExchange> declaredRules() {
+        ReactiveAuthorizationManager<AuthorizationContext> permitAll = (authentication, context) ->
+            Mono.just(new AuthorizationDecision(true));
+        ReactiveAuthorizationManager<AuthorizationContext> authenticated = AuthenticatedReactiveAuthorizationManager.authenticated();
+        ReactiveAuthorizationManager<AuthorizationContext> admin = AuthorityReactiveAuthorizationManager.hasAuthority(
+            AuthoritiesConstants.ADMIN
+        );
+        return DelegatingReactiveAuthorizationManager.builder()
+            .add(rule("/", permitAll))
+            .add(rule("/*.*", permitAll))
+            .add(rule("/api/authenticate", permitAll))
+            .add(rule("/api/authenticate/refresh", permitAll))
+            .add(rule("/api/register", permitAll))
+            .add(rule("/api/activate", permitAll))
+            .add(rule("/api/account/reset-password/init", permitAll))
+            .add(rule("/api/account/reset-password/finish", permitAll))
+            .add(rule("/api/admin/**", admin))
+            .add(rule("/api/**", authenticated))
+            .add(rule("/services/**", authenticated))
+            .add(rule("/v3/api-docs/**", admin))
+            .add(rule("/management/health", permitAll))
+            .add(rule("/management/health/**", permitAll))
+            .add(rule("/management/info", permitAll))
+            .add(rule("/management/prometheus", permitAll))
+            .add(rule("/management/**", admin))
+            .build();
+    }
+
+    private static ServerWebExchangeMatcherEntry<ReactiveAuthorizationManager<AuthorizationContext>> rule(
+        String pattern,
+        ReactiveAuthorizationManager<AuthorizationContext> manager
+    ) {
+        return new ServerWebExchangeMatcherEntry<>(pathMatchers(pattern), manager);
+    }
+}
@@ -0,0 +1,59 @@
+package md.esempla.webflux.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheInvalidationMetersServiceTests {
+
+    private static final String LATENCY_METER_EXPECTED_NAME = "cache.invalidation.latency";
+
+    private static final String FLUSHES_METER_EXPECTED_NAME = "cache.invalidation.flushes";
+
+    private static final String PUBLISH_ERRORS_METER_EXPECTED_NAME = "cache.invalidation.publish.errors";
+
+    private MeterRegistry meterRegistry;
+
+    private CacheInvalidationMetersService cacheInvalidationMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        cacheInvalidationMetersService = new CacheInvalidationMetersService(meterRegistry);
+    }
+
+    @Test
+    void testFlushCountersByReasonAreCreated() {
+        meterRegistry.get(FLUSHES_METER_EXPECTED_NAME).tag("reason", "connect").counter();
+
+        meterRegistry.get(FLUSHES_METER_EXPECTED_NAME).tag("reason", "gap").counter();
+
+        assertThat(meterRegistry.find(FLUSHES_METER_EXPECTED_NAME).counters()).hasSize(2);
+    }
+
+    @Test
+    void testTrackMethodsShouldBeBoundToCorrectMeters() {
+        cacheInvalidationMetersService.trackLatency(Duration.ofMillis(20));
+        cacheInvalidationMetersService.trackLatency(Duration.ofMillis(-5));
+
+        assertThat(meterRegistry.get(LATENCY_METER_EXPECTED_NAME).timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(LATENCY_METER_EXPECTED_NAME).timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(20);
+
+        cacheInvalidationMetersService.trackGapFlush();
+
+        assertThat(meterRegistry.get(FLUSHES_METER_EXPECTED_NAME).tag("reason", "gap").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(FLUSHES_METER_EXPECTED_NAME).tag("reason", "connect").counter().count()).isZero();
+
+        cacheInvalidationMetersService.trackConnectFlush();
+        cacheInvalidationMetersService.trackPublishError();
+
+        assertThat(meterRegistry.get(FLUSHES_METER_EXPECTED_NAME).tag("reason", "connect").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PUBLISH_ERRORS_METER_EXPECTED_NAME).counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,64 @@
+package md.esempla.webflux.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PasswordHashingMetersServiceTests {
+
+    private static final String HASH_TIME_METER_EXPECTED_NAME = "security.password.hash.time";
+
+    private static final String VERIFY_TIME_METER_EXPECTED_NAME = "security.password.verify.time";
+
+    private static final String REJECTED_METER_EXPECTED_NAME = "security.password.hashing.rejected";
+
+    private MeterRegistry meterRegistry;
+
+    private PasswordHashingMetersService passwordHashingMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        passwordHashingMetersService = new PasswordHashingMetersService(meterRegistry);
+    }
+
+    @Test
+    void testMetersAreCreated() {
+        meterRegistry.get(HASH_TIME_METER_EXPECTED_NAME).timer();
+
+        meterRegistry.get(VERIFY_TIME_METER_EXPECTED_NAME).tag("outcome", "match").timer();
+
+        meterRegistry.get(VERIFY_TIME_METER_EXPECTED_NAME).tag("outcome", "mismatch").timer();
+
+        meterRegistry.get(REJECTED_METER_EXPECTED_NAME).counter();
+    }
+
+    @Test
+    void testTrackMethodsShouldBeBoundToCorrectMeters() {
+        passwordHashingMetersService.trackHashTime(Duration.ofMillis(80));
+
+        assertThat(meterRegistry.get(HASH_TIME_METER_EXPECTED_NAME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(HASH_TIME_METER_EXPECTED_NAME).timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(80);
+        assertThat(meterRegistry.get(VERIFY_TIME_METER_EXPECTED_NAME).tag("outcome", "match").timer().count()).isZero();
+
+        passwordHashingMetersService.trackVerifyTime(Duration.ofMillis(90), true);
+
+        assertThat(meterRegistry.get(VERIFY_TIME_METER_EXPECTED_NAME).tag("outcome", "match").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(VERIFY_TIME_METER_EXPECTED_NAME).tag("outcome", "mismatch").timer().count()).isZero();
+
+        passwordHashingMetersService.trackVerifyTime(Duration.ofMillis(95), false);
+
+        assertThat(meterRegistry.get(VERIFY_TIME_METER_EXPECTED_NAME).tag("outcome", "mismatch").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(REJECTED_METER_EXPECTED_NAME).counter().count()).isZero();
+
+        passwordHashingMetersService.trackRejected();
+
+        assertThat(meterRegistry.get(REJECTED_METER_EXPECTED_NAME).counter().count()).isEqualTo(1);
+    }
+}
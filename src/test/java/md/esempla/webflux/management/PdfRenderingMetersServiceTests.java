@@ -0,0 +1,48 @@
+package md.esempla.webflux.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PdfRenderingMetersServiceTests {
+
+    private static final String RENDER_TIME_METER_EXPECTED_NAME = "pdf.render.time";
+
+    private static final String REJECTED_METER_EXPECTED_NAME = "pdf.render.rejected";
+
+    private MeterRegistry meterRegistry;
+
+    private PdfRenderingMetersService pdfRenderingMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        pdfRenderingMetersService = new PdfRenderingMetersService(meterRegistry);
+    }
+
+    @Test
+    void testMetersAreCreated() {
+        meterRegistry.get(RENDER_TIME_METER_EXPECTED_NAME).timer();
+
+        meterRegistry.get(REJECTED_METER_EXPECTED_NAME).counter();
+    }
+
+    @Test
+    void testTrackMethodsShouldBeBoundToCorrectMeters() {
+        pdfRenderingMetersService.trackRenderTime(Duration.ofMillis(300));
+
+        assertThat(meterRegistry.get(RENDER_TIME_METER_EXPECTED_NAME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(RENDER_TIME_METER_EXPECTED_NAME).timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(300);
+        assertThat(meterRegistry.get(REJECTED_METER_EXPECTED_NAME).counter().count()).isZero();
+
+        pdfRenderingMetersService.trackRejected();
+
+        assertThat(meterRegistry.get(REJECTED_METER_EXPECTED_NAME).counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,52 @@
+package md.esempla.webflux.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestDeadlineMetersServiceTests {
+
+    private static final String DEADLINE_EXCEEDED_METER_EXPECTED_NAME = "http.server.requests.deadline-exceeded";
+
+    private MeterRegistry meterRegistry;
+
+    private RequestDeadlineMetersService requestDeadlineMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        requestDeadlineMetersService = new RequestDeadlineMetersService(meterRegistry);
+    }
+
+    @Test
+    void testDeadlineExceededCountersByStageAreCreated() {
+        meterRegistry.get(DEADLINE_EXCEEDED_METER_EXPECTED_NAME).tag("stage", "request").counter();
+
+        meterRegistry.get(DEADLINE_EXCEEDED_METER_EXPECTED_NAME).tag("stage", "statement").counter();
+
+        Collection<Counter> counters = meterRegistry.find(DEADLINE_EXCEEDED_METER_EXPECTED_NAME).counters();
+
+        assertThat(counters).hasSize(2);
+    }
+
+    @Test
+    void testCountMethodsShouldBeBoundToCorrectCounters() {
+        assertThat(meterRegistry.get(DEADLINE_EXCEEDED_METER_EXPECTED_NAME).tag("stage", "request").counter().count()).isZero();
+
+        requestDeadlineMetersService.trackRequestDeadlineExceeded();
+
+        assertThat(meterRegistry.get(DEADLINE_EXCEEDED_METER_EXPECTED_NAME).tag("stage", "request").counter().count()).isEqualTo(1);
+
+        assertThat(meterRegistry.get(DEADLINE_EXCEEDED_METER_EXPECTED_NAME).tag("stage", "statement").counter().count()).isZero();
+
+        requestDeadlineMetersService.trackStatementDeadlineExceeded();
+
+        assertThat(meterRegistry.get(DEADLINE_EXCEEDED_METER_EXPECTED_NAME).tag("stage", "statement").counter().count()).isEqualTo(1);
+    }
+}
@@ -4,8 +4,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -13,6 +16,16 @@ class SecurityMetersServiceTests {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
 
+    private static final String THROTTLED_LOGINS_METER_EXPECTED_NAME = "security.authentication.throttled";
+
+    private static final String JWT_DECODE_TIME_METER_EXPECTED_NAME = "security.authentication.jwt.decode.time";
+
+    private static final String AUTHENTICATION_TIME_METER_EXPECTED_NAME = "security.authentication.time";
+
+    private static final String USER_LOOKUP_TIME_METER_EXPECTED_NAME = "security.authentication.user-lookup.time";
+
+    private static final String AUTHORIZATION_TIME_METER_EXPECTED_NAME = "security.authorization.time";
+
     private MeterRegistry meterRegistry;
 
     private SecurityMetersService securityMetersService;
@@ -36,9 +49,11 @@ class SecurityMetersServiceTests {
 
         meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter();
 
+        meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "revoked").counter();
+
         Collection<Counter> counters = meterRegistry.find(INVALID_TOKENS_METER_EXPECTED_NAME).counters();
 
-        assertThat(counters).hasSize(4);
+        assertThat(counters).hasSize(5);
     }
 
     @Test
@@ -66,5 +81,39 @@ class SecurityMetersServiceTests {
         securityMetersService.trackTokenMalformed();
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "revoked").counter().count()).isZero();
+
+        securityMetersService.trackTokenRevoked();
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "revoked").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testThrottledLoginsAreCountedByKey() {
+        securityMetersService.trackLoginThrottledByLogin();
+        securityMetersService.trackLoginThrottledByAddress();
+        securityMetersService.trackLoginThrottledByAddress();
+
+        assertThat(meterRegistry.get(THROTTLED_LOGINS_METER_EXPECTED_NAME).tag("key", "login").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(THROTTLED_LOGINS_METER_EXPECTED_NAME).tag("key", "ip").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testTimersAreTaggedByOutcome() {
+        securityMetersService.trackJwtDecodeTime(Duration.ofMillis(1), "valid");
+        securityMetersService.trackJwtDecodeTime(Duration.ofMillis(2), "expired");
+        securityMetersService.trackJwtDecodeTime(Duration.ofMillis(3), "valid");
+        securityMetersService.trackAuthenticationTime(Duration.ofMillis(100), "bad-credentials");
+        securityMetersService.trackUserLookupTime(Duration.ofMillis(5), "not-found");
+        securityMetersService.trackAuthorizationTime(Duration.ofMillis(1), "denied");
+
+        Timer validDecodeTimer = meterRegistry.get(JWT_DECODE_TIME_METER_EXPECTED_NAME).tag("outcome", "valid").timer();
+        assertThat(validDecodeTimer.count()).isEqualTo(2);
+        assertThat(validDecodeTimer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(4);
+        assertThat(meterRegistry.get(JWT_DECODE_TIME_METER_EXPECTED_NAME).tag("outcome", "expired").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(AUTHENTICATION_TIME_METER_EXPECTED_NAME).tag("outcome", "bad-credentials").timer().count()).isOne();
+        assertThat(meterRegistry.get(USER_LOOKUP_TIME_METER_EXPECTED_NAME).tag("outcome", "not-found").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(AUTHORIZATION_TIME_METER_EXPECTED_NAME).tag("outcome", "denied").timer().count()).isEqualTo(1);
     }
 }
@@ -0,0 +1,52 @@
+package md.esempla.webflux.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StaleResponseMetersServiceTests {
+
+    private static final String STALE_RESPONSE_METER_EXPECTED_NAME = "http.server.requests.stale";
+
+    private MeterRegistry meterRegistry;
+
+    private StaleResponseMetersService staleResponseMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        staleResponseMetersService = new StaleResponseMetersService(meterRegistry);
+    }
+
+    @Test
+    void testStaleResponseCountersByOutcomeAreCreated() {
+        meterRegistry.get(STALE_RESPONSE_METER_EXPECTED_NAME).tag("outcome", "served").counter();
+
+        meterRegistry.get(STALE_RESPONSE_METER_EXPECTED_NAME).tag("outcome", "miss").counter();
+
+        Collection<Counter> counters = meterRegistry.find(STALE_RESPONSE_METER_EXPECTED_NAME).counters();
+
+        assertThat(counters).hasSize(2);
+    }
+
+    @Test
+    void testCountMethodsShouldBeBoundToCorrectCounters() {
+        assertThat(meterRegistry.get(STALE_RESPONSE_METER_EXPECTED_NAME).tag("outcome", "served").counter().count()).isZero();
+
+        staleResponseMetersService.trackStaleResponseServed();
+
+        assertThat(meterRegistry.get(STALE_RESPONSE_METER_EXPECTED_NAME).tag("outcome", "served").counter().count()).isEqualTo(1);
+
+        assertThat(meterRegistry.get(STALE_RESPONSE_METER_EXPECTED_NAME).tag("outcome", "miss").counter().count()).isZero();
+
+        staleResponseMetersService.trackStaleResponseMissed();
+
+        assertThat(meterRegistry.get(STALE_RESPONSE_METER_EXPECTED_NAME).tag("outcome", "miss").counter().count()).isEqualTo(1);
+    }
+}
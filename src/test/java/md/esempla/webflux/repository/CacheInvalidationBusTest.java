@@ -0,0 +1,148 @@
+package md.esempla.webflux.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.User;
+import md.esempla.webflux.management.CacheInvalidationMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the reception of the invalidations by the {@link CacheInvalidationBus}, and for its channel.
+ */
+class CacheInvalidationBusTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ObjectMapper objectMapper;
+
+    private ApplicationProperties applicationProperties;
+
+    private UserCache userCache;
+
+    private AtomicInteger loads;
+
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        objectMapper = new ObjectMapper();
+        applicationProperties = new ApplicationProperties();
+        userCache = new UserCache(applicationProperties, meterRegistry);
+        loads = new AtomicInteger();
+        cacheInvalidationBus = cacheInvalidationBus();
+    }
+
+    @Test
+    void testInvalidationOfAnotherNodeIsApplied() throws Exception {
+        loadUser("user");
+        loadUser("other");
+
+        cacheInvalidationBus.receive(payload("node", 1, CacheInvalidationEvent.user("user"))).block();
+
+        loadUser("user");
+        loadUser("other");
+        assertThat(loads).hasValue(3);
+        assertThat(meterRegistry.get("cache.invalidation.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testMissedInvalidationFlushesTheCaches() throws Exception {
+        cacheInvalidationBus.receive(payload("node", 1, CacheInvalidationEvent.user("user"))).block();
+        loadUser("user");
+        loadUser("other");
+
+        cacheInvalidationBus.receive(payload("node", 3, CacheInvalidationEvent.user("user"))).block();
+
+        loadUser("user");
+        loadUser("other");
+        assertThat(loads).hasValue(4);
+        assertThat(meterRegistry.get("cache.invalidation.flushes").tag("reason", "gap").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidationsOfEachNodeAreNumberedSeparately() throws Exception {
+        cacheInvalidationBus.receive(payload("node", 1, CacheInvalidationEvent.user("user"))).block();
+        cacheInvalidationBus.receive(payload("other-node", 1, CacheInvalidationEvent.user("user"))).block();
+        cacheInvalidationBus.receive(payload("node", 2, CacheInvalidationEvent.user("user"))).block();
+
+        assertThat(meterRegistry.get("cache.invalidation.flushes").tag("reason", "gap").counter().count()).isZero();
+    }
+
+    @Test
+    void testReconnectionDelayStartsOverOnceListening() {
+        applicationProperties.getCacheInvalidation().setMinReconnectDelay(Duration.ofMillis(1));
+        applicationProperties.getCacheInvalidation().setMaxReconnectDelay(Duration.ofMillis(10));
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> retriesInARow = new CopyOnWriteArrayList<>();
+        Flux<Boolean> connection = Flux.defer(() ->
+            switch (attempts.incrementAndGet()) {
+                // Listening, until the connection is lost
+                case 3 -> Flux.just(true).concatWith(Flux.error(new IllegalStateException("closed")));
+                case 5 -> Flux.just(true);
+                default -> Flux.error(new IllegalStateException("refused"));
+            }
+        );
+
+        connection
+            .retryWhen(cacheInvalidationBus.reconnection().doBeforeRetry(signal -> retriesInARow.add(signal.totalRetriesInARow())))
+            .blockLast(Duration.ofSeconds(5));
+
+        assertThat(retriesInARow).containsExactly(0L, 1L, 0L, 1L);
+    }
+
+    @Test
+    void testChannelMustBeAnIdentifier() {
+        applicationProperties.getCacheInvalidation().setChannel("Cache_Invalidation$2");
+        assertThatCode(this::cacheInvalidationBus).doesNotThrowAnyException();
+
+        for (String channel : List.of("", "1cache", "cache invalidation", "cache\"; DROP TABLE jhi_user; --", "c".repeat(64))) {
+            applicationProperties.getCacheInvalidation().setChannel(channel);
+            assertThatThrownBy(this::cacheInvalidationBus).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private CacheInvalidationBus cacheInvalidationBus() {
+        return new CacheInvalidationBus(
+            null,
+            null,
+            objectMapper,
+            new ReferenceDataCache(mock(PostStatusRepository.class), mock(AuthorityRepository.class), applicationProperties),
+            userCache,
+            new QueryResultCache(applicationProperties, meterRegistry),
+            new CacheInvalidationMetersService(meterRegistry),
+            applicationProperties
+        );
+    }
+
+    private void loadUser(String login) {
+        userCache
+            .get(login, l ->
+                Mono.fromSupplier(() -> {
+                    loads.incrementAndGet();
+                    User user = new User();
+                    user.setLogin(l);
+                    return user;
+                })
+            )
+            .block();
+    }
+
+    private String payload(String node, long sequence, CacheInvalidationEvent event) throws Exception {
+        return objectMapper.writeValueAsString(new CacheInvalidationBus.Message(node, sequence, System.currentTimeMillis(), event));
+    }
+}
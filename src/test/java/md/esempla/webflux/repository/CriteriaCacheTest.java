@@ -0,0 +1,178 @@
+package md.esempla.webflux.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.Comment;
+import md.esempla.webflux.domain.Post;
+import md.esempla.webflux.domain.PostStatus;
+import md.esempla.webflux.domain.criteria.CommentCriteria;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link CriteriaCache}, through the posts of the {@link QueryResultCache}.
+ */
+class CriteriaCacheTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private QueryResultCache queryResultCache;
+
+    private CriteriaCache<PostCriteria, Post> posts;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        queryResultCache = new QueryResultCache(new ApplicationProperties(), meterRegistry);
+        posts = queryResultCache.posts();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testEqualCriteriaShareTheResults() {
+        assertThat(getPage(byStatus(1L)).collectList().block()).extracting(Post::getTitle).containsExactly("1");
+        assertThat(getPage(byStatus(1L)).collectList().block()).extracting(Post::getTitle).containsExactly("1");
+        assertThat(getVersion(byStatus(1L)).block()).isEqualTo(getVersion(byStatus(1L)).block());
+        getPage(byStatus(2L)).blockLast();
+
+        assertThat(loads).hasValue(3);
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", "post-queries").gauge().value()).isEqualTo(0.4);
+    }
+
+    @Test
+    void testWriteInvalidatesTheResultsOfItsStatus() {
+        getPage(byStatus(1L)).blockLast();
+        getPage(byStatus(2L)).blockLast();
+        getVersion(new PostCriteria()).block();
+        assertThat(loads).hasValue(3);
+
+        posts.invalidate(List.of(1L)).block();
+
+        getPage(byStatus(1L)).blockLast();
+        getPage(byStatus(2L)).blockLast();
+        getVersion(new PostCriteria()).block();
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void testInvalidateAll() {
+        getPage(byStatus(1L)).blockLast();
+        getPage(byStatus(2L)).blockLast();
+
+        posts.invalidateAll().block();
+
+        getPage(byStatus(1L)).blockLast();
+        getPage(byStatus(2L)).blockLast();
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void testModifiedRowsDoNotLeakIntoTheCache() {
+        Post post = new Post().id(1L).title("title").postStatus(new PostStatus().id(1L).status("DRAFT"));
+        Post modified = posts.getPage(byStatus(1L), FIRST_PAGE, "posts", (c, pageable) -> Flux.just(post)).blockFirst();
+        modified.setTitle("modified");
+        modified.getPostStatus().setStatus("PUBLISHED");
+
+        Post cached = posts.getPage(byStatus(1L), FIRST_PAGE, "posts", (c, pageable) -> Flux.empty()).blockFirst();
+        assertThat(cached).isNotSameAs(modified);
+        assertThat(cached.getTitle()).isEqualTo("title");
+        assertThat(cached.getPostStatus().getStatus()).isEqualTo("DRAFT");
+        assertThat(cached.getPostStatusId()).isEqualTo(1L);
+
+        Comment comment = new Comment().id(1L).content("content").post(new Post().id(1L).title("title"));
+        CommentCriteria byPost = new CommentCriteria();
+        byPost.postId().setEquals(1L);
+        Comment modifiedComment = queryResultCache
+            .comments()
+            .getPage(byPost, FIRST_PAGE, "comments", (c, pageable) -> Flux.just(comment))
+            .blockFirst();
+        modifiedComment.setContent("modified");
+        modifiedComment.getPost().setTitle("modified");
+
+        Comment cachedComment = queryResultCache
+            .comments()
+            .getPage(byPost, FIRST_PAGE, "comments", (c, pageable) -> Flux.empty())
+            .blockFirst();
+        assertThat(cachedComment.getContent()).isEqualTo("content");
+        assertThat(cachedComment.getPost().getTitle()).isEqualTo("title");
+        assertThat(cachedComment.getPostId()).isEqualTo(1L);
+    }
+
+    @Test
+    void testLoadIsBoundedByTheDeadlineOfTheRequest() {
+        Flux<Post> page = posts
+            .getPage(byStatus(1L), FIRST_PAGE, "posts", (c, pageable) ->
+                // like the statements bounded by the StatementDeadlines, which read the deadline from the context
+                Flux.deferContextual(context ->
+                    RequestDeadline.from(context)
+                        .map(deadline ->
+                            Mono.delay(deadline.remaining()).then(Mono.<Post>error(new RequestDeadlineExceededException("late")))
+                        )
+                        .orElseGet(Mono::never)
+                )
+            )
+            .contextWrite(RequestDeadline.startingNow(Duration.ofMillis(200)));
+
+        assertThatThrownBy(() -> page.blockLast(Duration.ofSeconds(10))).isInstanceOf(RequestDeadlineExceededException.class);
+    }
+
+    @Test
+    void testLoadIsCancelledOnceNoRequestWaitsForIt() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        BiFunction<PostCriteria, Pageable, Flux<Post>> loader = (c, pageable) ->
+            Flux.<Post>never()
+                .doOnSubscribe(subscription -> loads.incrementAndGet())
+                .doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = posts.getPage(byStatus(1L), FIRST_PAGE, "posts", loader).subscribe();
+        Disposable second = posts.getPage(byStatus(1L), FIRST_PAGE, "posts", loader).subscribe();
+        assertThat(loads).hasValue(1);
+
+        first.dispose();
+        assertThat(cancelled).isFalse();
+        second.dispose();
+        assertThat(cancelled).isTrue();
+
+        posts.getPage(byStatus(1L), FIRST_PAGE, "posts", loader).subscribe().dispose();
+        assertThat(loads).hasValue(2);
+    }
+
+    private Flux<Post> getPage(PostCriteria criteria) {
+        return posts.getPage(criteria, FIRST_PAGE, "summaries", (c, pageable) ->
+            Flux.defer(() -> {
+                loads.incrementAndGet();
+                return Flux.just(new Post().title(String.valueOf(c.getPostStatusId() != null ? c.getPostStatusId().getEquals() : null)));
+            })
+        );
+    }
+
+    private Mono<RowSetVersion> getVersion(PostCriteria criteria) {
+        return posts.getVersion(criteria, c ->
+            Mono.fromSupplier(() -> new RowSetVersion(1, String.valueOf(loads.incrementAndGet())))
+        );
+    }
+
+    private static PostCriteria byStatus(Long postStatusId) {
+        PostCriteria criteria = new PostCriteria();
+        criteria.postStatusId().setEquals(postStatusId);
+        return criteria;
+    }
+}
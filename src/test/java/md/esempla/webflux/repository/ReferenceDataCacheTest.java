@@ -0,0 +1,64 @@
+package md.esempla.webflux.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.Authority;
+import md.esempla.webflux.domain.PostStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the invalidation of the {@link ReferenceDataCache} when rows are saved through the repositories.
+ */
+class ReferenceDataCacheTest {
+
+    private List<PostStatus> postStatuses;
+
+    private List<Authority> authorities;
+
+    private ReferenceDataCache referenceDataCache;
+
+    @BeforeEach
+    void setup() {
+        postStatuses = new CopyOnWriteArrayList<>(List.of(new PostStatus().id(1L).status("DRAFT")));
+        authorities = new CopyOnWriteArrayList<>(List.of(new Authority().name("ROLE_USER")));
+        PostStatusRepository postStatusRepository = mock(PostStatusRepository.class);
+        AuthorityRepository authorityRepository = mock(AuthorityRepository.class);
+        when(postStatusRepository.findAll()).thenReturn(Flux.defer(() -> Flux.fromIterable(postStatuses)));
+        when(authorityRepository.findAll()).thenReturn(Flux.defer(() -> Flux.fromIterable(authorities)));
+        referenceDataCache = new ReferenceDataCache(postStatusRepository, authorityRepository, new ApplicationProperties());
+    }
+
+    @Test
+    void testSavedPostStatusIsVisible() {
+        assertThat(referenceDataCache.postStatuses().findAll().collectList().block()).hasSize(1);
+
+        PostStatus saved = new PostStatus().id(2L).status("PUBLISHED");
+        postStatuses.add(saved);
+        Mono.from(new ReferenceDataCache.PostStatusSaveCallback(referenceDataCache).onAfterSave(saved, null, null)).block();
+
+        assertThat(referenceDataCache.postStatuses().findAll().collectList().block())
+            .extracting(PostStatus::getStatus)
+            .containsExactly("DRAFT", "PUBLISHED");
+    }
+
+    @Test
+    void testSavedAuthorityIsVisible() {
+        assertThat(referenceDataCache.authorities().findAll().collectList().block()).hasSize(1);
+
+        Authority saved = new Authority().name("ROLE_ADMIN");
+        authorities.add(saved);
+        Mono.from(new ReferenceDataCache.AuthoritySaveCallback(referenceDataCache).onAfterSave(saved, null, null)).block();
+
+        assertThat(referenceDataCache.authorities().findAll().collectList().block())
+            .extracting(Authority::getName)
+            .containsExactly("ROLE_USER", "ROLE_ADMIN");
+    }
+}
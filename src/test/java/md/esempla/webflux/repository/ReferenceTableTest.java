@@ -0,0 +1,71 @@
+package md.esempla.webflux.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import md.esempla.webflux.domain.PostStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Unit tests for the {@link ReferenceTable}.
+ */
+class ReferenceTableTest {
+
+    private List<PostStatus> rows;
+
+    private AtomicInteger loads;
+
+    private ReferenceTable<Long, PostStatus> table;
+
+    @BeforeEach
+    void setup() {
+        rows = new CopyOnWriteArrayList<>(List.of(new PostStatus().id(1L).status("DRAFT"), new PostStatus().id(2L).status("PUBLISHED")));
+        loads = new AtomicInteger();
+        table = new ReferenceTable<>(
+            () -> Flux.defer(() -> {
+                loads.incrementAndGet();
+                return Flux.fromIterable(rows);
+            }),
+            PostStatus::getId,
+            Duration.ofHours(1)
+        );
+    }
+
+    @Test
+    void testTableIsLoadedOnce() {
+        assertThat(table.isLoaded()).isFalse();
+
+        assertThat(table.findAll().collectList().block()).extracting(PostStatus::getStatus).containsExactly("DRAFT", "PUBLISHED");
+        assertThat(table.findById(2L).block()).extracting(PostStatus::getStatus).isEqualTo("PUBLISHED");
+
+        assertThat(table.isLoaded()).isTrue();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testMissingIdReloadsTable() {
+        table.findAll().blockLast();
+        rows.add(new PostStatus().id(3L).status("ARCHIVED"));
+
+        assertThat(table.findById(3L).block()).extracting(PostStatus::getStatus).isEqualTo("ARCHIVED");
+        assertThat(table.findById(4L).block()).isNull();
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void testInvalidateReloadsTable() {
+        table.findAll().blockLast();
+        rows.remove(0);
+
+        table.invalidateAfterCompletion().block();
+
+        assertThat(table.isLoaded()).isFalse();
+        assertThat(table.findAll().collectList().block()).extracting(PostStatus::getStatus).containsExactly("PUBLISHED");
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,47 @@
+package md.esempla.webflux.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the fallback of the {@link RowCountEstimator} to exact counts.
+ */
+class RowCountEstimatorTest {
+
+    private AtomicInteger counts;
+
+    private RowCountEstimator rowCountEstimator;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCountEstimation().setExactThreshold(1000);
+        counts = new AtomicInteger();
+        rowCountEstimator = new RowCountEstimator(null, null, applicationProperties);
+    }
+
+    @Test
+    void testLargeEstimateIsUsed() {
+        assertThat(rowCountEstimator.estimateOrCount(Mono.just(5000L), count(4990)).block()).isEqualTo(new RowCount(5000, true));
+        assertThat(counts).hasValue(0);
+    }
+
+    @Test
+    void testSmallOrMissingEstimateIsCountedExactly() {
+        assertThat(rowCountEstimator.estimateOrCount(Mono.just(10L), count(12)).block()).isEqualTo(new RowCount(12, false));
+        assertThat(rowCountEstimator.estimateOrCount(Mono.empty(), count(12)).block()).isEqualTo(new RowCount(12, false));
+        assertThat(counts).hasValue(2);
+    }
+
+    private Mono<Long> count(long rows) {
+        return Mono.fromSupplier(() -> {
+            counts.incrementAndGet();
+            return rows;
+        });
+    }
+}
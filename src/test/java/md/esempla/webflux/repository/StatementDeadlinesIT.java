@@ -0,0 +1,116 @@
+package md.esempla.webflux.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import md.esempla.webflux.IntegrationTest;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.Post;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Integration tests for {@link StatementDeadlines}.
+ */
+@IntegrationTest
+class StatementDeadlinesIT {
+
+    private static final Duration DEADLINE = Duration.ofMillis(200);
+
+    @Autowired
+    private StatementDeadlines statementDeadlines;
+
+    @Autowired
+    private DatabaseClient db;
+
+    @Autowired
+    private ReactiveTransactionManager transactionManager;
+
+    @Test
+    void testStatementOutsideOfTransactionIsCancelledAtDeadline() {
+        Mono<Object> sleep = statementDeadlines.apply(sleep()).contextWrite(RequestDeadline.startingNow(DEADLINE));
+
+        assertThatThrownBy(sleep::block).isInstanceOf(RequestDeadlineExceededException.class);
+        assertStatementTimeoutNotLeaked();
+    }
+
+    @Test
+    void testStatementInTransactionIsCancelledAtDeadline() {
+        Mono<Object> sleep = TransactionalOperator.create(transactionManager)
+            .transactional(statementDeadlines.apply(sleep()))
+            .contextWrite(RequestDeadline.startingNow(DEADLINE));
+
+        assertThatThrownBy(sleep::block).isInstanceOf(RequestDeadlineExceededException.class);
+        assertStatementTimeoutNotLeaked();
+    }
+
+    @Test
+    void testCachedStatementIsCancelledAtDeadline() {
+        CriteriaCache<PostCriteria, Post> cache = new CriteriaCache<>(
+            "statement-deadlines",
+            criteria -> Set.of(),
+            post -> post,
+            post -> 0,
+            new ApplicationProperties().getQueryCache(),
+            new SimpleMeterRegistry()
+        );
+        Flux<Post> page = cache
+            .getPage(new PostCriteria(), PageRequest.of(0, 20), "posts", (criteria, pageable) ->
+                statementDeadlines.apply(sleep().map(result -> new Post()).flux())
+            )
+            .contextWrite(RequestDeadline.startingNow(DEADLINE));
+
+        assertThatThrownBy(page::blockLast).isInstanceOf(RequestDeadlineExceededException.class);
+        assertStatementTimeoutNotLeaked();
+    }
+
+    @Test
+    void testCancelledStatementDoesNotCancelTheNextOnes() throws InterruptedException {
+        Disposable cancelled = statementDeadlines
+            .apply(sleep())
+            .contextWrite(RequestDeadline.startingNow(Duration.ofSeconds(5)))
+            .subscribe();
+        Thread.sleep(100);
+        cancelled.dispose();
+
+        // the late cancel request would stop any of these if the backend of the cancelled statement was reused
+        for (int i = 0; i < 10; i++) {
+            Object result = statementDeadlines
+                .apply(db.sql("SELECT pg_sleep(0.05), 1").map(row -> row.get(1)).one())
+                .contextWrite(RequestDeadline.startingNow(Duration.ofSeconds(5)))
+                .block();
+            assertThat(result).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testStatementWithinDeadlineCompletes() {
+        Object result = statementDeadlines.apply(db.sql("SELECT 1").map(row -> row.get(0)).one())
+            .contextWrite(RequestDeadline.startingNow(Duration.ofSeconds(5)))
+            .block();
+
+        assertThat(result).isEqualTo(1);
+    }
+
+    private Mono<Object> sleep() {
+        return db.sql("SELECT pg_sleep(5)").map(row -> row.get(0)).first();
+    }
+
+    private void assertStatementTimeoutNotLeaked() {
+        // the timeout is local to the transaction, so no pooled connection keeps it
+        for (int i = 0; i < 10; i++) {
+            assertThat(db.sql("SHOW statement_timeout").map(row -> row.get(0, String.class)).one().block()).isEqualTo("0");
+        }
+    }
+}
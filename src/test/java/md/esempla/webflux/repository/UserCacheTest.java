@@ -0,0 +1,77 @@
+package md.esempla.webflux.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link UserCache}.
+ */
+class UserCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private AtomicInteger loads;
+
+    private Function<String, Mono<User>> loader;
+
+    private UserCache userCache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+        loader = login ->
+            Mono.fromSupplier(() -> {
+                loads.incrementAndGet();
+                if ("unknown".equals(login)) {
+                    return null;
+                }
+                User user = new User();
+                user.setLogin(login);
+                return user;
+            });
+        userCache = new UserCache(new ApplicationProperties(), meterRegistry);
+    }
+
+    @Test
+    void testUserIsLoadedOnce() {
+        assertThat(userCache.get("user", loader).block()).extracting(User::getLogin).isEqualTo("user");
+        assertThat(userCache.get("user", loader).block()).extracting(User::getLogin).isEqualTo("user");
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tags("cache", UserCache.CACHE_NAME, "result", "hit").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testUnknownUserIsNotCached() {
+        assertThat(userCache.get("unknown", loader).blockOptional()).isEmpty();
+        assertThat(userCache.get("unknown", loader).blockOptional()).isEmpty();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testEvictedUserIsLoadedAgain() {
+        userCache.get("user", loader).block();
+        userCache.get("other", loader).block();
+
+        userCache.evict("user").block();
+        userCache.get("user", loader).block();
+        userCache.get("other", loader).block();
+        assertThat(loads).hasValue(3);
+
+        userCache.evictAll().block();
+        userCache.get("other", loader).block();
+        assertThat(loads).hasValue(4);
+    }
+}
@@ -0,0 +1,125 @@
+package md.esempla.webflux.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.net.URI;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link AuthorizationRouteTable}.
+ */
+class AuthorizationRouteTableTest {
+
+    private static final Mono<Authentication> USER = Mono.just(
+        new UsernamePasswordAuthenticationToken("user", null, AuthorityUtils.createAuthorityList(AuthoritiesConstants.USER))
+    );
+
+    @Test
+    void testPatternsMatchLikePathPatterns() {
+        List<String> patterns = List.of("/", "/*", "/a", "/a/", "/a/*", "/a/**", "/**", "/*.*", "/a*b*c", "/x/*-*/y", "/x/**");
+        List<String> paths = List.of(
+            "/",
+            "//",
+            "/a",
+            "/a/",
+            "/a//",
+            "/a/b",
+            "/a/b/c",
+            "/ab",
+            "/abc",
+            "/abbc",
+            "/acb",
+            "/a.b",
+            "/.",
+            "/x/-/y",
+            "/x/a-b/y",
+            "/x/ab/y",
+            "/x/a-b/y/",
+            "/x;p=1/a-b/y",
+            "/%61"
+        );
+        for (String pattern : patterns) {
+            AuthorizationRouteTable table = AuthorizationRouteTable.builder().route(pattern).permitAll().build();
+            for (String path : paths) {
+                assertThat(granted(table, HttpMethod.GET, path))
+                    .as("%s against %s", path, pattern)
+                    .isEqualTo(PathPatternParser.defaultInstance.parse(pattern).matches(PathContainer.parsePath(path)));
+            }
+        }
+    }
+
+    @Test
+    void testFirstDeclaredRouteDecides() {
+        AuthorizationRouteTable table = AuthorizationRouteTable.builder()
+            .route("/api/admin/**")
+            .hasAuthority(AuthoritiesConstants.ADMIN)
+            .route("/api/**")
+            .authenticated()
+            .route("/api/admin/open")
+            .permitAll()
+            .build();
+
+        assertThat(granted(table, HttpMethod.GET, "/api/admin/open")).isFalse();
+        assertThat(granted(table, HttpMethod.GET, "/api/account")).isTrue();
+    }
+
+    @Test
+    void testRoutesApplyToTheirMethod() {
+        AuthorizationRouteTable table = AuthorizationRouteTable.builder()
+            .route(HttpMethod.GET, "/api/things/**")
+            .authenticated()
+            .route("/api/**")
+            .hasAuthority(AuthoritiesConstants.ADMIN)
+            .build();
+
+        assertThat(granted(table, HttpMethod.GET, "/api/things/1")).isTrue();
+        assertThat(granted(table, HttpMethod.DELETE, "/api/things/1")).isFalse();
+    }
+
+    @Test
+    void testRequestMatchingNoRouteIsDenied() {
+        AuthorizationRouteTable table = AuthorizationRouteTable.builder().route("/api/**").permitAll().build();
+
+        assertThat(granted(table, HttpMethod.GET, "/management/info")).isFalse();
+    }
+
+    @Test
+    void testIgnoredRoutesAreLeftOutOfTheSecurityMatcher() {
+        AuthorizationRouteTable table = AuthorizationRouteTable.builder().ignoring("/app/**").route("/**").authenticated().build();
+
+        assertThat(table.securityMatcher().matches(exchange(HttpMethod.GET, "/app/main.js")).block().isMatch()).isFalse();
+        assertThat(table.securityMatcher().matches(exchange(HttpMethod.GET, "/api/account")).block().isMatch()).isTrue();
+    }
+
+    @Test
+    void testUnsupportedPatternsAreRejected() {
+        for (String pattern : List.of("api/**", "/api/{id}", "/api/?", "/**/api", "/api/a**")) {
+            assertThatIllegalArgumentException().isThrownBy(() -> AuthorizationRouteTable.builder().route(pattern).permitAll().build());
+        }
+    }
+
+    private static boolean granted(AuthorizationRouteTable table, HttpMethod method, String path) {
+        return table
+            .authorize(USER, new AuthorizationContext(exchange(method, path)))
+            .map(AuthorizationResult::isGranted)
+            .defaultIfEmpty(false)
+            .block();
+    }
+
+    private static MockServerWebExchange exchange(HttpMethod method, String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(method, URI.create("http://localhost" + path)));
+    }
+}
@@ -0,0 +1,63 @@
+package md.esempla.webflux.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Unit tests for the {@link BCryptCalibration} and the {@link RehashingBCryptPasswordEncoder}.
+ */
+class BCryptCalibrationTest {
+
+    @Test
+    void testCalibrationKeepsTheHighestCostWithinTheTarget() {
+        ApplicationProperties.PasswordHashing properties = new ApplicationProperties().getPasswordHashing();
+        properties.setMinStrength(4);
+        properties.setMaxStrength(6);
+        properties.setTargetVerifyTime(Duration.ofSeconds(10));
+
+        BCryptCalibration calibration = BCryptCalibration.calibrate(properties);
+
+        assertThat(calibration.strength()).isEqualTo(6);
+        assertThat(calibration.medianVerifyMillis()).containsOnlyKeys(4, 5, 6);
+        assertThat(calibration.targetVerifyMillis()).isEqualTo(10_000);
+    }
+
+    @Test
+    void testCalibrationFallsBackToTheMinimumCost() {
+        ApplicationProperties.PasswordHashing properties = new ApplicationProperties().getPasswordHashing();
+        properties.setMinStrength(5);
+        properties.setMaxStrength(8);
+        properties.setTargetVerifyTime(Duration.ZERO);
+
+        BCryptCalibration calibration = BCryptCalibration.calibrate(properties);
+
+        assertThat(calibration.strength()).isEqualTo(5);
+        assertThat(calibration.medianVerifyMillis()).containsOnlyKeys(5);
+    }
+
+    @Test
+    void testCalibrationCanBeDisabled() {
+        ApplicationProperties.PasswordHashing properties = new ApplicationProperties().getPasswordHashing();
+        properties.setCalibrate(false);
+
+        BCryptCalibration calibration = BCryptCalibration.calibrate(properties);
+
+        assertThat(calibration.strength()).isEqualTo(properties.getMinStrength());
+        assertThat(calibration.medianVerifyMillis()).isEmpty();
+    }
+
+    @Test
+    void testHashesOfALowerCostAreUpgraded() {
+        RehashingBCryptPasswordEncoder encoder = new RehashingBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))).isFalse();
+        assertThat(encoder.upgradeEncoding("plain")).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+}
@@ -0,0 +1,35 @@
+package md.esempla.webflux.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link BloomFilter}.
+ */
+class BloomFilterTest {
+
+    @Test
+    void testAddedValuesAreNeverMissed() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        String[] values = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+        for (String value : values) {
+            filter.put(value);
+        }
+
+        assertThat(values).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void testFalsePositivesStayNearTheConfiguredProbability() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("revoked-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("valid-" + i)).count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
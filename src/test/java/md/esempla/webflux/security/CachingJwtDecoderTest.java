@@ -0,0 +1,72 @@
+package md.esempla.webflux.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link CachingJwtDecoder}.
+ */
+class CachingJwtDecoderTest {
+
+    private final AtomicInteger decodings = new AtomicInteger();
+
+    @Test
+    void testVerifiedTokenIsDecodedOnce() {
+        CachingJwtDecoder decoder = decoder(token -> Mono.fromCallable(() -> jwt(token, Instant.now().plusSeconds(60))));
+
+        Jwt first = decoder.decode("valid").block();
+        Jwt second = decoder.decode("valid").block();
+
+        assertThat(second).isSameAs(first);
+        assertThat(decodings).hasValue(1);
+        decoder.decode("other").block();
+        assertThat(decodings).hasValue(2);
+    }
+
+    @Test
+    void testInvalidTokenIsNotCached() {
+        CachingJwtDecoder decoder = decoder(token -> Mono.error(new BadJwtException("Failed to validate the token")));
+
+        assertThatThrownBy(() -> decoder.decode("invalid").block()).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("invalid").block()).isInstanceOf(BadJwtException.class);
+
+        assertThat(decodings).hasValue(2);
+    }
+
+    @Test
+    void testTokenIsNotServedPastItsExpiry() {
+        CachingJwtDecoder decoder = decoder(token -> Mono.fromCallable(() -> jwt(token, Instant.now().minusSeconds(1))));
+
+        decoder.decode("expiring").block();
+        decoder.decode("expiring").block();
+
+        assertThat(decodings).hasValue(2);
+    }
+
+    private CachingJwtDecoder decoder(ReactiveJwtDecoder delegate) {
+        ReactiveJwtDecoder counting = token -> {
+            decodings.incrementAndGet();
+            return delegate.decode(token);
+        };
+        return new CachingJwtDecoder(counting, new ApplicationProperties().getJwtCache(), new SimpleMeterRegistry());
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+            .header("alg", "HS512")
+            .subject("user")
+            .issuedAt(expiresAt.minusSeconds(120))
+            .expiresAt(expiresAt)
+            .build();
+    }
+}
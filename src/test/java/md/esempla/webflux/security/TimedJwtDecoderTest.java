@@ -0,0 +1,95 @@
+package md.esempla.webflux.security;
+
+import static md.esempla.webflux.security.SecurityUtils.JWT_ALGORITHM;
+import static md.esempla.webflux.security.jwt.JwtAuthenticationTestUtils.createExpiredToken;
+import static md.esempla.webflux.security.jwt.JwtAuthenticationTestUtils.createInvalidToken;
+import static md.esempla.webflux.security.jwt.JwtAuthenticationTestUtils.createSignedInvalidJwt;
+import static md.esempla.webflux.security.jwt.JwtAuthenticationTestUtils.createTokenWithDifferentSignature;
+import static md.esempla.webflux.security.jwt.JwtAuthenticationTestUtils.createValidToken;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nimbusds.jose.util.Base64;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javax.crypto.spec.SecretKeySpec;
+import md.esempla.webflux.management.SecurityMetersService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link TimedJwtDecoder}, classifying the errors of the Nimbus decoder.
+ */
+class TimedJwtDecoderTest {
+
+    private static final String JWT_KEY =
+        "YmI2MGU0YzQ1OTFlZjFkNmJkZTJkNDNmMWZhZjkyMDQ2MmZlMGM3MmMzM2IyNzIwNTNlZGEyMmQ5NDRlNjY0ZjhhNmE1NmVlNDEzYzJiYTcwMTk3NGU0ODAxZjFlMzdiM2UyMDU2ODVmM2NhZTUyNGVjNzY0MTdmYWY2MGMxYTc=";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TimedJwtDecoder decoder = new TimedJwtDecoder(
+        NimbusReactiveJwtDecoder.withSecretKey(new SecretKeySpec(Base64.from(JWT_KEY).decode(), JWT_ALGORITHM.getName()))
+            .macAlgorithm(JWT_ALGORITHM)
+            .build(),
+        new SecurityMetersService(meterRegistry)
+    );
+
+    @Test
+    void testValidToken() {
+        decoder.decode(createValidToken(JWT_KEY)).block();
+
+        assertThat(decodeTimeCount("valid")).isEqualTo(1);
+    }
+
+    @Test
+    void testExpiredToken() throws Exception {
+        assertRejected(createExpiredToken(JWT_KEY), "expired");
+    }
+
+    @Test
+    void testTokenWithDifferentSignature() throws Exception {
+        assertRejected(createTokenWithDifferentSignature(), "invalid-signature");
+    }
+
+    @Test
+    void testMalformedTokens() throws Exception {
+        assertRejected(createSignedInvalidJwt(JWT_KEY), "malformed");
+        assertRejected(createInvalidToken(JWT_KEY), "malformed");
+    }
+
+    @Test
+    void testUnsecuredToken() throws Exception {
+        String token = createValidToken(JWT_KEY);
+        String payload = token.substring(token.indexOf('.') + 1, token.lastIndexOf('.'));
+
+        assertRejected(Base64.encode("{\"alg\":\"none\"}").toString().replace("=", "") + "." + payload + ".", "unsupported");
+    }
+
+    @Test
+    void testRevokedToken() {
+        TimedJwtDecoder revokingDecoder = new TimedJwtDecoder(
+            token -> Mono.error(new RevokedJwtException("Revoked JWT")),
+            new SecurityMetersService(meterRegistry)
+        );
+
+        assertThatThrownBy(() -> revokingDecoder.decode("revoked").block()).isInstanceOf(RevokedJwtException.class);
+        assertThat(decodeTimeCount("revoked")).isEqualTo(1);
+    }
+
+    private void assertRejected(String token, String cause) {
+        double invalid = meterRegistry.get(SecurityMetersService.INVALID_TOKENS_METER_NAME).tag("cause", cause).counter().count();
+
+        assertThatThrownBy(() -> decoder.decode(token).block()).isInstanceOf(JwtException.class);
+
+        assertThat(meterRegistry.get(SecurityMetersService.INVALID_TOKENS_METER_NAME).tag("cause", cause).counter().count()).isEqualTo(
+            invalid + 1
+        );
+        assertThat(decodeTimeCount(cause)).isEqualTo((long) invalid + 1);
+    }
+
+    private long decodeTimeCount(String outcome) {
+        return meterRegistry.get(SecurityMetersService.JWT_DECODE_TIME_METER_NAME).tag("outcome", outcome).timer().count();
+    }
+}
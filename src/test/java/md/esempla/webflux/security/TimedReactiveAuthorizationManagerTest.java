@@ -0,0 +1,61 @@
+package md.esempla.webflux.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import md.esempla.webflux.management.SecurityMetersService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link TimedReactiveAuthorizationManager}.
+ */
+class TimedReactiveAuthorizationManagerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testResultOfTheDelegateIsTimedByOutcome() {
+        assertThat(authorize(Mono.just(new AuthorizationDecision(true))).block().isGranted()).isTrue();
+        assertThat(authorize(Mono.just(new AuthorizationDecision(false))).block().isGranted()).isFalse();
+        assertThat(authorize(Mono.empty()).block()).isNull();
+
+        assertThat(authorizationTimeCount("granted")).isEqualTo(1);
+        assertThat(authorizationTimeCount("denied")).isEqualTo(2);
+    }
+
+    @Test
+    void testErrorOfTheDelegateIsTimed() {
+        authorize(Mono.error(new IllegalStateException())).onErrorComplete().block();
+
+        assertThat(authorizationTimeCount("error")).isEqualTo(1);
+    }
+
+    private Mono<AuthorizationResult> authorize(Mono<AuthorizationResult> result) {
+        ReactiveAuthorizationManager<Object> delegate = new ReactiveAuthorizationManager<>() {
+            @Override
+            @Deprecated
+            public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, Object object) {
+                throw new AssertionError("The deprecated check should not be called");
+            }
+
+            @Override
+            public Mono<AuthorizationResult> authorize(Mono<Authentication> authentication, Object object) {
+                return result;
+            }
+        };
+        return new TimedReactiveAuthorizationManager<>(delegate, new SecurityMetersService(meterRegistry)).authorize(
+            Mono.empty(),
+            new Object()
+        );
+    }
+
+    private long authorizationTimeCount(String outcome) {
+        return meterRegistry.get(SecurityMetersService.AUTHORIZATION_TIME_METER_NAME).tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,82 @@
+package md.esempla.webflux.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link TokenRevocationList}.
+ */
+class TokenRevocationListTest {
+
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setup() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        when(revokedTokenRepository.insert(anyString(), anyString(), any())).thenReturn(Mono.empty());
+        when(revokedTokenRepository.deleteExpired(any())).thenReturn(Mono.just(0L));
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getTokenRevocation().setExpectedRevocations(2);
+        tokenRevocationList = new TokenRevocationList(revokedTokenRepository, applicationProperties);
+    }
+
+    @Test
+    void testRevokedTokensAreRejectedRightAway() {
+        tokenRevocationList.revoke("revoked", "user", Instant.now().plusSeconds(60)).block();
+
+        assertThat(tokenRevocationList.isRevoked("revoked")).isTrue();
+        assertThat(tokenRevocationList.isRevoked("valid")).isFalse();
+        assertThat(tokenRevocationList.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void testTokensRevokedByOtherInstancesAreLoaded() {
+        Instant revokedAt = Instant.now();
+        Instant expiresAt = revokedAt.plusSeconds(60);
+        when(revokedTokenRepository.findRevokedSince(any(), any())).thenReturn(
+            Flux.range(0, 5).map(i -> new RevokedTokenRepository.RevokedToken("revoked-" + i, expiresAt, revokedAt))
+        );
+
+        tokenRevocationList.load().block();
+
+        // More tokens than expected were revoked, so the filter was rebuilt larger without losing any of them
+        for (int i = 0; i < 5; i++) {
+            assertThat(tokenRevocationList.isRevoked("revoked-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void testRevocationsAreForgottenOnceTheTokensExpire() {
+        tokenRevocationList.revoke("expired", "user", Instant.now().minusSeconds(1)).block();
+        tokenRevocationList.revoke("revoked", "user", Instant.now().plusSeconds(60)).block();
+
+        tokenRevocationList.removeExpiredRevocations().block();
+
+        assertThat(tokenRevocationList.isRevoked("expired")).isFalse();
+        assertThat(tokenRevocationList.isRevoked("revoked")).isTrue();
+    }
+
+    @Test
+    void testRevocationsAreForgottenWhenTheDatabaseFails() {
+        when(revokedTokenRepository.deleteExpired(any())).thenReturn(Mono.error(new IllegalStateException("database down")));
+        tokenRevocationList.revoke("expired", "user", Instant.now().minusSeconds(1)).block();
+
+        assertThatCode(() -> tokenRevocationList.removeExpiredRevocations().block()).doesNotThrowAnyException();
+
+        assertThat(tokenRevocationList.isRevoked("expired")).isFalse();
+    }
+}
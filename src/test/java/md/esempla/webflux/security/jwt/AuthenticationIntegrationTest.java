@@ -7,7 +7,11 @@ import java.lang.annotation.Target;
 import md.esempla.webflux.config.SecurityConfiguration;
 import md.esempla.webflux.config.SecurityJwtConfiguration;
 import md.esempla.webflux.config.WebConfigurer;
+import md.esempla.webflux.management.PasswordHashingMetersService;
+import md.esempla.webflux.management.RequestDeadlineMetersService;
 import md.esempla.webflux.management.SecurityMetersService;
+import md.esempla.webflux.service.LoginThrottlingService;
+import md.esempla.webflux.service.PasswordHashingService;
 import md.esempla.webflux.web.rest.AuthenticateController;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.context.annotation.ComponentScan;
@@ -23,6 +27,10 @@ import tech.jhipster.config.JHipsterProperties;
         SecurityConfiguration.class,
         SecurityJwtConfiguration.class,
         SecurityMetersService.class,
+        RequestDeadlineMetersService.class,
+        PasswordHashingMetersService.class,
+        PasswordHashingService.class,
+        LoginThrottlingService.class,
         JwtAuthenticationTestUtils.class,
     }
 )
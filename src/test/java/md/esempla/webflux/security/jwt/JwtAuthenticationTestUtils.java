@@ -13,6 +13,8 @@ import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import md.esempla.webflux.repository.UserRepository;
+import md.esempla.webflux.security.TokenRevocationList;
+import md.esempla.webflux.service.RefreshTokenService;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
@@ -37,6 +39,12 @@ public class JwtAuthenticationTestUtils {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
     public static String createValidToken(String jwtKey) {
         return createValidTokenForUser(jwtKey, "anonymous");
     }
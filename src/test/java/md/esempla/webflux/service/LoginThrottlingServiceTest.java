@@ -0,0 +1,111 @@
+package md.esempla.webflux.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.SecurityMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link LoginThrottlingService}.
+ */
+class LoginThrottlingServiceTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getLoginThrottling().setLoginCapacity(2);
+        applicationProperties.getLoginThrottling().setAddressCapacity(3);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testLoginIsThrottledOnceItsBucketIsEmpty() {
+        LoginThrottlingService service = service();
+
+        service.acquire("user", "10.0.0.1");
+        service.acquire("USER", "10.0.0.2");
+        TooManyRequestsException rejection = catchThrowableOfType(TooManyRequestsException.class, () ->
+            service.acquire("user", "10.0.0.3")
+        );
+
+        assertThat(rejection.getRetryAfter()).isEqualTo(Duration.ofSeconds(12));
+        assertThatCode(() -> service.acquire("admin", "10.0.0.3")).doesNotThrowAnyException();
+        assertThat(throttled("login")).isEqualTo(1);
+    }
+
+    @Test
+    void testAddressIsThrottledWhateverTheLogins() {
+        LoginThrottlingService service = service();
+
+        service.acquire("user1", "10.0.0.1");
+        service.acquire("user2", "10.0.0.1");
+        service.acquire("user3", "10.0.0.1");
+
+        assertThat(catchThrowableOfType(TooManyRequestsException.class, () -> service.acquire("user4", "10.0.0.1"))).isNotNull();
+        assertThat(throttled("ip")).isEqualTo(1);
+        assertThat(throttled("login")).isZero();
+    }
+
+    @Test
+    void testThrottledLoginDoesNotDrainItsAddress() {
+        LoginThrottlingService service = service();
+        service.acquire("user", "10.0.0.1");
+        service.acquire("user", "10.0.0.1");
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(catchThrowableOfType(TooManyRequestsException.class, () -> service.acquire("user", "10.0.0.1"))).isNotNull();
+        }
+
+        assertThatCode(() -> service.acquire("admin", "10.0.0.1")).doesNotThrowAnyException();
+        assertThat(throttled("login")).isEqualTo(5);
+        assertThat(throttled("ip")).isZero();
+    }
+
+    @Test
+    void testBucketsAreRefilledOverTime() throws Exception {
+        applicationProperties.getLoginThrottling().setLoginRefillInterval(Duration.ofMillis(50));
+        LoginThrottlingService service = service();
+        // loads the assertions before the first attempt, as loading them may take longer than a refill
+        assertThat(catchThrowableOfType(TooManyRequestsException.class, () -> {})).isNull();
+        service.acquire("user", null);
+        service.acquire("user", null);
+        assertThat(catchThrowableOfType(TooManyRequestsException.class, () -> service.acquire("user", null))).isNotNull();
+
+        Thread.sleep(120);
+
+        service.acquire("user", null);
+        service.acquire("user", null);
+        assertThat(catchThrowableOfType(TooManyRequestsException.class, () -> service.acquire("user", null))).isNotNull();
+    }
+
+    @Test
+    void testThrottlingCanBeDisabled() {
+        applicationProperties.getLoginThrottling().setEnabled(false);
+        LoginThrottlingService service = service();
+
+        assertThatCode(() -> {
+            for (int i = 0; i < 10; i++) {
+                service.acquire("user", "10.0.0.1");
+            }
+        }).doesNotThrowAnyException();
+    }
+
+    private LoginThrottlingService service() {
+        return new LoginThrottlingService(applicationProperties, new SecurityMetersService(meterRegistry));
+    }
+
+    private double throttled(String key) {
+        return meterRegistry.get(SecurityMetersService.THROTTLED_LOGINS_METER_NAME).tag("key", key).counter().count();
+    }
+}
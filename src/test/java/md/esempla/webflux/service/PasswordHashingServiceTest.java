@@ -0,0 +1,92 @@
+package md.esempla.webflux.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.PasswordHashingMetersService;
+import md.esempla.webflux.security.TimedPasswordEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the admission control of the {@link PasswordHashingService}.
+ */
+class PasswordHashingServiceTest {
+
+    private MeterRegistry meterRegistry;
+
+    private PasswordHashingMetersService metersService;
+
+    private CountDownLatch started;
+
+    private CountDownLatch release;
+
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        metersService = new PasswordHashingMetersService(meterRegistry);
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPasswordHashing().setThreads(1);
+        applicationProperties.getPasswordHashing().setQueueCapacity(1);
+        applicationProperties.getPasswordHashing().setRetryAfter(Duration.ofSeconds(2));
+        passwordHashingService = new PasswordHashingService(applicationProperties, metersService, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void testHashingIsRejectedWhenTheQueueIsFull() throws InterruptedException {
+        Mono<String> running = passwordHashingService.run(this::blockedHashing).cache();
+        running.subscribe();
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        Mono<String> queued = passwordHashingService.run(() -> "queued").cache();
+        queued.subscribe();
+
+        assertThatThrownBy(() -> passwordHashingService.run(() -> "rejected").block())
+            .isInstanceOf(TooManyRequestsException.class)
+            .extracting(e -> ((TooManyRequestsException) e).getRetryAfter())
+            .isEqualTo(Duration.ofSeconds(2));
+        assertThat(meterRegistry.get("security.password.hashing.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "password-hashing").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+
+        assertThat(running.block()).isEqualTo("running");
+        assertThat(queued.block()).isEqualTo("queued");
+    }
+
+    @Test
+    void testHashingAndVerificationAreTimed() {
+        PasswordEncoder passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), metersService);
+
+        String hash = passwordHashingService.run(() -> passwordEncoder.encode("password")).block();
+
+        assertThat(passwordHashingService.run(() -> passwordEncoder.matches("password", hash)).block()).isTrue();
+        assertThat(meterRegistry.get("security.password.hash.time").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.password.verify.time").tag("outcome", "match").timer().count()).isEqualTo(1);
+    }
+
+    private String blockedHashing() throws InterruptedException {
+        started.countDown();
+        release.await(10, TimeUnit.SECONDS);
+        return "running";
+    }
+}
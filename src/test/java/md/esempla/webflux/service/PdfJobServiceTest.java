@@ -0,0 +1,100 @@
+package md.esempla.webflux.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import md.esempla.webflux.service.dto.PdfJobDTO;
+import md.esempla.webflux.service.dto.PdfJobRequestDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link PdfJobService}.
+ */
+class PdfJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private PostExportService postExportService;
+
+    private ApplicationProperties applicationProperties;
+
+    private PdfJobService pdfJobService;
+
+    @BeforeEach
+    void setup() throws Exception {
+        postExportService = mock(PostExportService.class);
+        PostService postService = mock(PostService.class);
+        when(postService.countByCriteria(any())).thenReturn(Mono.just(5L));
+        when(postExportService.rowCap(any())).thenReturn(3);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getPdfJobs().setMaxJobsPerUser(1);
+        applicationProperties.getPdfJobs().setDirectory(directory.toString());
+        pdfJobService = new PdfJobService(postExportService, postService, applicationProperties);
+        pdfJobService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pdfJobService.stop();
+    }
+
+    @Test
+    void testUserCannotRunTooManyJobs() {
+        when(postExportService.exportToPdf(anyString(), any(PostCriteria.class), anyInt(), any())).thenReturn(Mono.never());
+        pdfJobService.submit("user", new PdfJobRequestDTO()).block();
+
+        assertThatThrownBy(() -> pdfJobService.submit("user", new PdfJobRequestDTO()).block()).isInstanceOf(TooManyRequestsException.class);
+        assertThat(pdfJobService.submit("other", new PdfJobRequestDTO()).block()).isNotNull();
+    }
+
+    @Test
+    void testCompletedJobIsStoredUntilItExpires() throws Exception {
+        Path export = Files.createTempFile("pdf-", ".pdf");
+        when(postExportService.exportToPdf(anyString(), any(PostCriteria.class), anyInt(), any())).thenReturn(
+            Mono.just(new PdfExport(export, true))
+        );
+        applicationProperties.getPdfJobs().setTtl(Duration.ZERO);
+
+        String id = pdfJobService.submit("user", new PdfJobRequestDTO()).block().getId();
+
+        PdfJobDTO job = awaitFinished(id);
+        assertThat(job.getStatus()).isEqualTo(PdfJobDTO.Status.COMPLETED);
+        assertThat(job.getTotalRows()).isEqualTo(3);
+        assertThat(job.isTruncated()).isTrue();
+        Path result = pdfJobService.findResult("user", id).block();
+        assertThat(result).exists().hasParent(directory);
+        assertThat(export).doesNotExist();
+        assertThat(pdfJobService.findOne("other", id).blockOptional()).isEmpty();
+
+        pdfJobService.removeExpiredJobs();
+
+        assertThat(pdfJobService.findOne("user", id).blockOptional()).isEmpty();
+        assertThat(result).doesNotExist();
+    }
+
+    private PdfJobDTO awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            PdfJobDTO job = pdfJobService.findOne("user", id).block();
+            if (job.getStatus() == PdfJobDTO.Status.COMPLETED || job.getStatus() == PdfJobDTO.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("The job did not finish");
+    }
+}
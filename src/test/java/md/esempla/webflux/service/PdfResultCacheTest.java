@@ -0,0 +1,101 @@
+package md.esempla.webflux.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import md.esempla.webflux.repository.RowSetVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Unit tests for the {@link PdfResultCache}.
+ */
+class PdfResultCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private PdfResultCache pdfResultCache;
+
+    @BeforeEach
+    void setup() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPdfCache().setDirectory(directory.toString());
+        applicationProperties.getPdfCache().setMaximumSize(DataSize.ofKilobytes(3));
+        pdfResultCache = new PdfResultCache(applicationProperties, new SimpleMeterRegistry());
+        pdfResultCache.start();
+    }
+
+    @Test
+    void testKeyChangesWithTheCriteriaAndTheVersionOfTheRows() {
+        PostCriteria criteria = new PostCriteria();
+        RowSetVersion version = new RowSetVersion(2, "a");
+        String key = pdfResultCache.key("sample", criteria, 10, version);
+
+        assertThat(pdfResultCache.key("sample", criteria.copy(), 10, new RowSetVersion(2, "a"))).isEqualTo(key);
+        assertThat(pdfResultCache.key("sample", criteria, 10, new RowSetVersion(2, "b"))).isNotEqualTo(key);
+        assertThat(pdfResultCache.key("sample", criteria, 20, version)).isNotEqualTo(key);
+        assertThat(pdfResultCache.key("other", criteria, 10, version)).isNotEqualTo(key);
+        PostCriteria filtered = new PostCriteria();
+        filtered.title().setContains("title");
+        assertThat(pdfResultCache.key("sample", filtered, 10, version)).isNotEqualTo(key);
+    }
+
+    @Test
+    void testCacheStaysWithinItsSizeBudget() throws Exception {
+        pdfResultCache.put("first", export(1500)).orElseThrow().close();
+        try (PdfResultCache.CachedPdf first = pdfResultCache.get("first").orElseThrow()) {
+            assertThat(first.truncated()).isFalse();
+        }
+
+        pdfResultCache.put("second", export(1500)).orElseThrow().close();
+
+        assertThat(Stream.of("first", "second").filter(key -> pdfResultCache.get(key).isPresent())).hasSize(1);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void testRemovedFileIsKeptUntilItIsSent() throws Exception {
+        pdfResultCache.put("first", export(1500)).orElseThrow().close();
+        PdfResultCache.CachedPdf sending = pdfResultCache.get("first").orElseThrow();
+
+        pdfResultCache.put("first", export(1500)).orElseThrow().close();
+
+        try (PdfResultCache.CachedPdf replacement = pdfResultCache.get("first").orElseThrow()) {
+            assertThat(replacement.file()).isNotEqualTo(sending.file());
+        }
+        assertThat(sending.file()).exists();
+        sending.close();
+        assertThat(sending.file()).doesNotExist();
+        sending.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void testExportLargerThanTheCacheIsLeftToTheCaller() throws Exception {
+        PdfExport export = export(4000);
+
+        assertThat(pdfResultCache.put("large", export)).isEmpty();
+
+        assertThat(export.file()).exists();
+        assertThat(pdfResultCache.get("large")).isEmpty();
+        Files.delete(export.file());
+    }
+
+    private static PdfExport export(int size) throws Exception {
+        Path file = Files.createTempFile("pdf-", ".pdf");
+        Files.write(file, new byte[size]);
+        return new PdfExport(file, false);
+    }
+}
@@ -0,0 +1,161 @@
+package md.esempla.webflux.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.Post;
+import md.esempla.webflux.management.PdfRenderingMetersService;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the admission control and the chunked rendering of the {@link PdfService}.
+ */
+class PdfServiceTest {
+
+    private static final String TEMPLATE = "templates/sample.mustache";
+
+    private static final Post POST = new Post().title("title").content("content");
+
+    private MeterRegistry meterRegistry;
+
+    private CountDownLatch started;
+
+    private CountDownLatch release;
+
+    private PdfService pdfService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPdfRendering().setThreads(1);
+        applicationProperties.getPdfRendering().setQueueCapacity(1);
+        applicationProperties.getPdfRendering().setRetryAfter(Duration.ofSeconds(3));
+        pdfService = new PdfService(
+            applicationProperties,
+            new PdfTemplateRegistry(applicationProperties),
+            new PdfRenderingMetersService(meterRegistry),
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pdfService.shutdown();
+    }
+
+    @Test
+    void testRenderingIsRejectedWhenTheQueueIsFull() throws Exception {
+        Mono<Path> running = pdfService.renderToFile(TEMPLATE, blockingChunk()).cache();
+        running.subscribe();
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        Mono<Path> queued = pdfService.renderToFile(TEMPLATE, chunk(true)).cache();
+        queued.subscribe();
+
+        assertThatThrownBy(() -> pdfService.renderToFile(TEMPLATE, chunk(true)).block())
+            .isInstanceOf(TooManyRequestsException.class)
+            .extracting(e -> ((TooManyRequestsException) e).getRetryAfter())
+            .isEqualTo(Duration.ofSeconds(3));
+        assertThat(meterRegistry.get("pdf.render.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "pdf-render").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+
+        assertPages(running.block(), 1);
+        assertPages(queued.block(), 1);
+        assertThat(meterRegistry.get("pdf.render.time").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testChunksAreAppendedToTheSameFile() throws Exception {
+        Path file = pdfService.renderToFile(TEMPLATE, chunk(true).concatWith(chunk(false))).block();
+
+        assertPages(file, 2);
+        assertThat(meterRegistry.get("pdf.render.time").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFileIsDeletedWhenTheRenderingIsCancelled() throws Exception {
+        Set<Path> filesBefore = temporaryPdfs();
+
+        Disposable rendering = pdfService.renderToFile(TEMPLATE, blockingChunk()).subscribe();
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        rendering.dispose();
+        release.countDown();
+        // the single rendering thread runs the next rendering only once the cancelled one is done
+        assertPages(pdfService.renderToFile(TEMPLATE, chunk(true)).block(), 1);
+
+        assertThat(meterRegistry.get("pdf.render.time").timer().count()).isEqualTo(2);
+        assertThat(temporaryPdfs()).isSubsetOf(filesBefore);
+    }
+
+    @Test
+    void testQueuedRenderingIsSkippedWhenCancelled() throws Exception {
+        Mono<Path> running = pdfService.renderToFile(TEMPLATE, blockingChunk()).cache();
+        running.subscribe();
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        pdfService.renderToFile(TEMPLATE, chunk(true)).subscribe().dispose();
+        release.countDown();
+
+        assertPages(running.block(), 1);
+        assertPages(pdfService.renderToFile(TEMPLATE, chunk(true)).block(), 1);
+        assertThat(meterRegistry.get("pdf.render.time").timer().count()).isEqualTo(2);
+    }
+
+    /**
+     * A chunk which is only read once the test releases it, keeping the single rendering thread busy until then.
+     */
+    private Flux<Map<String, Object>> blockingChunk() {
+        return Flux.defer(() -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return chunk(true);
+        });
+    }
+
+    private static Flux<Map<String, Object>> chunk(boolean first) {
+        return Flux.just(Map.of("first", first, "posts", List.of(POST)));
+    }
+
+    private static void assertPages(Path file, int pages) throws IOException {
+        try (PDDocument document = PDDocument.load(file.toFile())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(pages);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Set<Path> temporaryPdfs() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("pdf-")).collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package md.esempla.webflux.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.mustachejava.Mustache;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Unit tests for the {@link PdfTemplateRegistry}.
+ */
+class PdfTemplateRegistryTest {
+
+    private static final String TEMPLATE = "templates/registry-test.mustache";
+
+    private Path template;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (template != null) {
+            Files.deleteIfExists(template);
+        }
+    }
+
+    @Test
+    void testTemplatesAreCompiledOnceWithTheSharedStylesheet() {
+        PdfTemplateRegistry registry = new PdfTemplateRegistry(new ApplicationProperties());
+
+        Mustache mustache = registry.template("templates/sample.mustache");
+
+        assertThat(registry.template("templates/sample.mustache")).isSameAs(mustache);
+        assertThat(render(registry, mustache, Map.of("first", true))).contains("<h1>All Posts</h1>").contains("font-family: sans-serif");
+    }
+
+    @Test
+    void testTemplatesAreReloadedWhenTheyChange() throws Exception {
+        template = Path.of(new ClassPathResource("templates").getURI()).resolve("registry-test.mustache");
+        Files.writeString(template, "before {{value}}");
+        Files.setLastModifiedTime(template, FileTime.fromMillis(1_000_000));
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPdfRendering().setReloadTemplates(true);
+        PdfTemplateRegistry registry = new PdfTemplateRegistry(applicationProperties);
+        assertThat(render(registry, registry.template(TEMPLATE), Map.of("value", 1))).isEqualTo("before 1");
+
+        Files.writeString(template, "after {{value}}");
+        Files.setLastModifiedTime(template, FileTime.fromMillis(2_000_000));
+
+        assertThat(render(registry, registry.template(TEMPLATE), Map.of("value", 1))).isEqualTo("after 1");
+    }
+
+    private static String render(PdfTemplateRegistry registry, Mustache mustache, Map<String, Object> data) {
+        StringWriter writer = new StringWriter();
+        mustache.execute(writer, registry.scopes(data));
+        return writer.toString();
+    }
+}
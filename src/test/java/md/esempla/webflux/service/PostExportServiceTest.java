@@ -0,0 +1,91 @@
+package md.esempla.webflux.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.Post;
+import md.esempla.webflux.domain.criteria.PostCriteria;
+import md.esempla.webflux.management.PdfRenderingMetersService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Unit tests for the reading of the posts by chunks of the {@link PostExportService}.
+ */
+class PostExportServiceTest {
+
+    private final List<Post> posts = LongStream.rangeClosed(1, 7).mapToObj(id -> new Post().id(id).title("title " + id)).toList();
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private PdfService pdfService;
+
+    private PostExportService postExportService;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPdfRendering().setChunkSize(3);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        pdfService = new PdfService(
+            applicationProperties,
+            new PdfTemplateRegistry(applicationProperties),
+            new PdfRenderingMetersService(meterRegistry),
+            meterRegistry
+        );
+        PostService postService = mock(PostService.class);
+        when(postService.streamByCriteria(any(), any())).thenAnswer(invocation -> {
+            PostCriteria criteria = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            Long afterId = criteria.getId() != null ? criteria.getId().getGreaterThan() : null;
+            return Flux.defer(() -> {
+                queries.incrementAndGet();
+                return Flux.fromIterable(posts)
+                    .filter(post -> afterId == null || post.getId() > afterId)
+                    .take(pageable.getPageSize());
+            });
+        });
+        postExportService = new PostExportService(pdfService, postService, applicationProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pdfService.shutdown();
+    }
+
+    @Test
+    void testPostsAreReadByChunks() throws Exception {
+        List<Long> rows = new ArrayList<>();
+
+        PdfExport export = postExportService.exportToPdf(PostExportService.DEFAULT_TEMPLATE, new PostCriteria(), 10, rows::add).block();
+
+        Files.delete(export.file());
+        assertThat(export.truncated()).isFalse();
+        assertThat(rows).containsExactly(3L, 3L, 1L);
+        assertThat(queries).hasValue(3);
+    }
+
+    @Test
+    void testExportIsTruncatedAtTheRowCap() throws Exception {
+        List<Long> rows = new ArrayList<>();
+
+        PdfExport export = postExportService.exportToPdf(PostExportService.DEFAULT_TEMPLATE, new PostCriteria(), 5, rows::add).block();
+
+        Files.delete(export.file());
+        assertThat(export.truncated()).isTrue();
+        assertThat(rows).containsExactly(3L, 2L);
+        assertThat(queries).hasValue(2);
+    }
+}
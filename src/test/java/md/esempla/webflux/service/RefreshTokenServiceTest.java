@@ -0,0 +1,110 @@
+package md.esempla.webflux.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.domain.RefreshToken;
+import md.esempla.webflux.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link RefreshTokenService}.
+ */
+class RefreshTokenServiceTest {
+
+    private final List<RefreshToken> saved = new ArrayList<>();
+
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setup() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId((long) saved.size() + 1);
+            saved.add(token);
+            return Mono.just(token);
+        });
+        when(refreshTokenRepository.findOneByTokenHash(anyString())).thenAnswer(invocation ->
+            Mono.justOrEmpty(saved.stream().filter(token -> token.getTokenHash().equals(invocation.getArgument(0))).findFirst())
+        );
+        when(refreshTokenRepository.markUsed(any(), any())).thenReturn(Mono.just(1));
+        when(refreshTokenRepository.deleteByFamilyId(any())).thenReturn(Mono.just(2));
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, new ApplicationProperties());
+    }
+
+    @Test
+    void testIssuedTokenIsStoredHashed() {
+        RefreshTokenService.IssuedToken issued = refreshTokenService.issue("user", true).block();
+
+        assertThat(issued.login()).isEqualTo("user");
+        assertThat(saved).singleElement().satisfies(token -> {
+            assertThat(token.getTokenHash()).hasSize(64).isNotEqualTo(issued.value());
+            assertThat(token.getExpiresAt()).isAfter(Instant.now().plus(Duration.ofDays(29)));
+        });
+    }
+
+    @Test
+    void testRotationKeepsTheFamilyAndItsExpiry() {
+        RefreshTokenService.IssuedToken first = refreshTokenService.issue("user", false).block();
+
+        RefreshTokenService.IssuedToken second = refreshTokenService.rotate(first.value()).block();
+
+        assertThat(second.login()).isEqualTo("user");
+        assertThat(second.value()).isNotEqualTo(first.value());
+        assertThat(saved).hasSize(2);
+        assertThat(saved.get(1).getFamilyId()).isEqualTo(saved.get(0).getFamilyId());
+        assertThat(saved.get(1).getExpiresAt()).isEqualTo(saved.get(0).getExpiresAt());
+        verify(refreshTokenRepository).markUsed(eq(1L), any());
+    }
+
+    @Test
+    void testReusedTokenRevokesItsFamily() {
+        RefreshTokenService.IssuedToken first = refreshTokenService.issue("user", false).block();
+        saved.get(0).setUsedAt(Instant.now());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first.value()).block()).isInstanceOf(BadCredentialsException.class);
+
+        verify(refreshTokenRepository).deleteByFamilyId(saved.get(0).getFamilyId());
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+    }
+
+    @Test
+    void testConcurrentExchangeRevokesTheFamily() {
+        RefreshTokenService.IssuedToken first = refreshTokenService.issue("user", false).block();
+        when(refreshTokenRepository.markUsed(any(), any())).thenReturn(Mono.just(0));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first.value()).block()).isInstanceOf(BadCredentialsException.class);
+
+        verify(refreshTokenRepository).deleteByFamilyId(saved.get(0).getFamilyId());
+        assertThat(saved).hasSize(1);
+    }
+
+    @Test
+    void testExpiredAndUnknownTokensAreRejected() {
+        RefreshTokenService.IssuedToken first = refreshTokenService.issue("user", false).block();
+        saved.get(0).setExpiresAt(Instant.now().minusSeconds(1));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first.value()).block()).isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown").block()).isInstanceOf(BadCredentialsException.class);
+        verify(refreshTokenRepository, never()).deleteByFamilyId(any(UUID.class));
+    }
+}
@@ -11,6 +11,7 @@ import java.util.Optional;
 import md.esempla.webflux.IntegrationTest;
 import md.esempla.webflux.config.Constants;
 import md.esempla.webflux.domain.User;
+import md.esempla.webflux.repository.UserCache;
 import md.esempla.webflux.repository.UserRepository;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -40,6 +41,9 @@ class UserServiceIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
     private UserService userService;
 
@@ -63,6 +67,7 @@ class UserServiceIT {
     public void cleanupAndCheck() {
         userRepository.deleteAllUserAuthorities().block();
         userRepository.deleteAll().block();
+        userCache.evictAll().block();
     }
 
     @Test
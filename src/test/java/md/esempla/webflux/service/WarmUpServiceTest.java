@@ -0,0 +1,83 @@
+package md.esempla.webflux.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.repository.CommentRepository;
+import md.esempla.webflux.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class WarmUpServiceTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private PostRepository postRepository;
+
+    private CommentRepository commentRepository;
+
+    private WarmUpService warmUpService;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getWarmUp().setIterations(3);
+        postRepository = mock(PostRepository.class);
+        commentRepository = mock(CommentRepository.class);
+        when(postRepository.findByCriteria(any(), any())).thenReturn(Flux.empty());
+        when(postRepository.findSummariesByCriteria(any(), any())).thenReturn(Flux.empty());
+        when(postRepository.countByCriteria(any())).thenReturn(Mono.just(0L));
+        when(postRepository.findById(any(Long.class))).thenReturn(Mono.empty());
+        when(commentRepository.findByCriteria(any(), any())).thenReturn(Flux.empty());
+        when(commentRepository.countByCriteria(any())).thenReturn(Mono.just(0L));
+        when(commentRepository.findById(any(Long.class))).thenReturn(Mono.empty());
+
+        warmUpService = new WarmUpService(
+            applicationProperties,
+            mock(ConnectionFactory.class),
+            postRepository,
+            commentRepository,
+            new ObjectMapper().registerModule(new JavaTimeModule())
+        );
+    }
+
+    @Test
+    void testEachQueryShapeIsExecutedForEveryIteration() {
+        assertThat(warmUpService.isComplete()).isFalse();
+
+        warmUpService.warmUp().block();
+
+        assertThat(warmUpService.isComplete()).isTrue();
+        verify(postRepository, times(6)).findByCriteria(any(), any());
+        verify(postRepository, times(3)).findSummariesByCriteria(any(), any());
+        verify(commentRepository, times(6)).findByCriteria(any(), any());
+        verify(commentRepository, times(3)).countByCriteria(any());
+    }
+
+    @Test
+    void testWarmUpStopsWhenTimeBudgetRunsOut() {
+        applicationProperties.getWarmUp().setTimeBudget(Duration.ofMillis(50));
+        when(postRepository.findByCriteria(any(), any())).thenReturn(Flux.never());
+
+        warmUpService.warmUp().block(Duration.ofSeconds(5));
+
+        assertThat(warmUpService.isComplete()).isTrue();
+    }
+
+    @Test
+    void testWarmUpFailureDoesNotBlockReadiness() {
+        when(commentRepository.findById(any(Long.class))).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+
+        warmUpService.warmUp().block();
+
+        assertThat(warmUpService.isComplete()).isTrue();
+    }
+}
@@ -0,0 +1,120 @@
+package md.esempla.webflux.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.RequestDeadlineMetersService;
+import md.esempla.webflux.repository.RequestDeadline;
+import md.esempla.webflux.repository.RequestDeadlineExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link RequestDeadlineWebFilter}.
+ */
+class RequestDeadlineWebFilterTest {
+
+    private ApplicationProperties.Deadline properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        properties = new ApplicationProperties().getDeadline();
+        properties.setDefaultTimeout(Duration.ofSeconds(30));
+        properties.setMaxTimeout(Duration.ofSeconds(60));
+        properties.getEndpoints().put("/api/posts", Duration.ofSeconds(5));
+        properties.getEndpoints().put("/api/posts/count", Duration.ofSeconds(1));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private RequestDeadlineWebFilter filter() {
+        return new RequestDeadlineWebFilter(properties, new RequestDeadlineMetersService(meterRegistry));
+    }
+
+    @Test
+    void testLongestEndpointPrefixWins() {
+        assertThat(filter().resolveTimeout(MockServerHttpRequest.get("/api/posts/count").build())).isEqualTo(Duration.ofSeconds(1));
+        assertThat(filter().resolveTimeout(MockServerHttpRequest.get("/api/posts/1").build())).isEqualTo(Duration.ofSeconds(5));
+        assertThat(filter().resolveTimeout(MockServerHttpRequest.get("/api/comments").build())).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void testHeaderOverridesDefaultsUpToMaximum() {
+        assertThat(filter().resolveTimeout(withTimeoutHeader("250"))).isEqualTo(Duration.ofMillis(250));
+        assertThat(filter().resolveTimeout(withTimeoutHeader("600000"))).isEqualTo(Duration.ofSeconds(60));
+        assertThat(filter().resolveTimeout(withTimeoutHeader("soon"))).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    private static MockServerHttpRequest withTimeoutHeader(String value) {
+        return MockServerHttpRequest.get("/api/posts").header(RequestDeadlineWebFilter.TIMEOUT_HEADER, value).build();
+    }
+
+    @Test
+    void testNonApiRequestsHaveNoDeadline() {
+        assertThat(filter().resolveTimeout(MockServerHttpRequest.get("/management/health").build())).isNull();
+        properties.setEnabled(false);
+        assertThat(filter().resolveTimeout(MockServerHttpRequest.get("/api/posts").build())).isNull();
+    }
+
+    @Test
+    void testDeadlineIsPutInContext() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/posts"));
+        AtomicReference<RequestDeadline> deadline = new AtomicReference<>();
+
+        filter()
+            .filter(exchange, e ->
+                Mono.deferContextual(context -> Mono.justOrEmpty(RequestDeadline.from(context))).doOnNext(deadline::set).then()
+            )
+            .block();
+
+        assertThat(deadline.get()).isNotNull();
+        assertThat(deadline.get().remaining()).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testExpiredRequestIsAborted() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/posts").header(RequestDeadlineWebFilter.TIMEOUT_HEADER, "10")
+        );
+
+        assertThatThrownBy(() -> filter().filter(exchange, e -> Mono.never()).block()).isInstanceOf(RequestDeadlineExceededException.class);
+        assertThat(meterRegistry.get(RequestDeadlineMetersService.DEADLINE_EXCEEDED_METER_NAME).tag("stage", "request").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testCommittedResponseIsNotAborted() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/pdf/generate").header(RequestDeadlineWebFilter.TIMEOUT_HEADER, "200")
+        );
+        DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
+
+        filter()
+            .filter(exchange, e ->
+                e
+                    .getResponse()
+                    .writeWith(
+                        Flux.concat(
+                            Mono.fromSupplier(() -> bufferFactory.wrap("head".getBytes(StandardCharsets.UTF_8))),
+                            Mono.delay(Duration.ofMillis(400)).map(tick -> bufferFactory.wrap("tail".getBytes(StandardCharsets.UTF_8)))
+                        )
+                    )
+            )
+            .block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("headtail");
+        assertThat(meterRegistry.get(RequestDeadlineMetersService.DEADLINE_EXCEEDED_METER_NAME).tag("stage", "request").counter().count())
+            .isZero();
+    }
+}
@@ -0,0 +1,64 @@
+package md.esempla.webflux.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Unit tests for the {@link ResponseResourcesWebFilter}.
+ */
+class ResponseResourcesWebFilterTest {
+
+    private final ResponseResourcesWebFilter filter = new ResponseResourcesWebFilter();
+
+    @Test
+    void testResourcesAreClosedOnceTheResponseIsWritten() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/pdf/generate"));
+        AtomicInteger closed = new AtomicInteger();
+        Sinks.Empty<Void> written = Sinks.empty();
+
+        filter
+            .filter(exchange, e -> {
+                ResponseResourcesWebFilter.closeAfterResponse(e, closed::incrementAndGet);
+                return written.asMono();
+            })
+            .subscribe();
+
+        assertThat(closed).hasValue(0);
+        written.tryEmitEmpty();
+        assertThat(closed).hasValue(1);
+    }
+
+    @Test
+    void testResourcesAreClosedWhenTheClientGoesAway() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/pdf/generate"));
+        AtomicInteger closed = new AtomicInteger();
+
+        filter
+            .filter(exchange, e -> {
+                ResponseResourcesWebFilter.closeAfterResponse(e, closed::incrementAndGet);
+                return Mono.never();
+            })
+            .subscribe()
+            .dispose();
+
+        assertThat(closed).hasValue(1);
+    }
+
+    @Test
+    void testResourceIsClosedRightAwayOutsideOfTheFilter() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/pdf/generate"));
+        AtomicInteger closed = new AtomicInteger();
+
+        assertThatThrownBy(() -> ResponseResourcesWebFilter.closeAfterResponse(exchange, closed::incrementAndGet)).isInstanceOf(
+            IllegalStateException.class
+        );
+        assertThat(closed).hasValue(1);
+    }
+}
@@ -0,0 +1,155 @@
+package md.esempla.webflux.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import md.esempla.webflux.config.ApplicationProperties;
+import md.esempla.webflux.management.StaleResponseMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link StaleResponseWebFilter}.
+ */
+class StaleResponseWebFilterTest {
+
+    private static final String BODY = "[{\"id\":1,\"title\":\"AAAAAAAAAA\"}]";
+
+    private CircuitBreaker circuitBreaker;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StaleResponseWebFilter filter;
+
+    private AtomicInteger chainCalls;
+
+    private List<String> bodyChunks;
+
+    @BeforeEach
+    void setup() {
+        filter = filter(DataSize.ofMegabytes(1));
+        chainCalls = new AtomicInteger();
+        bodyChunks = List.of(BODY);
+    }
+
+    private StaleResponseWebFilter filter(DataSize maximumEntrySize) {
+        ApplicationProperties.DatabaseCircuitBreaker.StaleCache properties = new ApplicationProperties()
+            .getDatabaseCircuitBreaker()
+            .getStaleCache();
+        properties.getPaths().add("/api/posts");
+        properties.setMaximumEntrySize(maximumEntrySize);
+        circuitBreaker = CircuitBreaker.ofDefaults("database");
+        meterRegistry = new SimpleMeterRegistry();
+        return new StaleResponseWebFilter(properties, circuitBreaker, new StaleResponseMetersService(meterRegistry));
+    }
+
+    private WebFilterChain chain() {
+        return exchange -> {
+            chainCalls.incrementAndGet();
+            if (!circuitBreaker.tryAcquirePermission()) {
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                return exchange.getResponse().setComplete();
+            }
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            exchange.getResponse().getHeaders().add("X-Total-Count", "1");
+            DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
+            if (bodyChunks.size() == 1) {
+                return exchange.getResponse().writeWith(Mono.just(bufferFactory.wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+            }
+            return exchange
+                .getResponse()
+                .writeWith(Flux.fromIterable(bodyChunks).map(chunk -> bufferFactory.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private MockServerWebExchange get(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).accept(MediaType.APPLICATION_JSON));
+        filter.filter(exchange, chain()).block();
+        return exchange;
+    }
+
+    @Test
+    void testLastResponseIsServedWhileBreakerIsOpen() {
+        MockServerWebExchange fresh = get("/api/posts?page=0&size=20");
+        assertThat(fresh.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(fresh.getResponse().getHeaders().getFirst(HttpHeaders.WARNING)).isNull();
+
+        circuitBreaker.transitionToOpenState();
+        MockServerWebExchange stale = get("/api/posts?page=0&size=20");
+
+        assertThat(chainCalls).hasValue(1);
+        assertThat(stale.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(stale.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(stale.getResponse().getHeaders().getFirst("X-Total-Count")).isEqualTo("1");
+        assertThat(stale.getResponse().getHeaders().getFirst(HttpHeaders.WARNING)).isEqualTo(StaleResponseWebFilter.STALE_WARNING);
+        assertThat(stale.getResponse().getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("0");
+        assertThat(meterRegistry.get(StaleResponseMetersService.STALE_RESPONSE_METER_NAME).tag("outcome", "served").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testUncachedRequestFailsFastWhileBreakerIsOpen() {
+        get("/api/posts?page=0&size=20");
+
+        circuitBreaker.transitionToOpenState();
+        ServerWebExchange exchange = get("/api/posts?page=1&size=20");
+
+        assertThat(chainCalls).hasValue(2);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(meterRegistry.get(StaleResponseMetersService.STALE_RESPONSE_METER_NAME).tag("outcome", "miss").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testOtherPathsAreNotCached() {
+        get("/api/users");
+
+        circuitBreaker.transitionToOpenState();
+        ServerWebExchange exchange = get("/api/users");
+
+        assertThat(chainCalls).hasValue(2);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void testStreamedResponseIsRecorded() {
+        bodyChunks = List.of(BODY.substring(0, 10), BODY.substring(10, 20), BODY.substring(20));
+        get("/api/posts?page=0&size=20");
+
+        circuitBreaker.transitionToOpenState();
+        MockServerWebExchange stale = get("/api/posts?page=0&size=20");
+
+        assertThat(chainCalls).hasValue(1);
+        assertThat(stale.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void testResponseLargerThanAnEntryGoesThroughUnrecorded() {
+        filter = filter(DataSize.ofBytes(20));
+        bodyChunks = List.of(BODY.substring(0, 10), BODY.substring(10, 20), BODY.substring(20));
+        MockServerWebExchange fresh = get("/api/posts?page=0&size=20");
+
+        assertThat(fresh.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+
+        circuitBreaker.transitionToOpenState();
+        ServerWebExchange exchange = get("/api/posts?page=0&size=20");
+
+        assertThat(chainCalls).hasValue(2);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,126 @@
+package md.esempla.webflux.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import md.esempla.webflux.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the {@link StaticAssetsWebFilter}.
+ */
+class StaticAssetsWebFilterTest {
+
+    private static final String HASHED_JS = "/main.0123456789abcdef.js";
+
+    @TempDir
+    private Path bundle;
+
+    private ApplicationProperties.StaticAssets properties;
+
+    private final AtomicBoolean passedThrough = new AtomicBoolean();
+
+    @BeforeEach
+    void setup() throws IOException {
+        write("index.html", "<html>index</html>");
+        write("main.0123456789abcdef.js", "console.log('main');");
+        write("main.0123456789abcdef.js.br", "br");
+        write("main.0123456789abcdef.js.gz", "gz");
+        write("polyfills-ABCD1234.js", "polyfills");
+        write("favicon.ico", "icon");
+        write("content/vendor.css", "body {}");
+        write("content/vendor.css.gz", "gzipped css");
+        properties = new ApplicationProperties().getStaticAssets();
+        properties.setLocation(bundle.toUri().toString());
+    }
+
+    @Test
+    void testHashedAssetIsImmutable() {
+        MockServerWebExchange exchange = filter(MockServerHttpRequest.get(HASHED_JS));
+
+        assertThat(passedThrough).isFalse();
+        assertThat(exchange.getResponse().getHeaders().getCacheControl()).isEqualTo("max-age=31536000, public, immutable");
+        assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("text/javascript"));
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("console.log('main');");
+        assertThat(filter(MockServerHttpRequest.get("/polyfills-ABCD1234.js")).getResponse().getHeaders().getCacheControl()).contains(
+            "immutable"
+        );
+    }
+
+    @Test
+    void testPrecompressedSiblingIsServedByAcceptEncoding() {
+        MockServerWebExchange brotli = filter(
+            MockServerHttpRequest.get(HASHED_JS).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br")
+        );
+        MockServerWebExchange gzip = filter(MockServerHttpRequest.get(HASHED_JS).header(HttpHeaders.ACCEPT_ENCODING, "gzip, br;q=0"));
+
+        assertThat(brotli.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+        assertThat(brotli.getResponse().getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(brotli.getResponse().getBodyAsString().block()).isEqualTo("br");
+        assertThat(gzip.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getResponse().getBodyAsString().block()).isEqualTo("gz");
+    }
+
+    @Test
+    void testUnhashedFileWithSiblingKeepsItsCacheHeaders() {
+        MockServerWebExchange exchange = filter(
+            MockServerHttpRequest.get("/content/vendor.css").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+        );
+
+        assertThat(exchange.getResponse().getHeaders().getCacheControl()).isNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("gzipped css");
+    }
+
+    @Test
+    void testIndexIsRevalidatedWithItsETag() {
+        MockServerWebExchange exchange = filter(MockServerHttpRequest.get("/index.html"));
+        String etag = exchange.getResponse().getHeaders().getETag();
+
+        assertThat(exchange.getResponse().getHeaders().getCacheControl()).isEqualTo("no-cache");
+        assertThat(etag).isNotBlank();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("<html>index</html>");
+
+        MockServerWebExchange revalidation = filter(MockServerHttpRequest.get("/index.html").ifNoneMatch(etag));
+
+        assertThat(revalidation.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void testOtherRequestsGoThrough() {
+        filter(MockServerHttpRequest.get("/favicon.ico"));
+        assertThat(passedThrough).isTrue();
+
+        passedThrough.set(false);
+        filter(MockServerHttpRequest.post(HASHED_JS));
+        assertThat(passedThrough).isTrue();
+
+        passedThrough.set(false);
+        properties.setEnabled(false);
+        filter(MockServerHttpRequest.get(HASHED_JS));
+        assertThat(passedThrough).isTrue();
+    }
+
+    private MockServerWebExchange filter(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        new StaticAssetsWebFilter(properties).filter(exchange, e -> Mono.fromRunnable(() -> passedThrough.set(true))).block();
+        return exchange;
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = bundle.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+}
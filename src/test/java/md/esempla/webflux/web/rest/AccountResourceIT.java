@@ -10,6 +10,7 @@ import md.esempla.webflux.IntegrationTest;
 import md.esempla.webflux.config.Constants;
 import md.esempla.webflux.domain.User;
 import md.esempla.webflux.repository.AuthorityRepository;
+import md.esempla.webflux.repository.UserCache;
 import md.esempla.webflux.repository.UserRepository;
 import md.esempla.webflux.security.AuthoritiesConstants;
 import md.esempla.webflux.service.UserService;
@@ -45,6 +46,9 @@ class AccountResourceIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
     private AuthorityRepository authorityRepository;
 
@@ -60,6 +64,7 @@ class AccountResourceIT {
     @AfterEach
     public void cleanupAndCheck() {
         userRepository.deleteAll().block();
+        userCache.evictAll().block();
     }
 
     @Test
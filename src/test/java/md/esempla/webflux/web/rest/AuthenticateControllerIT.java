@@ -1,11 +1,14 @@
 package md.esempla.webflux.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import md.esempla.webflux.IntegrationTest;
 import md.esempla.webflux.config.Constants;
 import md.esempla.webflux.domain.User;
 import md.esempla.webflux.repository.UserRepository;
 import md.esempla.webflux.web.rest.vm.LoginVM;
+import md.esempla.webflux.web.rest.vm.RefreshTokenVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
@@ -110,4 +113,99 @@ class AuthenticateControllerIT {
             .jsonPath("$.id_token")
             .doesNotExist();
     }
+
+    @Test
+    void testRefreshRotatesTheTokenAndRevokesItsFamilyOnReuse() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-refresh");
+        user.setEmail("user-jwt-controller-refresh@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        user.setCreatedBy(Constants.SYSTEM);
+
+        userRepository.save(user).block();
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-refresh");
+        login.setPassword("test");
+        String firstToken = refreshTokenOf(
+            webTestClient.post().uri("/api/authenticate").contentType(MediaType.APPLICATION_JSON).bodyValue(om.writeValueAsBytes(login))
+        );
+
+        String secondToken = refreshTokenOf(refresh(firstToken));
+        assertThat(secondToken).isNotEqualTo(firstToken);
+
+        // Replaying the first token revokes the whole family, including the second token
+        refresh(firstToken).exchange().expectStatus().isUnauthorized();
+        refresh(secondToken).exchange().expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testRevokedAccessTokenIsRejected() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-revoke");
+        user.setEmail("user-jwt-controller-revoke@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        user.setCreatedBy(Constants.SYSTEM);
+
+        userRepository.save(user).block();
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-revoke");
+        login.setPassword("test");
+        byte[] body = webTestClient
+            .post()
+            .uri("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(login))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseBody();
+        String idToken = om.readTree(body).get("id_token").asText();
+
+        webTestClient
+            .post()
+            .uri("/api/authenticate/revoke")
+            .headers(headers -> headers.setBearerAuth(idToken))
+            .exchange()
+            .expectStatus()
+            .isNoContent();
+
+        webTestClient
+            .get()
+            .uri("/api/account")
+            .headers(headers -> headers.setBearerAuth(idToken))
+            .exchange()
+            .expectStatus()
+            .isUnauthorized();
+    }
+
+    private WebTestClient.RequestHeadersSpec<?> refresh(String refreshToken) throws Exception {
+        RefreshTokenVM refresh = new RefreshTokenVM();
+        refresh.setRefreshToken(refreshToken);
+        return webTestClient
+            .post()
+            .uri("/api/authenticate/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(refresh));
+    }
+
+    private String refreshTokenOf(WebTestClient.RequestHeadersSpec<?> request) throws Exception {
+        byte[] body = request
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueMatches("Authorization", "Bearer .+")
+            .expectBody()
+            .jsonPath("$.refresh_token")
+            .isNotEmpty()
+            .returnResult()
+            .getResponseBody();
+        return om.readTree(body).get("refresh_token").asText();
+    }
 }
@@ -20,11 +20,14 @@ import md.esempla.webflux.domain.Post;
 import md.esempla.webflux.repository.CommentRepository;
 import md.esempla.webflux.repository.EntityManager;
 import md.esempla.webflux.repository.PostRepository;
+import md.esempla.webflux.repository.QueryResultCache;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -56,6 +59,9 @@ class CommentResourceIT {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private QueryResultCache queryResultCache;
+
     @Autowired
     private EntityManager em;
 
@@ -100,6 +106,7 @@ class CommentResourceIT {
     @BeforeEach
     public void initTest() {
         comment = createEntity();
+        queryResultCache.comments().invalidateAll().block();
     }
 
     @AfterEach
@@ -219,6 +226,27 @@ class CommentResourceIT {
             .value(hasItem(sameInstant(DEFAULT_CREATE_TIME)));
     }
 
+    @Test
+    void getAllCommentsWithoutCount() {
+        // Initialize the database
+        insertedComment = commentRepository.save(comment).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&count=none")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectHeader()
+            .doesNotExist(HttpHeaders.ETAG)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(comment.getId().intValue()));
+    }
+
     @Test
     void getComment() {
         // Initialize the database
@@ -243,6 +271,50 @@ class CommentResourceIT {
             .value(is(sameInstant(DEFAULT_CREATE_TIME)));
     }
 
+    @Test
+    void getCommentNotModified() {
+        // Initialize the database
+        insertedComment = commentRepository.save(comment).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, comment.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Comment.class)
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).startsWith("W/");
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, comment.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.NOT_MODIFIED)
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, eTag);
+
+        // Update the comment
+        commentRepository.save(insertedComment.content(UPDATED_CONTENT)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, comment.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.content")
+            .value(is(UPDATED_CONTENT));
+    }
+
     @Test
     void getCommentsByIdFiltering() {
         // Initialize the database
@@ -0,0 +1,52 @@
+package md.esempla.webflux.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import md.esempla.webflux.repository.RowSetVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+/**
+ * Unit tests for the {@link ETagUtil} utility class.
+ */
+class ETagUtilTest {
+
+    @Test
+    void testWeakETagDependsOnVersion() {
+        String eTag = ETagUtil.weakETag(new RowSetVersion(2, "a"));
+
+        assertThat(eTag).startsWith("W/\"").endsWith("\"");
+        assertThat(ETagUtil.weakETag(new RowSetVersion(2, "a"))).isEqualTo(eTag);
+        assertThat(ETagUtil.weakETag(new RowSetVersion(2, "b"))).isNotEqualTo(eTag);
+        assertThat(ETagUtil.weakETag(new RowSetVersion(3, "a"))).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void testNotModifiedWhenIfNoneMatchMatches() {
+        String eTag = ETagUtil.weakETag("post", 1);
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/posts/1").header(HttpHeaders.IF_NONE_MATCH, eTag)
+        );
+
+        ResponseEntity<Object> response = ETagUtil.notModified(exchange, eTag).block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+    }
+
+    @Test
+    void testModifiedWhenIfNoneMatchDiffers() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/api/posts/1").header(HttpHeaders.IF_NONE_MATCH, ETagUtil.weakETag("post", 1))
+        );
+
+        assertThat(ETagUtil.notModified(exchange, ETagUtil.weakETag("post", 2)).blockOptional()).isEmpty();
+        assertThat(ETagUtil.notModified(MockServerWebExchange.from(MockServerHttpRequest.get("/api/posts/1")), "W/\"1\"").blockOptional())
+            .isEmpty();
+    }
+}
@@ -20,11 +20,14 @@ import md.esempla.webflux.domain.PostStatus;
 import md.esempla.webflux.repository.EntityManager;
 import md.esempla.webflux.repository.PostRepository;
 import md.esempla.webflux.repository.PostStatusRepository;
+import md.esempla.webflux.repository.QueryResultCache;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -63,6 +66,9 @@ class PostResourceIT {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private QueryResultCache queryResultCache;
+
     @Autowired
     private EntityManager em;
 
@@ -107,6 +113,7 @@ class PostResourceIT {
     @BeforeEach
     public void initTest() {
         post = createEntity();
+        queryResultCache.posts().invalidateAll().block();
     }
 
     @AfterEach
@@ -242,7 +249,7 @@ class PostResourceIT {
             .value(hasItem(post.getId().intValue()))
             .jsonPath("$.[*].title")
             .value(hasItem(DEFAULT_TITLE))
-            .jsonPath("$.[*].content")
+            .jsonPath("$.[*].excerpt")
             .value(hasItem(DEFAULT_CONTENT))
             .jsonPath("$.[*].createTime")
             .value(hasItem(sameInstant(DEFAULT_CREATE_TIME)))
@@ -250,6 +257,26 @@ class PostResourceIT {
             .value(hasItem(sameInstant(DEFAULT_UPDATE_TIME)));
     }
 
+    @Test
+    void getAllPostsWithContent() {
+        // Initialize the database
+        insertedPost = postRepository.save(post).block();
+
+        // Get all the postList, including the full content
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&includeContent=true")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(post.getId().intValue()))
+            .jsonPath("$.[*].content")
+            .value(hasItem(DEFAULT_CONTENT));
+    }
+
     @Test
     void getPost() {
         // Initialize the database
@@ -278,6 +305,157 @@ class PostResourceIT {
             .value(is(sameInstant(DEFAULT_UPDATE_TIME)));
     }
 
+    @Test
+    void getPostNotModified() {
+        // Initialize the database
+        insertedPost = postRepository.save(post).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Post.class)
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).startsWith("W/");
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.NOT_MODIFIED)
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, eTag)
+            .expectBody()
+            .isEmpty();
+
+        // Update the post, keeping its update time
+        postRepository.save(insertedPost.title(UPDATED_TITLE)).block();
+
+        String updatedETag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.title")
+            .value(is(UPDATED_TITLE))
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(updatedETag).isNotEqualTo(eTag);
+
+        // The ETag sent with the post matches the version probed without reading it
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, updatedETag)
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void getAllPostsWithoutCount() {
+        // Initialize the database
+        insertedPost = postRepository.save(post).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&size=1")
+            .header("Prefer", "count=none")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectHeader()
+            .doesNotExist(HttpHeaders.ETAG)
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(1)
+            .jsonPath("$.[0].id")
+            .isEqualTo(post.getId().intValue());
+    }
+
+    @Test
+    void getAllPostsWithEstimatedCount() {
+        // Initialize the database
+        insertedPost = postRepository.save(post).block();
+
+        // The few test posts are below the threshold, so they are counted exactly
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&count=estimated&postStatusId.specified=false")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists("X-Total-Count")
+            .expectHeader()
+            .valueEquals("X-Total-Count-Estimated", "false")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(post.getId().intValue()));
+    }
+
+    @Test
+    void getAllPostsNotModified() {
+        // Initialize the database
+        insertedPost = postRepository.save(post).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(Post.class)
+            .getResponseHeaders()
+            .getETag();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        // Delete the post
+        webTestClient
+            .delete()
+            .uri(ENTITY_API_URL_ID, insertedPost.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isNoContent();
+        insertedPost = null;
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk();
+    }
+
     @Test
     void getPostsByIdFiltering() {
         // Initialize the database
@@ -551,7 +729,7 @@ class PostResourceIT {
             .value(hasItem(post.getId().intValue()))
             .jsonPath("$.[*].title")
             .value(hasItem(DEFAULT_TITLE))
-            .jsonPath("$.[*].content")
+            .jsonPath("$.[*].excerpt")
             .value(hasItem(DEFAULT_CONTENT))
             .jsonPath("$.[*].createTime")
             .value(hasItem(sameInstant(DEFAULT_CREATE_TIME)))
@@ -20,6 +20,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -214,6 +216,32 @@ class PostStatusResourceIT {
             .value(hasItem(DEFAULT_STATUS));
     }
 
+    @Test
+    void getAllPostStatusesNotModified() {
+        // Initialize the database
+        insertedPostStatus = postStatusRepository.save(postStatus).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(PostStatus.class)
+            .getResponseHeaders()
+            .getETag();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
     @Test
     void getPostStatus() {
         // Initialize the database
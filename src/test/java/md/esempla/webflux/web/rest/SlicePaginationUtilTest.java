@@ -0,0 +1,61 @@
+package md.esempla.webflux.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import md.esempla.webflux.repository.LookaheadPageRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Unit tests for the {@link SlicePaginationUtil} utility class and the {@link CountMode}.
+ */
+class SlicePaginationUtilTest {
+
+    @Test
+    void testLookaheadReadsOneMoreRowOfTheSamePage() {
+        Pageable lookahead = LookaheadPageRequest.of(PageRequest.of(2, 10));
+
+        assertThat(lookahead.getOffset()).isEqualTo(20);
+        assertThat(lookahead.getPageSize()).isEqualTo(11);
+        assertThat(LookaheadPageRequest.of(lookahead)).isEqualTo(lookahead);
+        assertThat(LookaheadPageRequest.of(Pageable.unpaged()).isUnpaged()).isTrue();
+    }
+
+    @Test
+    void testSliceHasNextLinkOnlyWhenTheNextRowWasRead() {
+        Pageable pageable = PageRequest.of(1, 2);
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString("http://localhost/api/comments?sort=id,desc");
+
+        Slice<Integer> middle = SlicePaginationUtil.toSlice(List.of(1, 2, 3), pageable);
+
+        assertThat(middle.getContent()).containsExactly(1, 2);
+        assertThat(SlicePaginationUtil.generateSliceHttpHeaders(uri, middle).getFirst(HttpHeaders.LINK)).isEqualTo(
+            "<http://localhost/api/comments?sort=id%2Cdesc&page=2&size=2>; rel=\"next\"," +
+            "<http://localhost/api/comments?sort=id%2Cdesc&page=0&size=2>; rel=\"prev\""
+        );
+
+        Slice<Integer> last = SlicePaginationUtil.toSlice(List.of(1, 2), pageable);
+
+        assertThat(last.getContent()).containsExactly(1, 2);
+        assertThat(SlicePaginationUtil.generateSliceHttpHeaders(uri, last).getFirst(HttpHeaders.LINK)).isEqualTo(
+            "<http://localhost/api/comments?sort=id%2Cdesc&page=0&size=2>; rel=\"prev\""
+        );
+        assertThat(SlicePaginationUtil.generateSliceHttpHeaders(uri, last).containsKey("X-Total-Count")).isFalse();
+    }
+
+    @Test
+    void testCountModeIsRequestedByParameterOrHeader() {
+        assertThat(CountMode.of(MockServerHttpRequest.get("/api/comments").build())).isEqualTo(CountMode.EXACT);
+        assertThat(CountMode.of(MockServerHttpRequest.get("/api/comments?count=none").build())).isEqualTo(CountMode.NONE);
+        MockServerHttpRequest prefer = MockServerHttpRequest.get("/api/comments").header("Prefer", "return=minimal, count=none").build();
+        assertThat(CountMode.of(prefer)).isEqualTo(CountMode.NONE);
+        assertThat(CountMode.of(MockServerHttpRequest.get("/api/comments?count=other").build())).isEqualTo(CountMode.EXACT);
+        assertThat(CountMode.of(MockServerHttpRequest.get("/api/posts?count=estimated").build())).isEqualTo(CountMode.ESTIMATED);
+    }
+}
@@ -10,6 +10,7 @@ import md.esempla.webflux.config.Constants;
 import md.esempla.webflux.domain.User;
 import md.esempla.webflux.repository.AuthorityRepository;
 import md.esempla.webflux.repository.EntityManager;
+import md.esempla.webflux.repository.UserCache;
 import md.esempla.webflux.repository.UserRepository;
 import md.esempla.webflux.security.AuthoritiesConstants;
 import md.esempla.webflux.service.dto.AdminUserDTO;
@@ -58,6 +59,9 @@ class UserResourceIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
     private AuthorityRepository authorityRepository;
 
@@ -116,6 +120,7 @@ class UserResourceIT {
     public void cleanupAndCheck() {
         userRepository.deleteAllUserAuthorities().block();
         userRepository.deleteAll().block();
+        userCache.evictAll().block();
     }
 
     @Test
@@ -268,6 +273,25 @@ class UserResourceIT {
         assertThat(foundUser.getLangKey()).isEqualTo(DEFAULT_LANGKEY);
     }
 
+    @Test
+    void getAllUsersWithEstimatedCount() {
+        // Initialize the database
+        userRepository.save(user).block();
+
+        // The few test users are below the threshold, so they are counted exactly
+        webTestClient
+            .get()
+            .uri("/api/admin/users?sort=id,desc&count=estimated")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists("X-Total-Count")
+            .expectHeader()
+            .valueEquals("X-Total-Count-Estimated", "false");
+    }
+
     @Test
     void getUser() {
         // Initialize the database
@@ -6,6 +6,7 @@ import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -158,6 +159,23 @@ class ExceptionTranslatorIT {
             .isEqualTo("test response status");
     }
 
+    @Test
+    void testTooManyRequests() {
+        webTestClient
+            .get()
+            .uri("/api/exception-translator-test/too-many-requests")
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+            .expectHeader()
+            .valueEquals(HttpHeaders.RETRY_AFTER, "7")
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+            .expectBody()
+            .jsonPath("$.message")
+            .isEqualTo("error.tooManyRequests");
+    }
+
     @Test
     void testInternalServerError() {
         webTestClient
@@ -2,6 +2,8 @@ package md.esempla.webflux.web.rest.errors;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import md.esempla.webflux.service.TooManyRequestsException;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
@@ -47,6 +49,11 @@ public class ExceptionTranslatorTestController {
         throw new TestResponseStatusException();
     }
 
+    @GetMapping("/too-many-requests")
+    public void tooManyRequests() {
+        throw new TooManyRequestsException("test too many requests", Duration.ofSeconds(7));
+    }
+
     @GetMapping("/internal-server-error")
     public void internalServerError() {
         throw new RuntimeException();